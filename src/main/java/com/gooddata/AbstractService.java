@@ -7,6 +7,7 @@ package com.gooddata;
 
 import static com.gooddata.util.Validate.notNull;
 import static java.lang.String.format;
+import static java.time.format.DateTimeFormatter.RFC_1123_DATE_TIME;
 import static org.springframework.http.HttpMethod.GET;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -22,13 +23,22 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Parent for GoodData services providing helpers for REST API calls and polling.
  */
 public abstract class AbstractService {
 
+    private static final String RETRY_AFTER_HEADER = "Retry-After";
+
     protected final RestTemplate restTemplate;
 
     private final GoodDataSettings settings;
@@ -62,25 +72,65 @@ public abstract class AbstractService {
     }
 
     final <R> R poll(final PollHandler<?,R> handler, long timeout, final TimeUnit unit) {
+        return await(pollAsync(handler, timeout, unit), 0, null);
+    }
+
+    static <R> R await(final CompletableFuture<R> future, long timeout, final TimeUnit unit) {
+        notNull(future, "future");
+        try {
+            return unit == null ? future.get() : future.get(timeout, unit);
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new GoodDataException("interrupted");
+        } catch (TimeoutException e) {
+            throw new GoodDataException("timeout");
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        }
+    }
+
+    /**
+     * Poll on the shared {@link PollScheduler} without blocking the calling thread, the poll requests run on the shared
+     * worker threads. Sleep time between poll
+     * retries is driven by the handler's or settings' {@link PollIntervalStrategy} and the {@code Retry-After} header.
+     *
+     * @param handler poll handler
+     * @param timeout timeout value
+     * @param unit    timeout unit, null for no timeout
+     * @param <R>     result type
+     * @return future completed by the polling result or by the exception thrown during polling
+     */
+    final <R> CompletableFuture<R> pollAsync(final PollHandler<?,R> handler, long timeout, final TimeUnit unit) {
         notNull(handler, "handler");
-        final long start = System.currentTimeMillis();
-        while (true) {
-            if (pollOnce(handler)) {
-                return handler.getResult();
-            }
-            if (unit != null && start + unit.toMillis(timeout) < System.currentTimeMillis()) {
-                throw new GoodDataException("timeout");
-            }
+        final PollIntervalStrategy strategy = handler.getPollIntervalStrategy() != null
+                ? handler.getPollIntervalStrategy() : settings.getPollIntervalStrategy();
+        final AtomicLong retryAfter = new AtomicLong();
+        return PollScheduler.getDefault().schedule(
+                () -> handler.isDone() || pollOnce(handler, retryAfter),
+                handler::getResult,
+                attempt -> Math.max(strategy.nextInterval(attempt), retryAfter.getAndSet(0)),
+                timeout, unit);
+    }
 
-            try {
-                Thread.sleep(settings.getPollSleep());
-            } catch (InterruptedException e) {
-                throw new GoodDataException("interrupted");
-            }
+    private static RuntimeException unwrap(final Throwable e) {
+        if (e instanceof CompletionException && e.getCause() != null) {
+            return unwrap(e.getCause());
         }
+        if (e instanceof RuntimeException) {
+            return (RuntimeException) e;
+        }
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+        return new GoodDataException("Polling failed", e);
     }
 
     final <P> boolean pollOnce(final PollHandler<P,?> handler) {
+        return pollOnce(handler, null);
+    }
+
+    private <P> boolean pollOnce(final PollHandler<P,?> handler, final AtomicLong retryAfter) {
         notNull(handler, "handler");
         final ClientHttpResponse response;
         try {
@@ -89,6 +139,9 @@ public abstract class AbstractService {
             handler.handlePollException(e);
             throw new GoodDataException("Handler " + handler.getClass().getName() + " didn't handle exception", e);
         }
+        if (retryAfter != null) {
+            retryAfter.set(getRetryAfter(response.getHeaders()));
+        }
 
         try {
             if (handler.isFinished(response)) {
@@ -105,6 +158,29 @@ public abstract class AbstractService {
         return handler.isDone();
     }
 
+    /**
+     * Parse the {@code Retry-After} header given either as delay seconds or as HTTP date.
+     *
+     * @param headers response headers
+     * @return milliseconds to wait or 0 when the header is missing or invalid
+     */
+    static long getRetryAfter(final HttpHeaders headers) {
+        final String value = headers != null ? headers.getFirst(RETRY_AFTER_HEADER) : null;
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Math.max(0, TimeUnit.SECONDS.toMillis(Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            try {
+                final long date = ZonedDateTime.parse(value.trim(), RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+                return Math.max(0, date - System.currentTimeMillis());
+            } catch (DateTimeParseException ignored) {
+                return 0;
+            }
+        }
+    }
+
     protected final <T> T extractData(ClientHttpResponse response, Class<T> cls) throws IOException {
         notNull(response, "response");
         notNull(cls, "cls");
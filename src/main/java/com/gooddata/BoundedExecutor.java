@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2004-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static com.gooddata.util.Validate.notNull;
+
+/**
+ * For internal use by services running requests concurrently.<p>
+ * Runs the tasks on the shared pool of daemon worker threads, at most given number of tasks at once, the other
+ * tasks wait in the queue. No thread is created or torn down per call, the idle workers are released
+ * by the shared pool.
+ */
+public final class BoundedExecutor implements Executor {
+
+    private static final ExecutorService WORKERS = Executors.newCachedThreadPool(new WorkerThreadFactory());
+
+    private final int parallelism;
+
+    private final Queue<Runnable> pending = new ArrayDeque<>();
+
+    private int running;
+
+    /**
+     * @param parallelism maximum number of tasks running at once
+     */
+    public BoundedExecutor(final int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be greater than zero");
+        }
+        this.parallelism = parallelism;
+    }
+
+    @Override
+    public void execute(final Runnable task) {
+        notNull(task, "task");
+        enqueue(() -> {
+            try {
+                task.run();
+            } finally {
+                release();
+            }
+        });
+    }
+
+    /**
+     * Submits the asynchronous task, e.g. the request followed by polling for its result. The task occupies its slot
+     * until the returned stage completes, but no thread is blocked while waiting for it. Cancelling the returned
+     * future cancels the task not started yet and the future returned by the running task.
+     *
+     * @param task task starting the asynchronous computation, invoked by the worker thread
+     * @param <T>  result type
+     * @return future completed by the stage returned by the task or by the exception thrown by the task
+     */
+    public <T> CompletableFuture<T> submit(final Supplier<? extends CompletionStage<T>> task) {
+        notNull(task, "task");
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        enqueue(() -> {
+            if (result.isDone()) {
+                // cancelled before started
+                release();
+                return;
+            }
+            final CompletableFuture<T> stage;
+            try {
+                stage = task.get().toCompletableFuture();
+            } catch (RuntimeException | Error e) {
+                release();
+                result.completeExceptionally(e);
+                return;
+            }
+            stage.whenComplete((value, e) -> {
+                release();
+                if (e != null) {
+                    result.completeExceptionally(e instanceof CompletionException && e.getCause() != null
+                            ? e.getCause() : e);
+                } else {
+                    result.complete(value);
+                }
+            });
+            result.whenComplete((value, e) -> stage.cancel(false));
+        });
+        return result;
+    }
+
+    /**
+     * Waits for the future and unwraps the exception it's completed by.
+     *
+     * @param future  future to wait for
+     * @param message message of the exception wrapping the checked exception
+     * @param <T>     result type
+     * @return result of the future
+     */
+    public static <T> T join(final CompletableFuture<T> future, final String message) {
+        notNull(future, "future");
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new GoodDataException(message, e.getCause());
+        }
+    }
+
+    /**
+     * @return shared pool of the worker threads, growing with the number of running tasks
+     */
+    static Executor workers() {
+        return WORKERS;
+    }
+
+    private synchronized void enqueue(final Runnable task) {
+        if (running < parallelism) {
+            running++;
+            WORKERS.execute(task);
+        } else {
+            pending.add(task);
+        }
+    }
+
+    private synchronized void release() {
+        final Runnable next = pending.poll();
+        if (next != null) {
+            WORKERS.execute(next);
+        } else {
+            running--;
+        }
+    }
+
+    private static final class WorkerThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, "gooddata-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2004-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static com.gooddata.util.Validate.notNull;
+
+/**
+ * Represents the result composed of other results (e.g. the sequence of polled tasks) as {@link FutureResult}.
+ */
+public final class CompletableFutureResult<T> implements FutureResult<T> {
+
+    private final CompletableFuture<T> future;
+
+    private final Supplier<String> pollingUri;
+
+    /**
+     * Creates a new instance of the result completed by given future.<p>
+     * For internal use by services composing the polled results.
+     *
+     * @param future     future completed by the result
+     * @param pollingUri supplier of the URI currently polled
+     */
+    public CompletableFutureResult(final CompletableFuture<T> future, final Supplier<String> pollingUri) {
+        this.future = notNull(future, "future");
+        this.pollingUri = notNull(pollingUri, "pollingUri");
+    }
+
+    @Override
+    public boolean isDone() {
+        if (future.isCompletedExceptionally()) {
+            AbstractService.await(future, 0, null);
+        }
+        return future.isDone();
+    }
+
+    @Override
+    public T get() {
+        return get(0, null);
+    }
+
+    @Override
+    public T get(final long timeout, final TimeUnit unit) {
+        return AbstractService.await(future, timeout, unit);
+    }
+
+    @Override
+    public CompletableFuture<T> toCompletableFuture() {
+        return future;
+    }
+
+    /**
+     * Get URI currently used for polling
+     *
+     * @return URI string
+     */
+    @Override
+    public String getPollingUri() {
+        return pollingUri.get();
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2004-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata;
+
+import com.gooddata.util.GoodDataToStringBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.springframework.util.Assert.isTrue;
+
+/**
+ * Poll interval strategy starting with short interval which grows exponentially up to the given maximum.
+ * Short running tasks are so finished quickly, while long running tasks cost only a few poll requests.
+ * <p>
+ * Optional jitter randomizes each interval by the given fraction to spread the polls of tasks started together.
+ */
+public final class ExponentialBackoffPollIntervalStrategy implements PollIntervalStrategy {
+
+    private final long initialInterval;
+    private final double multiplier;
+    private final long maxInterval;
+    private final double jitter;
+
+    /**
+     * Creates new strategy without jitter
+     *
+     * @param initialInterval milliseconds to wait after the first poll request
+     * @param multiplier      factor the interval grows by after each poll request
+     * @param maxInterval     maximum milliseconds to wait
+     */
+    public ExponentialBackoffPollIntervalStrategy(final long initialInterval, final double multiplier,
+                                                  final long maxInterval) {
+        this(initialInterval, multiplier, maxInterval, 0);
+    }
+
+    /**
+     * Creates new strategy
+     *
+     * @param initialInterval milliseconds to wait after the first poll request
+     * @param multiplier      factor the interval grows by after each poll request
+     * @param maxInterval     maximum milliseconds to wait
+     * @param jitter          fraction of the interval (between 0 and 1) used to randomize it
+     */
+    public ExponentialBackoffPollIntervalStrategy(final long initialInterval, final double multiplier,
+                                                  final long maxInterval, final double jitter) {
+        isTrue(initialInterval >= 0, "initialInterval must be not negative");
+        isTrue(multiplier >= 1, "multiplier must be at least 1");
+        isTrue(maxInterval >= initialInterval, "maxInterval must be greater or equal to initialInterval");
+        isTrue(jitter >= 0 && jitter <= 1, "jitter must be between 0 and 1");
+        this.initialInterval = initialInterval;
+        this.multiplier = multiplier;
+        this.maxInterval = maxInterval;
+        this.jitter = jitter;
+    }
+
+    @Override
+    public long nextInterval(final int attempt) {
+        final double interval = Math.min(maxInterval,
+                initialInterval * Math.pow(multiplier, Math.max(0, attempt - 1)));
+        if (jitter == 0) {
+            return (long) interval;
+        }
+        final double random = ThreadLocalRandom.current().nextDouble(-jitter, jitter);
+        return (long) Math.min(maxInterval, Math.max(0, interval * (1 + random)));
+    }
+
+    public long getInitialInterval() {
+        return initialInterval;
+    }
+
+    public double getMultiplier() {
+        return multiplier;
+    }
+
+    public long getMaxInterval() {
+        return maxInterval;
+    }
+
+    public double getJitter() {
+        return jitter;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        final ExponentialBackoffPollIntervalStrategy that = (ExponentialBackoffPollIntervalStrategy) o;
+
+        if (initialInterval != that.initialInterval) return false;
+        if (Double.compare(that.multiplier, multiplier) != 0) return false;
+        if (maxInterval != that.maxInterval) return false;
+        return Double.compare(that.jitter, jitter) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = (int) (initialInterval ^ (initialInterval >>> 32));
+        long temp = Double.doubleToLongBits(multiplier);
+        result = 31 * result + (int) (temp ^ (temp >>> 32));
+        result = 31 * result + (int) (maxInterval ^ (maxInterval >>> 32));
+        temp = Double.doubleToLongBits(jitter);
+        result = 31 * result + (int) (temp ^ (temp >>> 32));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return GoodDataToStringBuilder.defaultToString(this);
+    }
+}
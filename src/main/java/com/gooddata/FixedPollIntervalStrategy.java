@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2004-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata;
+
+import com.gooddata.util.GoodDataToStringBuilder;
+
+import static org.springframework.util.Assert.isTrue;
+
+/**
+ * Poll interval strategy waiting the same time between all poll requests.
+ */
+public final class FixedPollIntervalStrategy implements PollIntervalStrategy {
+
+    private final long interval;
+
+    /**
+     * Creates new strategy
+     *
+     * @param interval milliseconds between poll requests
+     */
+    public FixedPollIntervalStrategy(final long interval) {
+        isTrue(interval >= 0, "interval must be not negative");
+        this.interval = interval;
+    }
+
+    @Override
+    public long nextInterval(final int attempt) {
+        return interval;
+    }
+
+    public long getInterval() {
+        return interval;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        final FixedPollIntervalStrategy that = (FixedPollIntervalStrategy) o;
+
+        return interval == that.interval;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (interval ^ (interval >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return GoodDataToStringBuilder.defaultToString(this);
+    }
+}
@@ -5,6 +5,7 @@
  */
 package com.gooddata;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -44,4 +45,17 @@ public interface FutureResult<T> {
      * @return URI string
      */
     String getPollingUri();
+
+    /**
+     * Get view of this result as {@link CompletableFuture}, allowing to register callbacks instead of blocking
+     * the calling thread.
+     * <p>
+     * The default implementation waits for the result in the common fork join pool, implementations backed by
+     * polling should override it to poll without blocking any thread.
+     *
+     * @return future completed by the result value or by the exception thrown when polling fails
+     */
+    default CompletableFuture<T> toCompletableFuture() {
+        return CompletableFuture.supplyAsync(this::get);
+    }
 }
@@ -37,10 +37,12 @@ import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.util.VersionInfo;
 import org.springframework.context.annotation.Bean;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.List;
 
 import static com.gooddata.util.Validate.notNull;
 import static java.util.Collections.singletonMap;
@@ -213,7 +215,7 @@ public class GoodData {
     protected GoodData(GoodDataEndpoint endpoint, Authentication authentication, GoodDataSettings settings) {
         httpClient = authentication.createHttpClient(endpoint, createHttpClientBuilder(settings));
 
-        restTemplate = createRestTemplate(endpoint, httpClient);
+        restTemplate = createRestTemplate(endpoint, httpClient, settings);
 
         accountService = new AccountService(getRestTemplate(), settings);
         projectService = new ProjectService(getRestTemplate(), accountService, settings);
@@ -237,17 +239,22 @@ public class GoodData {
         lcmService = new LcmService(getRestTemplate(), settings);
     }
 
-    static RestTemplate createRestTemplate(GoodDataEndpoint endpoint, HttpClient httpClient) {
+    static RestTemplate createRestTemplate(GoodDataEndpoint endpoint, HttpClient httpClient, GoodDataSettings settings) {
         notNull(endpoint, "endpoint");
         notNull(httpClient, "httpClient");
+        notNull(settings, "settings");
 
         final UriPrefixingClientHttpRequestFactory factory = new UriPrefixingClientHttpRequestFactory(
                 new HttpComponentsClientHttpRequestFactory(httpClient),
                 endpoint.toUri()
         );
         final RestTemplate restTemplate = new RestTemplate(factory);
-        restTemplate.setInterceptors(Arrays.asList(
-                new HeaderSettingRequestInterceptor(singletonMap("Accept", getAcceptHeaderValue()))));
+        final List<ClientHttpRequestInterceptor> interceptors = new ArrayList<>();
+        interceptors.add(new HeaderSettingRequestInterceptor(singletonMap("Accept", getAcceptHeaderValue())));
+        if (settings.isRequestCoalescing()) {
+            interceptors.add(new SingleFlightRequestInterceptor());
+        }
+        restTemplate.setInterceptors(interceptors);
 
         restTemplate.setErrorHandler(new ResponseErrorHandler(restTemplate.getMessageConverters()));
 
@@ -25,7 +25,10 @@ public class GoodDataSettings {
     private int connectionRequestTimeout = secondsToMillis(10);
     private int socketTimeout = secondsToMillis(60);
     private int pollSleep = secondsToMillis(5);
+    private PollIntervalStrategy pollIntervalStrategy = new FixedPollIntervalStrategy(pollSleep);
+    private boolean pollIntervalStrategySet;
     private String userAgent;
+    private boolean requestCoalescing;
 
 
     /**
@@ -177,6 +180,9 @@ public class GoodDataSettings {
     public void setPollSleep(final int pollSleep) {
         isTrue(pollSleep >= 0, "pollSleep must be not negative");
         this.pollSleep = pollSleep;
+        if (!pollIntervalStrategySet) {
+            this.pollIntervalStrategy = new FixedPollIntervalStrategy(pollSleep);
+        }
     }
 
     /**
@@ -189,6 +195,43 @@ public class GoodDataSettings {
         setPollSleep(secondsToMillis(pollSleep));
     }
 
+    /**
+     * Get strategy computing sleep time between poll retries.
+     * <p>
+     * When no strategy is set, the fixed {@link #getPollSleep()} is used.
+     *
+     * @return poll interval strategy
+     * @see AbstractService#poll(PollHandler, long, TimeUnit)
+     */
+    public PollIntervalStrategy getPollIntervalStrategy() {
+        return pollIntervalStrategy;
+    }
+
+    /**
+     * Whether the strategy computing sleep time between poll retries was set explicitly
+     *
+     * @return true if the strategy was set by {@link #setPollIntervalStrategy(PollIntervalStrategy)}, false if the fixed
+     * {@link #getPollSleep()} is used
+     */
+    public boolean isPollIntervalStrategySet() {
+        return pollIntervalStrategySet;
+    }
+
+    /**
+     * Set strategy computing sleep time between poll retries, e.g. {@link ExponentialBackoffPollIntervalStrategy}.
+     * Takes precedence over {@link #setPollSleep(int)}.
+     * <p>
+     * The {@code Retry-After} header returned by the polled resource is honored regardless of the strategy.
+     *
+     * @param pollIntervalStrategy poll interval strategy, null to use fixed {@link #getPollSleep()}
+     * @see AbstractService#poll(PollHandler, long, TimeUnit)
+     */
+    public void setPollIntervalStrategy(final PollIntervalStrategy pollIntervalStrategy) {
+        this.pollIntervalStrategySet = pollIntervalStrategy != null;
+        this.pollIntervalStrategy = pollIntervalStrategy != null
+                ? pollIntervalStrategy : new FixedPollIntervalStrategy(pollSleep);
+    }
+
     /**
      * User agent
      * @return user agent string
@@ -205,6 +248,25 @@ public class GoodDataSettings {
         this.userAgent = userAgent;
     }
 
+    /**
+     * Whether concurrent identical GET requests are coalesced into a single HTTP call
+     * @return true if the requests are coalesced
+     * @see #setRequestCoalescing(boolean)
+     */
+    public boolean isRequestCoalescing() {
+        return requestCoalescing;
+    }
+
+    /**
+     * Enables or disables coalescing of concurrent identical GET requests (the same URI and headers) into a single
+     * HTTP call, the waiting requests get a copy of the JSON response of the first one. Useful when many threads
+     * read the same resources concurrently. Disabled by default.
+     * @param requestCoalescing true to coalesce the requests
+     */
+    public void setRequestCoalescing(final boolean requestCoalescing) {
+        this.requestCoalescing = requestCoalescing;
+    }
+
     @Override
     public boolean equals(final Object o) {
         if (this == o) return true;
@@ -217,6 +279,10 @@ public class GoodDataSettings {
         if (connectionRequestTimeout != that.connectionRequestTimeout) return false;
         if (socketTimeout != that.socketTimeout) return false;
         if (pollSleep != that.pollSleep) return false;
+        if (requestCoalescing != that.requestCoalescing) return false;
+        if (pollIntervalStrategySet != that.pollIntervalStrategySet) return false;
+        if (pollIntervalStrategy != null ? !pollIntervalStrategy.equals(that.pollIntervalStrategy) : that.pollIntervalStrategy != null)
+            return false;
         return userAgent != null ? userAgent.equals(that.userAgent) : that.userAgent == null;
     }
 
@@ -227,6 +293,9 @@ public class GoodDataSettings {
         result = 31 * result + connectionRequestTimeout;
         result = 31 * result + socketTimeout;
         result = 31 * result + pollSleep;
+        result = 31 * result + (requestCoalescing ? 1 : 0);
+        result = 31 * result + (pollIntervalStrategySet ? 1 : 0);
+        result = 31 * result + (pollIntervalStrategy != null ? pollIntervalStrategy.hashCode() : 0);
         result = 31 * result + (userAgent != null ? userAgent.hashCode() : 0);
         return result;
     }
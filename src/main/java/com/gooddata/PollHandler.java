@@ -86,4 +86,13 @@ public interface PollHandler<P,R> {
      * @param e the exception
      */
     void handlePollException(GoodDataRestException e);
+
+    /**
+     * Get strategy computing sleep time between poll retries specific for this handler.
+     *
+     * @return poll interval strategy or null to use the one from {@link GoodDataSettings}
+     */
+    default PollIntervalStrategy getPollIntervalStrategy() {
+        return null;
+    }
 }
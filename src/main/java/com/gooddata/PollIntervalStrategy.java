@@ -0,0 +1,27 @@
+/*
+ * Copyright (C) 2004-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata;
+
+/**
+ * Strategy computing the time to wait between two consecutive poll requests.
+ * <p>
+ * When the polled resource responds with {@code Retry-After} header, the server requested delay is used
+ * whenever it is longer than the one computed by the strategy.
+ *
+ * @see GoodDataSettings#setPollIntervalStrategy(PollIntervalStrategy)
+ * @see PollHandler#getPollIntervalStrategy()
+ */
+@FunctionalInterface
+public interface PollIntervalStrategy {
+
+    /**
+     * Get milliseconds to wait before the next poll request.
+     *
+     * @param attempt number of poll requests already done (starting with 1)
+     * @return milliseconds to wait
+     */
+    long nextInterval(int attempt);
+}
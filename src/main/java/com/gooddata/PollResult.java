@@ -5,6 +5,7 @@
  */
 package com.gooddata;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 import static com.gooddata.util.Validate.notNull;
@@ -18,6 +19,8 @@ public final class PollResult<T> implements FutureResult<T> {
 
     private final PollHandler<?,T> handler;
 
+    private CompletableFuture<T> future;
+
     /**
      * Creates a new instance of the result to be eventually retrieved by polling on the REST API.<p>
      * For internal use by services employing polling.
@@ -32,6 +35,13 @@ public final class PollResult<T> implements FutureResult<T> {
 
     @Override
     public boolean isDone() {
+        final CompletableFuture<T> future = getFuture();
+        if (future != null) {
+            if (future.isCompletedExceptionally()) {
+                AbstractService.await(future, 0, null);
+            }
+            return future.isDone();
+        }
         return handler.isDone() || service.pollOnce(handler);
     }
 
@@ -42,12 +52,35 @@ public final class PollResult<T> implements FutureResult<T> {
 
     @Override
     public T get(final long timeout, final TimeUnit unit) {
+        final CompletableFuture<T> future = getFuture();
+        if (future != null) {
+            return AbstractService.await(future, timeout, unit);
+        }
         if (handler.isDone()) {
             return handler.getResult();
         }
         return service.poll(handler, timeout, unit);
     }
 
+    /**
+     * Starts polling in the background on the shared poll scheduler (unless already started) and returns
+     * a future completed by the result. No thread is blocked while waiting between the polls.
+     * Once started, {@link #isDone()} and {@link #get()} observe the background polling.
+     *
+     * @return future completed by the result or by the exception thrown during polling
+     */
+    @Override
+    public synchronized CompletableFuture<T> toCompletableFuture() {
+        if (future == null) {
+            future = service.pollAsync(handler, 0, null);
+        }
+        return future;
+    }
+
+    private synchronized CompletableFuture<T> getFuture() {
+        return future;
+    }
+
     /**
      * Get URI used for polling
      *
@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2004-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntToLongFunction;
+import java.util.function.Supplier;
+
+import static com.gooddata.util.Validate.notNull;
+
+/**
+ * For internal use by services employing polling.<p>
+ * Multiplexes the waiting between the poll requests of all pending polls onto a single shared timer thread.
+ * The poll requests themselves are executed by the given pool, so a slow request never delays the other polls.
+ *
+ * @see PollResult#toCompletableFuture()
+ */
+final class PollScheduler {
+
+    private static final PollScheduler DEFAULT = new PollScheduler(BoundedExecutor.workers());
+
+    private final ScheduledExecutorService timer;
+
+    private final Executor workers;
+
+    /**
+     * @param workers pool executing the poll requests, should grow with the number of pending polls
+     */
+    PollScheduler(final Executor workers) {
+        this.workers = notNull(workers, "workers");
+        final ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, new PollThreadFactory());
+        timer.setRemoveOnCancelPolicy(true);
+        this.timer = timer;
+    }
+
+    /**
+     * Shared scheduler used by all the services
+     *
+     * @return shared scheduler
+     */
+    static PollScheduler getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Schedule polling until the given poll step reports it's done or the timeout expires.
+     *
+     * @param pollOnce single poll step, returns true when the polling is done
+     * @param result   supplier of the result, called once the polling is done
+     * @param nextInterval milliseconds to wait before the next poll step, given number of poll steps already done
+     * @param timeout  timeout value
+     * @param unit     timeout unit, null for no timeout
+     * @param <R>      result type
+     * @return future completed by the result or by the exception thrown during polling
+     */
+    <R> CompletableFuture<R> schedule(final BooleanSupplier pollOnce, final Supplier<R> result,
+                                      final IntToLongFunction nextInterval, final long timeout, final TimeUnit unit) {
+        notNull(pollOnce, "pollOnce");
+        notNull(result, "result");
+        notNull(nextInterval, "nextInterval");
+        final long deadline = unit == null ? Long.MAX_VALUE : System.currentTimeMillis() + unit.toMillis(timeout);
+        final CompletableFuture<R> future = new CompletableFuture<>();
+        workers.execute(new PollTask<>(pollOnce, result, nextInterval, deadline, future));
+        return future;
+    }
+
+    private final class PollTask<R> implements Runnable {
+
+        private final BooleanSupplier pollOnce;
+        private final Supplier<R> result;
+        private final IntToLongFunction nextInterval;
+        private final long deadline;
+        private final CompletableFuture<R> future;
+        private int attempt;
+
+        private PollTask(final BooleanSupplier pollOnce, final Supplier<R> result,
+                         final IntToLongFunction nextInterval, final long deadline, final CompletableFuture<R> future) {
+            this.pollOnce = pollOnce;
+            this.result = result;
+            this.nextInterval = nextInterval;
+            this.deadline = deadline;
+            this.future = future;
+        }
+
+        @Override
+        public void run() {
+            if (future.isDone()) {
+                // cancelled by the caller
+                return;
+            }
+            try {
+                if (pollOnce.getAsBoolean()) {
+                    future.complete(result.get());
+                } else if (deadline < System.currentTimeMillis()) {
+                    future.completeExceptionally(new GoodDataException("timeout"));
+                } else {
+                    // only the delay is timed by the timer thread, the next poll request runs on the workers
+                    timer.schedule(() -> workers.execute(this), nextInterval.applyAsLong(++attempt),
+                            TimeUnit.MILLISECONDS);
+                }
+            } catch (RuntimeException | Error e) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static final class PollThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, "gooddata-poll-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright (C) 2007-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+import static com.gooddata.util.Validate.notNull;
+
+/**
+ * Intercepts client-side HTTP requests and merges concurrent identical GET requests (the same URI and headers)
+ * into a single HTTP call. The first request is executed, the others wait for its response and get a copy of it.
+ * <p>
+ * The response is buffered only when any identical request has joined while the first one was executed,
+ * otherwise it's streamed to the first requester as is. Only JSON responses are buffered and shared. Other responses
+ * (i.e. file downloads) are streamed to the first requester only, the waiting requests are executed on their own then.
+ *
+ * @see GoodDataSettings#setRequestCoalescing(boolean)
+ */
+class SingleFlightRequestInterceptor implements ClientHttpRequestInterceptor {
+
+    private final ConcurrentMap<String, Flight> inFlight = new ConcurrentHashMap<>();
+
+    private final Runnable joinListener;
+
+    SingleFlightRequestInterceptor() {
+        this(() -> { });
+    }
+
+    /**
+     * @param joinListener called when the request joins the identical request in flight
+     */
+    SingleFlightRequestInterceptor(final Runnable joinListener) {
+        this.joinListener = notNull(joinListener, "joinListener");
+    }
+
+    /**
+     * Intercept the given request, execute it or wait for the identical request in flight, and return a response.
+     *
+     * @param request   the request, containing method, URI, and headers
+     * @param body      the body of the request
+     * @param execution the request execution
+     * @return the response
+     * @throws IOException in case of I/O errors
+     */
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body,
+                                        ClientHttpRequestExecution execution) throws IOException {
+        if (request.getMethod() != HttpMethod.GET || (body != null && body.length > 0)) {
+            return execution.execute(request, body);
+        }
+
+        final String key = request.getURI() + " " + request.getHeaders();
+        final Flight flight = new Flight();
+        final Flight existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            if (!existing.join()) {
+                // the identical request has just got its response, which isn't buffered for anybody
+                return execution.execute(request, body);
+            }
+            joinListener.run();
+            final BufferedResponse shared = await(existing.response);
+            return shared != null ? shared.copy() : execution.execute(request, body);
+        }
+
+        try {
+            final ClientHttpResponse response;
+            try {
+                response = execution.execute(request, body);
+            } finally {
+                inFlight.remove(key, flight);
+            }
+            if (!flight.land() || !isShareable(response)) {
+                flight.response.complete(null);
+                return response;
+            }
+            final BufferedResponse buffered;
+            try {
+                buffered = new BufferedResponse(response);
+            } finally {
+                response.close();
+            }
+            flight.response.complete(buffered);
+            return buffered.copy();
+        } catch (IOException | RuntimeException e) {
+            flight.land();
+            flight.response.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * @return number of requests in flight
+     */
+    int size() {
+        return inFlight.size();
+    }
+
+    private static boolean isShareable(final ClientHttpResponse response) {
+        final MediaType contentType = response.getHeaders().getContentType();
+        return contentType != null && MediaType.APPLICATION_JSON.isCompatibleWith(contentType);
+    }
+
+    private static BufferedResponse await(final CompletableFuture<BufferedResponse> flight) throws IOException {
+        try {
+            return flight.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for identical request in flight");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException("Identical request in flight failed", e.getCause());
+        }
+    }
+
+    /**
+     * Single executed request the identical requests can join until it gets its response.
+     */
+    private static class Flight {
+
+        private final CompletableFuture<BufferedResponse> response = new CompletableFuture<>();
+        private int waiters;
+        private boolean landed;
+
+        /**
+         * @return true if joined, false if the response has already been received
+         */
+        private synchronized boolean join() {
+            if (landed) {
+                return false;
+            }
+            waiters++;
+            return true;
+        }
+
+        /**
+         * Marks the response received, no request can join then.
+         * @return true if any request has joined
+         */
+        private synchronized boolean land() {
+            landed = true;
+            return waiters > 0;
+        }
+    }
+
+    /**
+     * Response with fully read body, which can be copied for each of the waiting requests.
+     */
+    private static class BufferedResponse implements ClientHttpResponse {
+
+        private final int statusCode;
+        private final String statusText;
+        private final HttpHeaders headers;
+        private final byte[] body;
+
+        private BufferedResponse(final ClientHttpResponse response) throws IOException {
+            this(response.getRawStatusCode(), response.getStatusText(), response.getHeaders(),
+                    StreamUtils.copyToByteArray(response.getBody()));
+        }
+
+        private BufferedResponse(final int statusCode, final String statusText, final HttpHeaders headers,
+                                 final byte[] body) {
+            this.statusCode = statusCode;
+            this.statusText = statusText;
+            this.headers = new HttpHeaders();
+            headers.forEach((name, values) -> this.headers.put(name, new ArrayList<>(values)));
+            this.body = body;
+        }
+
+        private BufferedResponse copy() {
+            return new BufferedResponse(statusCode, statusText, headers, body);
+        }
+
+        @Override
+        public HttpStatus getStatusCode() {
+            return HttpStatus.valueOf(statusCode);
+        }
+
+        @Override
+        public int getRawStatusCode() {
+            return statusCode;
+        }
+
+        @Override
+        public String getStatusText() {
+            return statusText;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2004-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.dataset;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+import static com.gooddata.util.Validate.notNull;
+
+/**
+ * Splits the CSV stream at row boundaries into chunks of about the given size. Every chunk starts with the header
+ * row of the CSV, so it is a standalone CSV file. Line breaks within the quoted values are not row boundaries.
+ * <p>
+ * The chunks returned by {@link #next()} share single buffer, so the chunk is valid until the next call only.
+ * <p>
+ * The checksum of the source read up to {@link #getOffset()} is maintained, so the resumed upload can verify
+ * it's reading the same source.
+ */
+class CsvChunker implements Closeable {
+
+    private final InputStream source;
+    private final CRC32 checksum = new CRC32();
+    private byte[] buffer;
+    private int length;
+    private int headerLength;
+    private int pending;
+    private long offset;
+    private boolean finished;
+    private boolean emitted;
+
+    /**
+     * @param source CSV stream
+     * @param chunkSize size of the chunk buffer, the chunk grows above it only when single row doesn't fit
+     * @param resumeOffset offset in the source where to resume reading the rows, the preceding rows (except header)
+     *                     are skipped
+     * @throws IOException when the source can't be read or is shorter than {@code resumeOffset}
+     */
+    CsvChunker(final InputStream source, final int chunkSize, final long resumeOffset) throws IOException {
+        this.source = notNull(source, "source");
+        this.buffer = new byte[chunkSize];
+        readHeader();
+        skip(resumeOffset);
+        emitted = resumeOffset > 0;
+    }
+
+    /**
+     * @return the next chunk (header row followed by the whole rows) or null when there's no more rows
+     * @throws IOException when the source can't be read
+     */
+    ByteArrayInputStream next() throws IOException {
+        final int end = nextEnd();
+        return end < 0 ? null : new ByteArrayInputStream(buffer, 0, end);
+    }
+
+    /**
+     * @return copy of the next chunk, which stays valid after the following calls, or null when there's no more rows
+     * @throws IOException when the source can't be read
+     */
+    byte[] nextCopy() throws IOException {
+        final int end = nextEnd();
+        return end < 0 ? null : Arrays.copyOf(buffer, end);
+    }
+
+    private int nextEnd() throws IOException {
+        drop(pending);
+        pending = 0;
+        while (true) {
+            fill();
+            if (length == headerLength && finished) {
+                if (emitted) {
+                    return -1;
+                }
+                // CSV without rows is still loaded as the header only file
+                emitted = true;
+                return headerLength;
+            }
+            final int end = finished ? length : lastRowEnd(headerLength, length);
+            if (end > headerLength) {
+                pending = end - headerLength;
+                checksum.update(buffer, headerLength, pending);
+                emitted = true;
+                return end;
+            }
+            // single row doesn't fit the buffer
+            grow();
+        }
+    }
+
+    /**
+     * @return offset in the source just behind the last returned chunk
+     */
+    long getOffset() {
+        return offset + pending;
+    }
+
+    /**
+     * @return CRC32 checksum of the source up to {@link #getOffset()}
+     */
+    long getChecksum() {
+        return checksum.getValue();
+    }
+
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+
+    private void readHeader() throws IOException {
+        while (true) {
+            fill();
+            final int end = rowEnd(0, length);
+            if (end > 0 || finished) {
+                headerLength = end > 0 ? end : length;
+                offset = headerLength;
+                checksum.update(buffer, 0, headerLength);
+                return;
+            }
+            grow();
+        }
+    }
+
+    private void skip(final long resumeOffset) throws IOException {
+        while (offset < resumeOffset) {
+            if (length == headerLength) {
+                if (finished) {
+                    throw new IOException("Source ends at " + offset + " before resume offset " + resumeOffset);
+                }
+                if (length == buffer.length) {
+                    grow();
+                }
+                fill();
+            } else {
+                final int count = (int) Math.min(length - headerLength, resumeOffset - offset);
+                checksum.update(buffer, headerLength, count);
+                drop(count);
+            }
+        }
+    }
+
+    private void drop(final int count) {
+        if (count > 0) {
+            System.arraycopy(buffer, headerLength + count, buffer, headerLength, length - headerLength - count);
+            length -= count;
+            offset += count;
+        }
+    }
+
+    private void fill() throws IOException {
+        while (length < buffer.length && !finished) {
+            final int read = source.read(buffer, length, buffer.length - length);
+            if (read < 0) {
+                finished = true;
+            } else {
+                length += read;
+            }
+        }
+    }
+
+    private void grow() {
+        final byte[] grown = new byte[buffer.length * 2];
+        System.arraycopy(buffer, 0, grown, 0, length);
+        buffer = grown;
+    }
+
+    /**
+     * @return index just behind the first row end in the given range or -1 if there's none
+     */
+    private int rowEnd(final int from, final int to) {
+        boolean quoted = false;
+        for (int i = from; i < to; i++) {
+            if (buffer[i] == '"') {
+                quoted = !quoted;
+            } else if (buffer[i] == '\n' && !quoted) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return index just behind the last row end in the given range or -1 if there's none
+     */
+    private int lastRowEnd(final int from, final int to) {
+        boolean quoted = false;
+        int end = -1;
+        for (int i = from; i < to; i++) {
+            if (buffer[i] == '"') {
+                quoted = !quoted;
+            } else if (buffer[i] == '\n' && !quoted) {
+                end = i + 1;
+            }
+        }
+        return end;
+    }
+}
@@ -0,0 +1,326 @@
+/*
+ * Copyright (C) 2004-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.dataset;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.gooddata.util.Validate.notNull;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Validates the CSV read through this stream against the {@link DatasetManifest}, so the malformed CSV fails
+ * the upload as soon as the invalid byte is read. Checks the UTF-8 encoding, the quoting, that the header contains
+ * exactly the columns of the manifest parts (if the manifest has them) and that every row has as many values
+ * as the header. The leading UTF-8 byte order mark and the trailing empty lines are tolerated.
+ * <p>
+ * The stream is validated byte by byte by the state machine in single pass, no object is allocated per row.
+ */
+class CsvValidatingInputStream extends FilterInputStream {
+
+    private static final int FIELD_START = 0;
+    private static final int UNQUOTED = 1;
+    private static final int QUOTED = 2;
+    private static final int QUOTED_QUOTE = 3;
+    private static final byte[] BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    private final Set<String> columns;
+    private final List<String> header = new ArrayList<>();
+    private final ByteArrayOutputStream headerField = new ByteArrayOutputStream();
+
+    private int state = FIELD_START;
+    private long row = 1;
+    private int fields;
+    private boolean rowStarted;
+    private long emptyRow;
+    private int bomMatched;
+    private boolean bomChecked;
+    private int utf8Remaining;
+    private int utf8Lower = 0x80;
+    private int utf8Upper = 0xBF;
+    private boolean finished;
+    private CsvValidationException failure;
+
+    /**
+     * @param source CSV stream
+     * @param manifest manifest the CSV is validated against
+     */
+    CsvValidatingInputStream(final InputStream source, final DatasetManifest manifest) {
+        super(notNull(source, "source"));
+        notNull(manifest, "manifest");
+        this.columns = columns(manifest);
+    }
+
+    private static Set<String> columns(final DatasetManifest manifest) {
+        if (manifest.getParts() == null || manifest.getParts().isEmpty()) {
+            return null;
+        }
+        final Set<String> columns = new LinkedHashSet<>();
+        for (DatasetManifest.Part part : manifest.getParts()) {
+            if (part.getColumnName() == null) {
+                return null;
+            }
+            columns.add(part.getColumnName());
+        }
+        return columns;
+    }
+
+    @Override
+    public int read() throws IOException {
+        checkFailure();
+        final int b = super.read();
+        if (b < 0) {
+            finish();
+        } else {
+            validate(b);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        checkFailure();
+        final int read = super.read(b, off, len);
+        if (read < 0) {
+            finish();
+        }
+        for (int i = 0; i < read; i++) {
+            validate(b[off + i] & 0xff);
+        }
+        return read;
+    }
+
+    /**
+     * Reads the skipped bytes, so they are validated too.
+     */
+    @Override
+    public long skip(final long n) throws IOException {
+        final byte[] skipped = new byte[(int) Math.min(n, 8192)];
+        long remaining = n;
+        while (remaining > 0) {
+            final int read = read(skipped, 0, (int) Math.min(remaining, skipped.length));
+            if (read < 0) {
+                break;
+            }
+            remaining -= read;
+        }
+        return n - remaining;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(final int readlimit) {
+        // not supported
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+
+    private void checkFailure() throws CsvValidationException {
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void validate(final int b) throws CsvValidationException {
+        validateEncoding(b);
+        if (!bomChecked) {
+            if (b == (BOM[bomMatched] & 0xff)) {
+                bomChecked = ++bomMatched == BOM.length;
+                return;
+            }
+            bomChecked = true;
+            // not a byte order mark, validate the bytes held back
+            for (int i = 0; i < bomMatched; i++) {
+                validateStructure(BOM[i] & 0xff);
+            }
+        }
+        validateStructure(b);
+    }
+
+    private void validateStructure(final int b) throws CsvValidationException {
+        if (b == '\n' && !rowStarted && state == FIELD_START && row > 1) {
+            // empty line is allowed at the end only
+            if (emptyRow == 0) {
+                emptyRow = row;
+            }
+            row++;
+            return;
+        }
+        if (b != '\r') {
+            if (emptyRow != 0) {
+                throw fail(emptyRow, "empty row");
+            }
+            rowStarted = true;
+        }
+        switch (state) {
+            case FIELD_START:
+                if (b == '"') {
+                    state = QUOTED;
+                } else if (b == ',') {
+                    endField();
+                } else if (b == '\n') {
+                    endRow();
+                } else if (b != '\r') {
+                    state = UNQUOTED;
+                    headerByte(b);
+                }
+                break;
+            case UNQUOTED:
+                if (b == ',') {
+                    endField();
+                } else if (b == '\n') {
+                    endRow();
+                } else if (b == '"') {
+                    throw fail("unexpected quote in unquoted value");
+                } else if (b != '\r') {
+                    headerByte(b);
+                }
+                break;
+            case QUOTED:
+                if (b == '"') {
+                    state = QUOTED_QUOTE;
+                } else {
+                    headerByte(b);
+                }
+                break;
+            case QUOTED_QUOTE:
+                if (b == '"') {
+                    // escaped quote
+                    state = QUOTED;
+                    headerByte(b);
+                } else if (b == ',') {
+                    endField();
+                } else if (b == '\n') {
+                    endRow();
+                } else if (b != '\r') {
+                    throw fail("unexpected character behind closing quote");
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unknown state " + state);
+        }
+    }
+
+    /**
+     * Validates the UTF-8 byte sequences including the overlong encodings and surrogates.
+     */
+    private void validateEncoding(final int b) throws CsvValidationException {
+        if (utf8Remaining > 0) {
+            if (b < utf8Lower || b > utf8Upper) {
+                throw fail("invalid UTF-8 sequence");
+            }
+            utf8Remaining--;
+            utf8Lower = 0x80;
+            utf8Upper = 0xBF;
+        } else if (b >= 0x80) {
+            if (b >= 0xC2 && b <= 0xDF) {
+                utf8Remaining = 1;
+            } else if (b >= 0xE0 && b <= 0xEF) {
+                utf8Remaining = 2;
+                if (b == 0xE0) {
+                    utf8Lower = 0xA0;
+                } else if (b == 0xED) {
+                    utf8Upper = 0x9F;
+                }
+            } else if (b >= 0xF0 && b <= 0xF4) {
+                utf8Remaining = 3;
+                if (b == 0xF0) {
+                    utf8Lower = 0x90;
+                } else if (b == 0xF4) {
+                    utf8Upper = 0x8F;
+                }
+            } else {
+                throw fail("invalid UTF-8 sequence");
+            }
+        }
+    }
+
+    private void headerByte(final int b) {
+        if (row == 1) {
+            headerField.write(b);
+        }
+    }
+
+    private void endField() {
+        if (row == 1) {
+            header.add(new String(headerField.toByteArray(), UTF_8));
+            headerField.reset();
+        }
+        fields++;
+        state = FIELD_START;
+    }
+
+    private void endRow() throws CsvValidationException {
+        endField();
+        if (row == 1) {
+            validateHeader();
+        } else if (fields != header.size()) {
+            throw fail("expected " + header.size() + " values but got " + fields);
+        }
+        row++;
+        fields = 0;
+        rowStarted = false;
+    }
+
+    private void validateHeader() throws CsvValidationException {
+        final Set<String> names = new HashSet<>();
+        for (String name : header) {
+            if (!names.add(name)) {
+                throw fail("duplicate column " + name);
+            }
+        }
+        if (columns != null && !columns.equals(names)) {
+            final Set<String> missing = new LinkedHashSet<>(columns);
+            missing.removeAll(names);
+            final Set<String> unexpected = new LinkedHashSet<>(header);
+            unexpected.removeAll(columns);
+            throw fail("header doesn't match the manifest, missing columns " + missing
+                    + ", unexpected columns " + unexpected);
+        }
+    }
+
+    private void finish() throws CsvValidationException {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        if (utf8Remaining > 0) {
+            throw fail("truncated UTF-8 sequence");
+        }
+        if (state == QUOTED) {
+            throw fail("unterminated quoted value");
+        }
+        if (rowStarted) {
+            endRow();
+        }
+        if (row == 1) {
+            throw fail("missing header");
+        }
+    }
+
+    private CsvValidationException fail(final String message) {
+        return fail(row, message);
+    }
+
+    private CsvValidationException fail(final long row, final String message) {
+        failure = new CsvValidationException(row, message);
+        return failure;
+    }
+}
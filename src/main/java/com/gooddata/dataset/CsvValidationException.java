@@ -0,0 +1,29 @@
+/*
+ * Copyright (C) 2004-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.dataset;
+
+import java.io.IOException;
+
+/**
+ * Signals malformed CSV found by {@link CsvValidatingInputStream}. It's an {@link IOException} to pass through
+ * the upload reading the stream.
+ */
+class CsvValidationException extends IOException {
+
+    private final long row;
+
+    CsvValidationException(final long row, final String message) {
+        super("Invalid CSV at row " + row + ": " + message);
+        this.row = row;
+    }
+
+    /**
+     * @return the invalid row number, the header is row 1
+     */
+    long getRow() {
+        return row;
+    }
+}
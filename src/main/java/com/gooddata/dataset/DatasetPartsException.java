@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2004-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.dataset;
+
+import java.util.List;
+
+import static java.util.Collections.singletonList;
+import static java.util.Collections.unmodifiableList;
+
+/**
+ * Represents failed ETL pull of some parts of the dataset loaded in parts. The failed parts are kept in the staging
+ * area, so the load can be resumed using
+ * {@link DatasetService#loadDatasetParts(com.gooddata.project.Project, DatasetManifest, DatasetPartsException, int)}.
+ */
+public class DatasetPartsException extends DatasetException {
+
+    private final String dirPath;
+    private final List<Integer> parts;
+    private final boolean compressed;
+
+    public DatasetPartsException(String message, String dataset, String dirPath, List<Integer> parts,
+                                 boolean compressed, Throwable cause) {
+        super(message + ", failed parts " + parts + " are kept in " + dirPath, singletonList(dataset), cause);
+        this.dirPath = dirPath;
+        this.parts = unmodifiableList(parts);
+        this.compressed = compressed;
+    }
+
+    /**
+     * Get staging directory holding the failed parts.
+     * @return staging directory path
+     */
+    public String getDirPath() {
+        return dirPath;
+    }
+
+    /**
+     * Get indexes of the failed parts.
+     * @return part indexes in ascending order
+     */
+    public List<Integer> getParts() {
+        return parts;
+    }
+
+    /**
+     * @return true if the parts are uploaded compressed
+     */
+    public boolean isCompressed() {
+        return compressed;
+    }
+}
@@ -7,6 +7,8 @@ package com.gooddata.dataset;
 
 import com.gooddata.AbstractPollHandler;
 import com.gooddata.AbstractService;
+import com.gooddata.BoundedExecutor;
+import com.gooddata.CompletableFutureResult;
 import com.gooddata.FutureResult;
 import com.gooddata.GoodDataException;
 import com.gooddata.GoodDataRestException;
@@ -24,14 +26,23 @@ import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static com.gooddata.util.Validate.notEmpty;
 import static com.gooddata.util.Validate.notNull;
@@ -39,6 +50,7 @@ import static java.lang.String.format;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
 import static org.springframework.util.StringUtils.isEmpty;
 
 /**
@@ -48,9 +60,13 @@ public class DatasetService extends AbstractService {
 
     private static final String MANIFEST_FILE_NAME = "upload_info.json";
     private static final String ETL_PULL_DEFAULT_ERROR_MESSAGE = "ETL Pull failed with status %s";
+    private static final int CHUNK_UPLOAD_ATTEMPTS = 3;
 
     private final DataStoreService dataStoreService;
 
+    private volatile boolean compressUploads;
+    private volatile boolean validateUploads;
+
     public DatasetService(final RestTemplate restTemplate, final DataStoreService dataStoreService,
                           final GoodDataSettings settings) {
         super(restTemplate, settings);
@@ -66,6 +82,45 @@ public class DatasetService extends AbstractService {
         this.dataStoreService = notNull(dataStoreService, "dataStoreService");
     }
 
+    /**
+     * Enables or disables compression of the uploaded datasets. When enabled, datasets are compressed by gzip
+     * on the fly while being uploaded to staging area (no temporary file is created) and the uploaded file names
+     * in the manifests are suffixed by {@link DataStoreService#GZIP_SUFFIX} accordingly. Disabled by default.
+     *
+     * @param compressUploads true to compress the uploaded datasets
+     */
+    public void setCompressUploads(final boolean compressUploads) {
+        this.compressUploads = compressUploads;
+    }
+
+    /**
+     * @return true if the uploaded datasets are compressed
+     * @see #setCompressUploads(boolean)
+     */
+    public boolean isCompressUploads() {
+        return compressUploads;
+    }
+
+    /**
+     * Enables or disables validation of the uploaded datasets. When enabled, the dataset CSV is validated against
+     * its manifest while being uploaded - the UTF-8 encoding, the quoting, the header columns and the number
+     * of values in each row are checked, so the malformed CSV fails the upload immediately instead of failing
+     * the ETL pull once uploaded. Disabled by default.
+     *
+     * @param validateUploads true to validate the uploaded datasets
+     */
+    public void setValidateUploads(final boolean validateUploads) {
+        this.validateUploads = validateUploads;
+    }
+
+    /**
+     * @return true if the uploaded datasets are validated
+     * @see #setValidateUploads(boolean)
+     */
+    public boolean isValidateUploads() {
+        return validateUploads;
+    }
+
     /**
      * Obtains manifest from given project by given datasetId
      *
@@ -114,6 +169,83 @@ public class DatasetService extends AbstractService {
         return loadDatasets(project, manifest);
     }
 
+    /**
+     * Loads dataset into platform. Splits given dataset at CSV row boundaries into parts of about {@code partSize}
+     * bytes, uploads the parts to staging area concurrently, at most {@code parallelism} parts at once, then uploads
+     * the manifest of every part and triggers ETL pull of the parts, so the upload throughput scales with
+     * the number of connections.
+     * The call is asynchronous returning {@link com.gooddata.FutureResult} to let caller wait for results.
+     * Uploaded files are deleted from staging area when finished.
+     * <p>
+     * Every part repeats the header row, the upload of each part is retried on failure. The parts are held in memory
+     * while uploaded, so up to {@code parallelism} times {@code partSize} bytes are used.
+     * <p>
+     * Every part is loaded by its own ETL pull, at most {@code parallelism} pulls run at once. As the parts are
+     * loaded one by one, all the parts of the manifest must be in the {@link UploadMode#INCREMENTAL incremental} mode.
+     * The load is not atomic, when the pull of any part fails, the other parts stay loaded, the failed parts are kept
+     * in the staging area and the result fails with {@link DatasetPartsException} holding the failed parts.
+     * The load can be resumed using {@link #loadDatasetParts(Project, DatasetManifest, DatasetPartsException, int)}.
+     *
+     * @param project     project to which dataset belongs
+     * @param manifest    dataset manifest in the incremental mode
+     * @param dataset     dataset to upload
+     * @param partSize    size of the part in bytes
+     * @param parallelism maximum number of concurrent uploads and pulls, should not exceed
+     *                    {@link GoodDataSettings#getMaxConnections()}
+     * @return {@link com.gooddata.FutureResult} of the task, which can throw {@link DatasetPartsException}
+     * in case the ETL pull task of any part fails
+     * @throws com.gooddata.dataset.DatasetException if there is a problem to read the dataset, serialize manifest
+     * or upload dataset
+     * @throws IllegalArgumentException if the manifest is not in the incremental mode
+     */
+    public FutureResult<Void> loadDatasetInParts(final Project project, final DatasetManifest manifest,
+                                                 final InputStream dataset, final int partSize, final int parallelism) {
+        notNull(project, "project");
+        notNull(dataset, "dataset");
+        notNull(manifest, "manifest");
+        manifest.setSource(dataset);
+        validateUploadManifests(singletonList(manifest));
+        validateIncrementalManifest(manifest);
+        if (partSize < 1) {
+            throw new IllegalArgumentException("partSize must be greater than zero");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be greater than zero");
+        }
+        final String dirPath = createDirPath(project);
+        final boolean compress = compressUploads;
+        final int parts = uploadParts(dirPath, manifest, partSize, parallelism, compress);
+        return loadParts(project, dirPath, manifest, partIndexes(parts), compress, parallelism);
+    }
+
+    /**
+     * Resumes the load of the dataset in parts, failed by {@link DatasetPartsException}. Triggers ETL pull of every
+     * failed part kept in the staging area, at most {@code parallelism} pulls at once.
+     * The call is asynchronous returning {@link com.gooddata.FutureResult} to let caller wait for results.
+     * Uploaded files are deleted from staging area when finished.
+     *
+     * @param project     project to which dataset belongs
+     * @param manifest    dataset manifest in the incremental mode, the one the parts were loaded with
+     * @param failure     failure of the previous load
+     * @param parallelism maximum number of concurrent pulls, should not exceed
+     *                    {@link GoodDataSettings#getMaxConnections()}
+     * @return {@link com.gooddata.FutureResult} of the task, which can throw {@link DatasetPartsException}
+     * in case the ETL pull task of any part fails
+     * @throws IllegalArgumentException if the manifest is not in the incremental mode
+     */
+    public FutureResult<Void> loadDatasetParts(final Project project, final DatasetManifest manifest,
+                                               final DatasetPartsException failure, final int parallelism) {
+        notNull(project, "project");
+        notNull(manifest, "manifest");
+        notNull(failure, "failure");
+        validateIncrementalManifest(manifest);
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be greater than zero");
+        }
+        return loadParts(project, failure.getDirPath(), manifest, failure.getParts(), failure.isCompressed(),
+                parallelism);
+    }
+
     /**
      * Gets DatasetManifest (using {@link #getDatasetManifest(com.gooddata.project.Project, String)}
      * first and then calls {@link #loadDataset(com.gooddata.project.Project, DatasetManifest, java.io.InputStream)}
@@ -147,25 +279,397 @@ public class DatasetService extends AbstractService {
      * @see <a href="https://developer.gooddata.com/article/multiload-of-csv-data">batch upload reference</a>
      */
     public FutureResult<Void> loadDatasets(final Project project, final Collection<DatasetManifest> datasets) {
+        return loadDatasets(project, datasets, 1);
+    }
+
+    /**
+     * Loads datasets into platform. Uploads given datasets to staging area concurrently, at most {@code parallelism}
+     * datasets at once, then uploads their manifests and triggers ETL pull.
+     * The call is asynchronous returning {@link com.gooddata.FutureResult} to let caller wait for results.
+     * Uploaded files are deleted from staging area when finished.
+     * <p>
+     * With {@code parallelism} of one, the datasets are uploaded one after another on the calling thread.
+     * <p>
+     * When upload of any dataset fails, the uploads not started yet are skipped, the uploaded files are deleted
+     * and the thrown {@link DatasetException} holds the names of all the datasets failed to upload.
+     *
+     * @param project     project to which dataset belongs
+     * @param datasets    map dataset manifests
+     * @param parallelism maximum number of concurrent uploads, should not exceed
+     *                    {@link GoodDataSettings#getMaxConnections()}
+     * @return {@link com.gooddata.FutureResult} of the task, which can throw {@link com.gooddata.dataset.DatasetException}
+     * in case the ETL pull task fails
+     * @throws com.gooddata.dataset.DatasetException if there is a problem to serialize manifest or upload dataset
+     * @see <a href="https://developer.gooddata.com/article/multiload-of-csv-data">batch upload reference</a>
+     */
+    public FutureResult<Void> loadDatasets(final Project project, final Collection<DatasetManifest> datasets,
+                                           final int parallelism) {
         notNull(project, "project");
         validateUploadManifests(datasets);
-        final List<String> datasetsNames = new ArrayList<>(datasets.size());
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be greater than zero");
+        }
+        final List<String> datasetsNames = datasets.stream().map(DatasetManifest::getDataSet).collect(Collectors.toList());
+        final String dirPath = createDirPath(project);
+        final boolean compress = compressUploads;
+        uploadSources(dirPath, datasets, parallelism, compress, validateUploads);
+        return loadManifests(project, dirPath, compress ? compressedManifests(datasets) : datasets, datasetsNames);
+    }
+
+    /**
+     * Loads dataset into platform. Uploads given dataset to staging area in chunks of about {@code chunkSize} bytes,
+     * then uploads the manifest of every chunk and triggers ETL pull of the chunks.
+     * The call is asynchronous returning {@link com.gooddata.FutureResult} to let caller wait for results.
+     * Uploaded files are deleted from staging area when finished.
+     * <p>
+     * The dataset source is split at CSV row boundaries, every chunk repeats the header row, and the upload
+     * of each chunk is retried on failure. The progress is recorded in the local {@code checkpoint} file after
+     * every uploaded chunk. When the upload fails, the uploaded chunks are kept in the staging area and the call
+     * with the same checkpoint file and the source providing the same data resumes the upload behind the last
+     * uploaded chunk. The checksum of the source up to the last uploaded chunk is recorded in the checkpoint
+     * and verified on resume. The checkpoint file is deleted once the ETL pulls finish successfully.
+     * <p>
+     * Every chunk is loaded by its own ETL pull, the pulls run one after another. As the chunks are loaded one by one,
+     * all the parts of the manifest must be in the {@link UploadMode#INCREMENTAL incremental} mode. The load is not
+     * atomic, when the pull of any chunk fails, the other chunks stay loaded, the failed chunks are kept in the staging
+     * area and recorded in the checkpoint, so the call with the same checkpoint file pulls just the failed chunks.
+     *
+     * @param project    project to which dataset belongs
+     * @param manifest   dataset manifest in the incremental mode with the source set
+     * @param chunkSize  size of the chunk in bytes (the chunk is held in memory while uploaded)
+     * @param checkpoint local file recording the upload progress
+     * @return {@link com.gooddata.FutureResult} of the task, which can throw {@link DatasetPartsException}
+     * in case the ETL pull task of any chunk fails
+     * @throws com.gooddata.dataset.DatasetException if there is a problem to read the source or checkpoint,
+     * the source differs from the one recorded in the checkpoint, or there is a problem to serialize manifest
+     * or upload dataset
+     * @throws IllegalArgumentException if the manifest is not in the incremental mode
+     */
+    public FutureResult<Void> loadDatasetChunked(final Project project, final DatasetManifest manifest,
+                                                 final int chunkSize, final File checkpoint) {
+        return loadDatasetChunked(project, manifest, chunkSize, 1, checkpoint);
+    }
+
+    /**
+     * Loads dataset into platform the same way as {@link #loadDatasetChunked(Project, DatasetManifest, int, File)},
+     * but triggers the ETL pulls of the chunks concurrently, at most {@code parallelism} pulls at once.
+     *
+     * @param project     project to which dataset belongs
+     * @param manifest    dataset manifest in the incremental mode with the source set
+     * @param chunkSize   size of the chunk in bytes (the chunk is held in memory while uploaded)
+     * @param parallelism maximum number of concurrent pulls, should not exceed
+     *                    {@link GoodDataSettings#getMaxConnections()}
+     * @param checkpoint  local file recording the upload progress
+     * @return {@link com.gooddata.FutureResult} of the task, which can throw {@link DatasetPartsException}
+     * in case the ETL pull task of any chunk fails
+     * @throws com.gooddata.dataset.DatasetException if there is a problem to read the source or checkpoint,
+     * the source differs from the one recorded in the checkpoint, or there is a problem to serialize manifest
+     * or upload dataset
+     * @throws IllegalArgumentException if the manifest is not in the incremental mode
+     */
+    public FutureResult<Void> loadDatasetChunked(final Project project, final DatasetManifest manifest,
+                                                 final int chunkSize, final int parallelism, final File checkpoint) {
+        notNull(project, "project");
+        notNull(manifest, "manifest");
+        notNull(checkpoint, "checkpoint");
+        validateUploadManifests(singletonList(manifest));
+        validateIncrementalManifest(manifest);
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize must be greater than zero");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be greater than zero");
+        }
+        final String datasetName = manifest.getDataSet();
+        final boolean compress = compressUploads;
+
+        UploadCheckpoint state;
         try {
-            final String dirPath = "/" + project.getId() + "_" + RandomStringUtils.randomAlphabetic(3) + "/";
-            for (DatasetManifest datasetManifest : datasets) {
-                datasetsNames.add(datasetManifest.getDataSet());
-                dataStoreService.upload(dirPath + datasetManifest.getFile(), datasetManifest.getSource());
+            state = UploadCheckpoint.load(checkpoint);
+        } catch (IOException e) {
+            throw new DatasetException("Unable to read checkpoint " + checkpoint, datasetName, e);
+        }
+        if (state == null || !state.matches(project, manifest, compress)) {
+            state = new UploadCheckpoint(createDirPath(project), datasetName, manifest.getFile(), compress);
+        }
+
+        try (CsvChunker chunker = new CsvChunker(source(manifest, validateUploads), chunkSize, state.getOffset())) {
+            if (state.getOffset() > 0 && chunker.getChecksum() != state.getChecksum()) {
+                throw new DatasetException("Source differs from the one recorded in checkpoint " + checkpoint
+                        + ", delete the checkpoint to start the upload over", datasetName);
+            }
+            ByteArrayInputStream chunk;
+            while ((chunk = chunker.next()) != null) {
+                uploadChunk(state.getDirPath() + partFile(manifest, state.getChunks(), compress), chunk, compress);
+                state = state.next(chunker.getOffset(), chunker.getChecksum());
+                state.save(checkpoint);
+            }
+        } catch (CsvValidationException e) {
+            throw new DatasetException(e.getMessage(), datasetName, e);
+        } catch (IOException e) {
+            throw new DatasetException("Unable to read source or write checkpoint " + checkpoint, datasetName, e);
+        } catch (DataStoreException e) {
+            throw new DatasetException("Unable to upload, the upload can be resumed using checkpoint " + checkpoint,
+                    datasetName, e);
+        }
+
+        final UploadCheckpoint uploaded = state;
+        final List<Integer> parts = uploaded.getFailed() == null
+                ? partIndexes(uploaded.getChunks()) : uploaded.getFailed();
+        final FutureResult<Void> result = loadParts(project, uploaded.getDirPath(), manifest, parts, compress,
+                parallelism);
+        return new CompletableFutureResult<>(result.toCompletableFuture().whenComplete((ignored, e) -> {
+            final Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+            try {
+                if (cause == null) {
+                    Files.deleteIfExists(checkpoint.toPath());
+                } else if (cause instanceof DatasetPartsException) {
+                    uploaded.failed(((DatasetPartsException) cause).getParts()).save(checkpoint);
+                }
+            } catch (IOException ex) {
+                throw new DatasetException("Unable to update checkpoint " + checkpoint, datasetName, ex);
+            }
+        }), result::getPollingUri);
+    }
+
+    private void uploadChunk(final String path, final ByteArrayInputStream chunk, final boolean compress) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                if (compress) {
+                    dataStoreService.uploadCompressed(path, chunk);
+                } else {
+                    dataStoreService.upload(path, chunk);
+                }
+                return;
+            } catch (DataStoreException e) {
+                if (attempt >= CHUNK_UPLOAD_ATTEMPTS) {
+                    throw e;
+                }
+                chunk.reset();
+            }
+        }
+    }
+
+    /**
+     * Reads the parts of the dataset on the calling thread and uploads them concurrently on the shared
+     * {@link BoundedExecutor}, the number of parts read ahead is bounded by {@code parallelism}.
+     *
+     * @return the number of uploaded parts
+     */
+    private int uploadParts(final String dirPath, final DatasetManifest manifest, final int partSize,
+                            final int parallelism, final boolean compress) {
+        final BoundedExecutor executor = new BoundedExecutor(parallelism);
+        final Semaphore permits = new Semaphore(parallelism);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final List<CompletableFuture<Void>> uploads = new ArrayList<>();
+        try (CsvChunker chunker = new CsvChunker(source(manifest, validateUploads), partSize, 0)) {
+            while (failure.get() == null) {
+                permits.acquire();
+                final byte[] part = chunker.nextCopy();
+                if (part == null) {
+                    break;
+                }
+                final String file = partFile(manifest, uploads.size(), compress);
+                uploads.add(CompletableFuture
+                        .runAsync(() -> uploadChunk(dirPath + file, new ByteArrayInputStream(part), compress), executor)
+                        .whenComplete((ignored, e) -> {
+                            permits.release();
+                            if (e != null) {
+                                failure.compareAndSet(null, e instanceof CompletionException ? e.getCause() : e);
+                            }
+                        }));
             }
+        } catch (IOException e) {
+            failure.compareAndSet(null, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, e);
+        }
+        // wait for the running uploads, their failures are recorded already
+        CompletableFuture.allOf(uploads.toArray(new CompletableFuture<?>[uploads.size()]))
+                .handle((ignored, e) -> null)
+                .join();
+        if (failure.get() != null) {
+            try {
+                dataStoreService.delete(dirPath);
+            } catch (DataStoreException ignored) {
+                // the staging area is cleaned up eventually
+            }
+            throw new DatasetException(uploadFailureMessage(failure.get()), manifest.getDataSet(), failure.get());
+        }
+        return uploads.size();
+    }
 
-            final String manifestJson = mapper.writeValueAsString(new DatasetManifests(datasets));
+    /**
+     * Uploads the manifests into given staging directory and triggers ETL pull of the directory.
+     */
+    private FutureResult<Void> loadManifests(final Project project, final String dirPath,
+                                             final Collection<DatasetManifest> manifests, final List<String> datasets) {
+        try {
+            final String manifestJson = mapper.writeValueAsString(new DatasetManifests(manifests));
             final ByteArrayInputStream inputStream = new ByteArrayInputStream(manifestJson.getBytes(UTF_8));
             dataStoreService.upload(dirPath + MANIFEST_FILE_NAME, inputStream);
 
-            return pullLoad(project, dirPath, datasetsNames);
+            return pullLoad(project, dirPath, datasets);
         } catch (IOException e) {
-            throw new DatasetException("Unable to serialize manifest", datasetsNames, e);
+            throw new DatasetException("Unable to serialize manifest", datasets, e);
         } catch (DataStoreException | GoodDataRestException | RestClientException e) {
-            throw new DatasetException("Unable to load", datasetsNames, e);
+            throw new DatasetException("Unable to load", datasets, e);
+        }
+    }
+
+    /**
+     * Loads given dataset parts uploaded into the part directories of given staging directory, every part by its own
+     * ETL pull, at most {@code parallelism} pulls at once. The directory of every loaded part is deleted, the staging
+     * directory is deleted once all the parts are loaded. When the pull of any part fails, the failed parts are kept
+     * and the result fails with {@link DatasetPartsException}.
+     */
+    private FutureResult<Void> loadParts(final Project project, final String dirPath, final DatasetManifest manifest,
+                                         final List<Integer> parts, final boolean compress, final int parallelism) {
+        final String dataset = manifest.getDataSet();
+        final List<String> datasets = singletonList(dataset);
+        final List<DatasetManifest> manifests = singletonList(new DatasetManifest(dataset,
+                manifest.getFile() + (compress ? DataStoreService.GZIP_SUFFIX : ""), manifest.getParts()));
+
+        final BoundedExecutor executor = new BoundedExecutor(parallelism);
+        final AtomicReference<FutureResult<Void>> current = new AtomicReference<>();
+        final List<CompletableFuture<Void>> pulls = new ArrayList<>(parts.size());
+        for (Integer part : parts) {
+            pulls.add(executor.submit(() -> {
+                final FutureResult<Void> pull = loadManifests(project, dirPath + partDir(part), manifests, datasets);
+                current.set(pull);
+                return pull.toCompletableFuture();
+            }));
+        }
+        final CompletableFuture<Void> result = CompletableFuture
+                .allOf(pulls.toArray(new CompletableFuture<?>[pulls.size()]))
+                .handle((ignored, e) -> {
+                    final List<Integer> failed = new ArrayList<>();
+                    Throwable failure = null;
+                    for (int i = 0; i < pulls.size(); i++) {
+                        final Throwable cause = pulls.get(i).handle((value, ex) -> ex).join();
+                        if (cause != null) {
+                            failed.add(parts.get(i));
+                            if (failure == null) {
+                                failure = cause;
+                            } else {
+                                failure.addSuppressed(cause);
+                            }
+                        }
+                    }
+                    if (failure != null) {
+                        throw new DatasetPartsException("Unable to load", dataset, dirPath, failed, compress, failure);
+                    }
+                    try {
+                        dataStoreService.delete(dirPath);
+                    } catch (DataStoreException ignore) {
+                        // the staging area is cleaned up eventually
+                    }
+                    return null;
+                });
+        return new CompletableFutureResult<>(result,
+                () -> current.get() == null ? null : current.get().getPollingUri());
+    }
+
+    private static List<Integer> partIndexes(final int parts) {
+        return IntStream.range(0, parts).boxed().collect(Collectors.toList());
+    }
+
+    private static String partDir(final int index) {
+        return format("part%05d/", index);
+    }
+
+    private static String partFile(final DatasetManifest manifest, final int index, final boolean compress) {
+        return partDir(index) + manifest.getFile() + (compress ? DataStoreService.GZIP_SUFFIX : "");
+    }
+
+    private static String createDirPath(final Project project) {
+        return "/" + project.getId() + "_" + RandomStringUtils.randomAlphabetic(3) + "/";
+    }
+
+    private static List<DatasetManifest> compressedManifests(final Collection<DatasetManifest> datasets) {
+        return datasets.stream()
+                .map(manifest -> new DatasetManifest(manifest.getDataSet(),
+                        manifest.getFile() + DataStoreService.GZIP_SUFFIX, manifest.getParts()))
+                .collect(Collectors.toList());
+    }
+
+    private static InputStream source(final DatasetManifest manifest, final boolean validate) {
+        return validate ? new CsvValidatingInputStream(manifest.getSource(), manifest) : manifest.getSource();
+    }
+
+    /**
+     * Uploads the datasets, on the calling thread one after another when {@code parallelism} is one, otherwise
+     * concurrently on the shared {@link BoundedExecutor}.
+     */
+    private void uploadSources(final String dirPath, final Collection<DatasetManifest> datasets, final int parallelism,
+                               final boolean compress, final boolean validate) {
+        final Executor executor = parallelism == 1 ? Runnable::run : new BoundedExecutor(parallelism);
+        final AtomicBoolean failing = new AtomicBoolean();
+        final List<DatasetManifest> manifests = new ArrayList<>(datasets);
+        final List<CompletableFuture<Void>> uploads = new ArrayList<>(manifests.size());
+        for (DatasetManifest datasetManifest : manifests) {
+            uploads.add(CompletableFuture.runAsync(() -> {
+                // fail fast - the uploads not started yet are skipped once any upload fails
+                if (failing.get()) {
+                    return;
+                }
+                try {
+                    final InputStream source = source(datasetManifest, validate);
+                    if (compress) {
+                        dataStoreService.uploadCompressed(dirPath + datasetManifest.getFile() + DataStoreService.GZIP_SUFFIX,
+                                source);
+                    } else {
+                        dataStoreService.upload(dirPath + datasetManifest.getFile(), source);
+                    }
+                } catch (RuntimeException e) {
+                    failing.set(true);
+                    throw e;
+                }
+            }, executor));
+        }
+
+        final List<String> failed = new ArrayList<>();
+        Throwable failure = null;
+        for (int i = 0; i < uploads.size(); i++) {
+            try {
+                uploads.get(i).join();
+            } catch (CompletionException e) {
+                failed.add(manifests.get(i).getDataSet());
+                if (failure == null) {
+                    failure = e.getCause();
+                } else {
+                    failure.addSuppressed(e.getCause());
+                }
+            }
+        }
+        if (failure != null) {
+            try {
+                dataStoreService.delete(dirPath);
+            } catch (DataStoreException ignored) {
+                // the staging area is cleaned up eventually
+            }
+            throw new DatasetException(uploadFailureMessage(failure), failed, failure);
+        }
+    }
+
+    /**
+     * @return the message of the CSV validation failure causing the upload failure or general message
+     */
+    private static String uploadFailureMessage(final Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CsvValidationException) {
+                return cause.getMessage();
+            }
+        }
+        return "Unable to upload";
+    }
+
+    private static void validateIncrementalManifest(final DatasetManifest manifest) {
+        if (manifest.getParts() == null || manifest.getParts().isEmpty() || manifest.getParts().stream()
+                .anyMatch(part -> UploadMode.get(part.getUploadMode()) != UploadMode.INCREMENTAL)) {
+            throw new IllegalArgumentException(format("Dataset '%s' can be loaded in parts only in %s mode, "
+                    + "use loadDataset to load it in other mode", manifest.getDataSet(), UploadMode.INCREMENTAL));
         }
     }
 
@@ -0,0 +1,198 @@
+/*
+ * Copyright (C) 2004-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.dataset;
+
+import com.gooddata.project.Project;
+import com.gooddata.util.GoodDataToStringBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.stream.Collectors;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Progress of the chunked dataset upload persisted in the local file, so the interrupted upload can be resumed.
+ * See {@link DatasetService#loadDatasetChunked(Project, DatasetManifest, int, File)}.
+ */
+class UploadCheckpoint {
+
+    private static final String DIR_PATH = "dirPath";
+    private static final String DATA_SET = "dataSet";
+    private static final String FILE = "file";
+    private static final String COMPRESSED = "compressed";
+    private static final String CHUNKS = "chunks";
+    private static final String OFFSET = "offset";
+    private static final String CHECKSUM = "checksum";
+    private static final String FAILED = "failed";
+
+    private final String dirPath;
+    private final String dataSet;
+    private final String file;
+    private final boolean compressed;
+    private final int chunks;
+    private final long offset;
+    private final long checksum;
+    private final List<Integer> failed;
+
+    UploadCheckpoint(final String dirPath, final String dataSet, final String file, final boolean compressed) {
+        this(dirPath, dataSet, file, compressed, 0, 0, 0, null);
+    }
+
+    private UploadCheckpoint(final String dirPath, final String dataSet, final String file, final boolean compressed,
+                             final int chunks, final long offset, final long checksum, final List<Integer> failed) {
+        this.dirPath = dirPath;
+        this.dataSet = dataSet;
+        this.file = file;
+        this.compressed = compressed;
+        this.chunks = chunks;
+        this.offset = offset;
+        this.checksum = checksum;
+        this.failed = failed;
+    }
+
+    /**
+     * @param checkpoint checkpoint file
+     * @return checkpoint read from the file or null if the file doesn't exist
+     * @throws IOException when the file can't be read or is malformed
+     */
+    static UploadCheckpoint load(final File checkpoint) throws IOException {
+        if (!checkpoint.exists()) {
+            return null;
+        }
+        final Properties properties = new Properties();
+        try (InputStream input = Files.newInputStream(checkpoint.toPath())) {
+            properties.load(input);
+        }
+        try {
+            return new UploadCheckpoint(required(properties, DIR_PATH), required(properties, DATA_SET),
+                    required(properties, FILE), Boolean.parseBoolean(required(properties, COMPRESSED)),
+                    Integer.parseInt(required(properties, CHUNKS)), Long.parseLong(required(properties, OFFSET)),
+                    Long.parseLong(required(properties, CHECKSUM)), parseParts(properties.getProperty(FAILED)));
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed checkpoint " + checkpoint, e);
+        }
+    }
+
+    private static List<Integer> parseParts(final String parts) {
+        if (parts == null) {
+            return null;
+        }
+        if (parts.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return Arrays.stream(parts.split(",")).map(Integer::valueOf).collect(Collectors.toList());
+    }
+
+    private static String required(final Properties properties, final String key) throws IOException {
+        final String value = properties.getProperty(key);
+        if (value == null) {
+            throw new IOException("Missing " + key + " in checkpoint");
+        }
+        return value;
+    }
+
+    /**
+     * Writes the checkpoint to the file, the file is replaced atomically so it's never left half written.
+     * @param checkpoint checkpoint file
+     * @throws IOException when the file can't be written
+     */
+    void save(final File checkpoint) throws IOException {
+        final Properties properties = new Properties();
+        properties.setProperty(DIR_PATH, dirPath);
+        properties.setProperty(DATA_SET, dataSet);
+        properties.setProperty(FILE, file);
+        properties.setProperty(COMPRESSED, String.valueOf(compressed));
+        properties.setProperty(CHUNKS, String.valueOf(chunks));
+        properties.setProperty(OFFSET, String.valueOf(offset));
+        properties.setProperty(CHECKSUM, String.valueOf(checksum));
+        if (failed != null) {
+            properties.setProperty(FAILED, failed.stream().map(String::valueOf).collect(Collectors.joining(",")));
+        }
+
+        final Path target = checkpoint.toPath();
+        final Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try (OutputStream output = Files.newOutputStream(temp)) {
+            properties.store(output, "Chunked upload of dataset " + dataSet);
+        }
+        Files.move(temp, target, REPLACE_EXISTING, ATOMIC_MOVE);
+    }
+
+    /**
+     * @return true if this checkpoint records upload of the same dataset file into the given project
+     */
+    boolean matches(final Project project, final DatasetManifest manifest, final boolean compressed) {
+        return dirPath.startsWith("/" + project.getId() + "_")
+                && dataSet.equals(manifest.getDataSet())
+                && file.equals(manifest.getFile())
+                && this.compressed == compressed;
+    }
+
+    /**
+     * @param offset offset in the source just behind the uploaded chunk
+     * @param checksum checksum of the source up to the offset
+     * @return checkpoint recording one more uploaded chunk
+     */
+    UploadCheckpoint next(final long offset, final long checksum) {
+        final List<Integer> nextFailed;
+        if (failed == null) {
+            nextFailed = null;
+        } else {
+            nextFailed = new ArrayList<>(failed);
+            nextFailed.add(chunks);
+        }
+        return new UploadCheckpoint(dirPath, dataSet, file, compressed, chunks + 1, offset, checksum, nextFailed);
+    }
+
+    /**
+     * @param failed indexes of the chunks failed to load
+     * @return checkpoint recording the uploaded chunks, of which just the failed ones are to be loaded
+     */
+    UploadCheckpoint failed(final List<Integer> failed) {
+        return new UploadCheckpoint(dirPath, dataSet, file, compressed, chunks, offset, checksum, failed);
+    }
+
+    String getDirPath() {
+        return dirPath;
+    }
+
+    boolean isCompressed() {
+        return compressed;
+    }
+
+    int getChunks() {
+        return chunks;
+    }
+
+    long getOffset() {
+        return offset;
+    }
+
+    long getChecksum() {
+        return checksum;
+    }
+
+    /**
+     * @return indexes of the chunks failed to load or null if none of the chunks has been loaded yet
+     */
+    List<Integer> getFailed() {
+        return failed;
+    }
+
+    @Override
+    public String toString() {
+        return GoodDataToStringBuilder.defaultToString(this);
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2007-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.executeafm;
+
+import com.gooddata.GoodDataException;
+import com.gooddata.executeafm.result.ExecutionResult;
+import com.gooddata.util.GoodDataToStringBuilder;
+
+/**
+ * Outcome of single execution of {@link ExecutionBatch}, either the result or the failure of the execution.
+ * @param <K> type of the key identifying the execution within the batch
+ */
+public class BatchExecutionResult<K> {
+
+    private final K key;
+    private final ExecutionResult result;
+    private final GoodDataException exception;
+
+    BatchExecutionResult(final K key, final ExecutionResult result, final GoodDataException exception) {
+        this.key = key;
+        this.result = result;
+        this.exception = exception;
+    }
+
+    /**
+     * @return key of the execution as given to the batch
+     */
+    public K getKey() {
+        return key;
+    }
+
+    /**
+     * @return true if the execution succeeded
+     */
+    public boolean isSuccess() {
+        return exception == null;
+    }
+
+    /**
+     * @return result of the execution
+     * @throws GoodDataException the failure of the execution when it didn't succeed
+     */
+    public ExecutionResult getResult() {
+        if (exception != null) {
+            throw exception;
+        }
+        return result;
+    }
+
+    /**
+     * @return failure of the execution, null if the execution succeeded
+     */
+    public GoodDataException getException() {
+        return exception;
+    }
+
+    @Override
+    public String toString() {
+        return GoodDataToStringBuilder.defaultToString(this);
+    }
+}
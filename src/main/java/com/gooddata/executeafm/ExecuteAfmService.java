@@ -6,19 +6,30 @@
 package com.gooddata.executeafm;
 
 import com.gooddata.AbstractService;
+import com.gooddata.ExponentialBackoffPollIntervalStrategy;
 import com.gooddata.FutureResult;
 import com.gooddata.GoodDataException;
 import com.gooddata.GoodDataRestException;
 import com.gooddata.GoodDataSettings;
+import com.gooddata.PollIntervalStrategy;
 import com.gooddata.PollResult;
 import com.gooddata.SimplePollHandler;
 import com.gooddata.executeafm.response.ExecutionResponse;
 import com.gooddata.executeafm.result.ExecutionResult;
+import com.gooddata.executeafm.result.NumericDataMatrix;
+import com.gooddata.executeafm.result.NumericExecutionResult;
+import com.gooddata.md.visualization.VisualizationClass;
+import com.gooddata.md.visualization.VisualizationConverter;
+import com.gooddata.md.visualization.VisualizationObject;
 import com.gooddata.project.Project;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
 import static com.gooddata.util.Validate.notNull;
 
 /**
@@ -35,6 +46,19 @@ public class ExecuteAfmService extends AbstractService {
     private static final String VISUALIZATION_EXECUTION_URI = "/gdc/app/projects/{projectId}/executeVisualization";
     private static final String RESULT_OFFSET = "offset";
     private static final String RESULT_LIMIT = "limit";
+    private static final int DEFAULT_PAGE_LIMIT = 1000;
+    private static final int DEFAULT_TILE_PARALLELISM = 4;
+
+    /**
+     * Most executions finish within a second, so poll quickly at first and back off up to the usual 5 seconds,
+     * unless the strategy is set by {@link GoodDataSettings#setPollIntervalStrategy(PollIntervalStrategy)}.
+     */
+    private static final PollIntervalStrategy DEFAULT_POLL_INTERVAL =
+            new ExponentialBackoffPollIntervalStrategy(100, 2, 5000, 0.1);
+
+    private final GoodDataSettings settings;
+
+    private volatile ExecutionCache executionCache;
 
     /**
      * Constructor.
@@ -44,6 +68,22 @@ public class ExecuteAfmService extends AbstractService {
      */
     public ExecuteAfmService(final RestTemplate restTemplate, final GoodDataSettings settings) {
         super(restTemplate, settings);
+        this.settings = settings;
+    }
+
+    /**
+     * Enables client side caching of executions and their results, disabled by default.
+     * @param executionCache cache to use, null to disable caching
+     */
+    public void setExecutionCache(final ExecutionCache executionCache) {
+        this.executionCache = executionCache;
+    }
+
+    /**
+     * @return cache of executions and their results, null if caching is disabled
+     */
+    public ExecutionCache getExecutionCache() {
+        return executionCache;
     }
 
     /**
@@ -62,6 +102,13 @@ public class ExecuteAfmService extends AbstractService {
      */
     public ExecutionResponse executeAfm(final Project project, final Execution execution) {
         final String projectId = notNull(notNull(project, "project").getId(), "projectId");
+        final ExecutionCache cache = executionCache;
+        if (cache != null) {
+            final ExecutionResponse cached = cache.getResponse(projectId, notNull(execution, "execution"));
+            if (cached != null) {
+                return cached;
+            }
+        }
         final ExecutionResponse response;
         try {
             response = restTemplate.postForObject(
@@ -77,6 +124,9 @@ public class ExecuteAfmService extends AbstractService {
             throw new GoodDataException("Empty response when execution posted to API");
         }
 
+        if (cache != null) {
+            cache.putResponse(projectId, execution, response);
+        }
         return response;
     }
 
@@ -88,6 +138,13 @@ public class ExecuteAfmService extends AbstractService {
      */
     public ExecutionResponse executeVisualization(final Project project, final VisualizationExecution execution) {
         final String projectId = notNull(notNull(project, "project").getId(), "projectId");
+        final ExecutionCache cache = executionCache;
+        if (cache != null) {
+            final ExecutionResponse cached = cache.getResponse(projectId, notNull(execution, "execution"));
+            if (cached != null) {
+                return cached;
+            }
+        }
         final ExecutionResponse response;
         try {
             response = restTemplate.postForObject(
@@ -103,16 +160,67 @@ public class ExecuteAfmService extends AbstractService {
             throw new GoodDataException("Empty response when execution posted to API");
         }
 
+        if (cache != null) {
+            cache.putResponse(projectId, execution, response);
+        }
         return response;
     }
 
+    /**
+     * Executes the given AFM executions concurrently, at most {@code parallelism} executions at once, and polls
+     * for their results. The returned batch iterates over the outcomes in order of completion.
+     * @param project project of the executions
+     * @param executions executions identified by keys of any type
+     * @param parallelism maximum number of executions running concurrently, should not exceed
+     *                    {@link GoodDataSettings#getMaxConnections()}
+     * @param <K> type of the execution keys
+     * @return batch of the submitted executions
+     */
+    public <K> ExecutionBatch<K> executeAfm(final Project project, final Map<K, Execution> executions,
+                                            final int parallelism) {
+        notNull(project, "project");
+        return new ExecutionBatch<>(notNull(executions, "executions"),
+                execution -> getResult(executeAfm(project, execution)).toCompletableFuture(), parallelism);
+    }
+
+    /**
+     * Converts the given visualization objects to executions and executes them concurrently, at most
+     * {@code parallelism} executions at once. Each visualization class is fetched by the getter only once.
+     * The returned batch iterates over the outcomes in order of completion, the failure of the conversion
+     * is the outcome of the visualization object too.
+     * @param project project of the visualization objects
+     * @param visualizationObjects visualization objects identified by keys of any type
+     * @param visualizationClassGetter {@link Function} for fetching VisualizationClass of given uri
+     * @param parallelism maximum number of executions running concurrently, should not exceed
+     *                    {@link GoodDataSettings#getMaxConnections()}
+     * @param <K> type of the visualization object keys
+     * @return batch of the submitted executions
+     * @see VisualizationConverter#convertToExecution(VisualizationObject, Function)
+     */
+    public <K> ExecutionBatch<K> executeVisualizationObjects(final Project project,
+                                                             final Map<K, VisualizationObject> visualizationObjects,
+                                                             final Function<String, VisualizationClass> visualizationClassGetter,
+                                                             final int parallelism) {
+        notNull(project, "project");
+        notNull(visualizationObjects, "visualizationObjects");
+        notNull(visualizationClassGetter, "visualizationClassGetter");
+        final Map<String, VisualizationClass> visualizationClasses = new ConcurrentHashMap<>();
+        final Function<String, VisualizationClass> cachedGetter =
+                uri -> visualizationClasses.computeIfAbsent(uri, visualizationClassGetter);
+
+        return new ExecutionBatch<>(visualizationObjects, visualizationObject -> {
+            final Execution execution = VisualizationConverter.convertToExecution(visualizationObject, cachedGetter);
+            return getResult(executeAfm(project, execution)).toCompletableFuture();
+        }, parallelism);
+    }
+
     /**
      * Get for result of given response.
      * @param executionResponse response to get the result
      * @return future of execution result
      */
     public FutureResult<ExecutionResult> getResult(final ExecutionResponse executionResponse) {
-        return new PollResult<>(this, new ExecutionPollHandler(notNull(executionResponse, "executionResponse").getExecutionResultUri()));
+        return pollResult(notNull(executionResponse, "executionResponse").getExecutionResultUri(), ExecutionResult.class);
     }
 
     /**
@@ -122,26 +230,159 @@ public class ExecuteAfmService extends AbstractService {
      * @return future of execution result
      */
     public FutureResult<ExecutionResult> getResult(final ExecutionResponse executionResponse, final ResultPage page) {
+        return pollResult(getPagedResultUri(executionResponse, page), ExecutionResult.class);
+    }
+
+    /**
+     * Get for result of given response with the data represented by primitive {@link NumericDataMatrix},
+     * which is much more memory efficient for results of many numeric cells.
+     * @param executionResponse response to get the result
+     * @return future of numeric execution result
+     */
+    public FutureResult<NumericExecutionResult> getNumericResult(final ExecutionResponse executionResponse) {
+        return pollResult(notNull(executionResponse, "executionResponse").getExecutionResultUri(),
+                NumericExecutionResult.class);
+    }
+
+    /**
+     * Get for page of result of given response with the data represented by primitive {@link NumericDataMatrix},
+     * which is much more memory efficient for results of many numeric cells.
+     * @param executionResponse response to get the result
+     * @param page desired result page specification
+     * @return future of numeric execution result
+     */
+    public FutureResult<NumericExecutionResult> getNumericResult(final ExecutionResponse executionResponse,
+                                                                 final ResultPage page) {
+        return pollResult(getPagedResultUri(executionResponse, page), NumericExecutionResult.class);
+    }
+
+    /**
+     * Get the whole two-dimensional result of given response, downloading it split into tiles of given size,
+     * at most {@code parallelism} tiles at once. Data, header items and totals of the tiles are assembled into
+     * a single result.
+     * @param executionResponse response to get the result
+     * @param rowsPerTile tile limit of the first dimension
+     * @param columnsPerTile tile limit of the second dimension
+     * @param parallelism maximum number of tiles downloaded concurrently, should not exceed
+     *                    {@link GoodDataSettings#getMaxConnections()}
+     * @return assembled execution result
+     */
+    public ExecutionResult getResultByTiles(final ExecutionResponse executionResponse, final int rowsPerTile,
+                                            final int columnsPerTile, final int parallelism) {
+        notNull(executionResponse, "executionResponse");
+        return new ResultTileFetcher(page -> getResult(executionResponse, page), rowsPerTile, columnsPerTile,
+                parallelism).fetch();
+    }
+
+    private <T> FutureResult<T> pollResult(final String resultUri, final Class<T> resultClass) {
+        final ExecutionCache cache = executionCache;
+        final ExecutionPollHandler<T> handler = new ExecutionPollHandler<>(resultUri, resultClass, cache,
+                settings);
+        if (cache != null) {
+            final T cached = cache.getResult(resultUri, resultClass);
+            if (cached != null) {
+                handler.setCachedResult(cached);
+            }
+        }
+        return new PollResult<>(this, handler);
+    }
+
+    private static String getPagedResultUri(final ExecutionResponse executionResponse, final ResultPage page) {
         final String executionResultUri = notNull(executionResponse, "executionResponse").getExecutionResultUri();
+        notNull(page, "page");
 
-        final String pagedResultUri = UriComponentsBuilder.fromUriString(executionResultUri)
+        return UriComponentsBuilder.fromUriString(executionResultUri)
                 .replaceQueryParam(RESULT_OFFSET, page.getOffsetsQueryParam())
                 .replaceQueryParam(RESULT_LIMIT, page.getLimitsQueryParam())
                 .build(true)
                 .toUriString();
+    }
 
-        return new PollResult<>(this, new ExecutionPollHandler(pagedResultUri));
+    /**
+     * Iterate over the rows of the result of given response, fetching the result by pages of default size
+     * (1000 rows, 1000 columns) and prefetching the next page in background.
+     * @param executionResponse response to get the result
+     * @return iterator over the result rows
+     * @see #readResultRows(ExecutionResponse, int, int, int, int)
+     */
+    public ResultRowIterator readResultRows(final ExecutionResponse executionResponse) {
+        return readResultRows(executionResponse, DEFAULT_PAGE_LIMIT, DEFAULT_PAGE_LIMIT, 1);
     }
 
-    private static final class ExecutionPollHandler extends SimplePollHandler<ExecutionResult> {
+    /**
+     * Iterate over the rows of the result of given response, fetching the result page by page, at most 4 tiles
+     * of the pages at once.
+     * @param executionResponse response to get the result
+     * @param rowsPerPage page limit of the first dimension
+     * @param columnsPerPage page limit of the second dimension (ignored for one-dimensional results)
+     * @param prefetchPages number of pages to be fetched ahead of the consumed one
+     * @return iterator over the result rows
+     * @see #readResultRows(ExecutionResponse, int, int, int, int)
+     */
+    public ResultRowIterator readResultRows(final ExecutionResponse executionResponse, final int rowsPerPage,
+                                            final int columnsPerPage, final int prefetchPages) {
+        return readResultRows(executionResponse, rowsPerPage, columnsPerPage, prefetchPages,
+                DEFAULT_TILE_PARALLELISM);
+    }
+
+    /**
+     * Iterate over the rows (items of the first dimension) of the result of given response, fetching the result
+     * page by page. Next pages are fetched in background while the current one is consumed, at most
+     * {@code prefetchPages + 1} pages are held in memory. Each page is fetched in tiles of
+     * {@code columnsPerPage} columns, at most {@code parallelism} tiles at once.
+     * @param executionResponse response to get the result
+     * @param rowsPerPage page limit of the first dimension
+     * @param columnsPerPage page limit of the second dimension (ignored for one-dimensional results)
+     * @param prefetchPages number of pages to be fetched ahead of the consumed one
+     * @param parallelism maximum number of tiles fetched concurrently, should not exceed
+     *                    {@link GoodDataSettings#getMaxConnections()}
+     * @return iterator over the result rows with the header items of the first dimension
+     */
+    public ResultRowIterator readResultRows(final ExecutionResponse executionResponse, final int rowsPerPage,
+                                            final int columnsPerPage, final int prefetchPages,
+                                            final int parallelism) {
+        notNull(executionResponse, "executionResponse");
+        return new ResultRowIterator(page -> getResult(executionResponse, page),
+                notNull(executionResponse.getDimensions(), "dimensions").size(),
+                rowsPerPage, columnsPerPage, prefetchPages, parallelism);
+    }
+
+    private static final class ExecutionPollHandler<T> extends SimplePollHandler<T> {
+
+        private final ExecutionCache cache;
+        private final GoodDataSettings settings;
+        private boolean cached;
 
-        ExecutionPollHandler(String pollingUri) {
-            super(pollingUri, ExecutionResult.class);
+        /**
+         * @param settings settings consulted on each poll, so the strategy set later is honored
+         */
+        ExecutionPollHandler(final String pollingUri, final Class<T> resultClass, final ExecutionCache cache,
+                             final GoodDataSettings settings) {
+            super(pollingUri, resultClass);
+            this.cache = cache;
+            this.settings = settings;
+        }
+
+        void setCachedResult(final T result) {
+            cached = true;
+            setResult(result);
+        }
+
+        @Override
+        protected void onFinish() {
+            if (cache != null && !cached && getResult() != null) {
+                cache.putResult(getPollingUri(), getResult());
+            }
         }
 
         @Override
         public void handlePollException(GoodDataRestException e) {
             throw new ExecutionResultException(e);
         }
+
+        @Override
+        public PollIntervalStrategy getPollIntervalStrategy() {
+            return settings.isPollIntervalStrategySet() ? null : DEFAULT_POLL_INTERVAL;
+        }
     }
 }
@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2007-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.executeafm;
+
+import com.gooddata.BoundedExecutor;
+import com.gooddata.GoodDataException;
+import com.gooddata.executeafm.result.ExecutionResult;
+import com.gooddata.project.Project;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Function;
+
+import static com.gooddata.util.Validate.notNull;
+
+/**
+ * Batch of executions submitted concurrently, at most given number of executions (submitting and polling
+ * for the result) running at once. The results are polled without blocking any thread. Iterates over the outcomes
+ * of the executions in order of their completion, so the whole batch takes about as long as the slowest executions
+ * instead of the sum of all of them.
+ * <p>
+ * Use {@link ExecuteAfmService#executeAfm(Project, Map, int)} or
+ * {@link ExecuteAfmService#executeVisualizationObjects(Project, Map, Function, int)} to obtain an instance.
+ * Closing the batch cancels the executions not finished yet.
+ *
+ * @param <K> type of the key identifying the execution within the batch
+ */
+public class ExecutionBatch<K> implements Iterator<BatchExecutionResult<K>>, AutoCloseable {
+
+    private final List<CompletableFuture<ExecutionResult>> executions;
+    private final BlockingQueue<BatchExecutionResult<K>> completed = new LinkedBlockingQueue<>();
+    private final int size;
+    private int returned;
+
+    /**
+     * @param items items to execute identified by keys
+     * @param executionRunner starts the execution of the item, returns the future of its result
+     * @param parallelism maximum number of executions running at once
+     * @param <T> type of the executed items
+     */
+    <T> ExecutionBatch(final Map<K, T> items, final Function<T, CompletableFuture<ExecutionResult>> executionRunner,
+                       final int parallelism) {
+        notNull(items, "items");
+        notNull(executionRunner, "executionRunner");
+        final BoundedExecutor executor = new BoundedExecutor(parallelism);
+        this.size = items.size();
+        this.executions = new ArrayList<>(size);
+        items.forEach((key, item) -> {
+            final CompletableFuture<ExecutionResult> execution = executor.submit(() -> executionRunner.apply(item));
+            executions.add(execution);
+            // the outcome is queued however the execution completes, so next() never waits forever
+            execution.whenComplete((result, e) -> completed.add(outcome(key, result, e)));
+        });
+    }
+
+    /**
+     * @return number of executions in the batch
+     */
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return returned < size;
+    }
+
+    /**
+     * Returns outcome of next completed execution, waits for the completion if there is none yet.
+     * @return outcome of next completed execution
+     */
+    @Override
+    public BatchExecutionResult<K> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        try {
+            final BatchExecutionResult<K> result = completed.take();
+            returned++;
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GoodDataException("interrupted", e);
+        }
+    }
+
+    /**
+     * Cancels the executions not finished yet.
+     */
+    @Override
+    public void close() {
+        executions.forEach(execution -> execution.cancel(false));
+        returned = size;
+    }
+
+    private static <K> BatchExecutionResult<K> outcome(final K key, final ExecutionResult result, final Throwable e) {
+        if (e == null) {
+            return new BatchExecutionResult<>(key, result, null);
+        }
+        if (e instanceof GoodDataException) {
+            return new BatchExecutionResult<>(key, null, (GoodDataException) e);
+        }
+        return new BatchExecutionResult<>(key, null, new GoodDataException("Unable to execute " + key, e));
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright (C) 2007-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.executeafm;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.gooddata.GoodDataException;
+import com.gooddata.executeafm.response.ExecutionResponse;
+import com.gooddata.project.Project;
+import com.gooddata.util.GoodDataToStringBuilder;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.gooddata.util.Validate.notNull;
+
+/**
+ * Opt-in client side cache of executions for {@link ExecuteAfmService}, see
+ * {@link ExecuteAfmService#setExecutionCache(ExecutionCache)}.
+ * <p>
+ * Execution responses are keyed by the project and the canonical form (JSON with sorted properties) of the posted
+ * {@link Execution} or {@link VisualizationExecution}, so the repeated execution skips the POST request. The fetched
+ * result pages are keyed by their URI, so the repeated execution skips polling as well.
+ * <p>
+ * The cache holds at most given number of entries (responses and result pages together), evicting the least
+ * recently used ones, and each entry expires after given time. When the project data or metadata change,
+ * invalidate its entries using {@link #invalidate(Project)}.
+ * <p>
+ * Note the cached result instances are shared, they should not be modified by the callers.
+ */
+public class ExecutionCache {
+
+    private static final String RESPONSE_PREFIX = "response:";
+    private static final String RESULT_PREFIX = "result:";
+    private static final Pattern PROJECT_ID = Pattern.compile("/projects/([^/?]+)");
+
+    private final ObjectMapper canonicalMapper = new ObjectMapper()
+            .configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true)
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+    private final int maxSize;
+    private final long ttl;
+    private final Map<String, Entry> entries;
+
+    /**
+     * Creates new cache
+     * @param maxSize maximum number of cached entries (execution responses and result pages)
+     * @param ttl time to live of each entry
+     * @param unit time to live unit
+     */
+    public ExecutionCache(final int maxSize, final long ttl, final TimeUnit unit) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be greater than zero");
+        }
+        if (ttl < 1) {
+            throw new IllegalArgumentException("ttl must be greater than zero");
+        }
+        this.maxSize = maxSize;
+        this.ttl = notNull(unit, "unit").toMillis(ttl);
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+                return size() > ExecutionCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Removes all the entries of given project
+     * @param project project
+     */
+    public void invalidate(final Project project) {
+        invalidate(notNull(notNull(project, "project").getId(), "projectId"));
+    }
+
+    /**
+     * Removes all the entries of given project
+     * @param projectId project id
+     */
+    public synchronized void invalidate(final String projectId) {
+        notNull(projectId, "projectId");
+        entries.values().removeIf(entry -> projectId.equals(entry.projectId));
+    }
+
+    /**
+     * Removes all the entries
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * @return number of cached entries (including the expired ones not evicted yet)
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    ExecutionResponse getResponse(final String projectId, final Object execution) {
+        return get(responseKey(projectId, execution), ExecutionResponse.class);
+    }
+
+    void putResponse(final String projectId, final Object execution, final ExecutionResponse response) {
+        put(responseKey(projectId, execution), projectId, response);
+    }
+
+    <T> T getResult(final String resultUri, final Class<T> resultClass) {
+        return get(resultKey(resultUri, resultClass), resultClass);
+    }
+
+    void putResult(final String resultUri, final Object result) {
+        put(resultKey(resultUri, result.getClass()), projectIdOf(resultUri), result);
+    }
+
+    private synchronized <T> T get(final String key, final Class<T> type) {
+        final Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt < System.currentTimeMillis()) {
+            entries.remove(key);
+            return null;
+        }
+        return type.isInstance(entry.value) ? type.cast(entry.value) : null;
+    }
+
+    private synchronized void put(final String key, final String projectId, final Object value) {
+        evictExpired();
+        entries.put(key, new Entry(projectId, value, System.currentTimeMillis() + ttl));
+    }
+
+    private void evictExpired() {
+        final long now = System.currentTimeMillis();
+        final Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().expiresAt < now) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private String responseKey(final String projectId, final Object execution) {
+        final byte[] canonical;
+        try {
+            canonical = canonicalMapper.writeValueAsBytes(execution);
+        } catch (JsonProcessingException e) {
+            throw new GoodDataException("Unable to serialize execution", e);
+        }
+        return RESPONSE_PREFIX + projectId + ':' + sha256(canonical);
+    }
+
+    private static String resultKey(final String resultUri, final Class<?> resultClass) {
+        return RESULT_PREFIX + resultClass.getSimpleName() + ':' + resultUri;
+    }
+
+    private static String projectIdOf(final String uri) {
+        final Matcher matcher = PROJECT_ID.matcher(uri);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    private static String sha256(final byte[] data) {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Missing SHA-256 algorithm", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return GoodDataToStringBuilder.defaultToString(this, "entries", "canonicalMapper");
+    }
+
+    private static class Entry {
+        private final String projectId;
+        private final Object value;
+        private final long expiresAt;
+
+        private Entry(final String projectId, final Object value, final long expiresAt) {
+            this.projectId = projectId;
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -37,6 +37,20 @@ public class ResultPage {
         }
     }
 
+    /**
+     * @return page offsets, one per dimension
+     */
+    List<Integer> getOffsets() {
+        return offsets;
+    }
+
+    /**
+     * @return page limits, one per dimension
+     */
+    List<Integer> getLimits() {
+        return limits;
+    }
+
     /**
      * @return page offsets joined and URL-encoded to be used as query parameter
      */
@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2007-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.executeafm;
+
+import com.gooddata.executeafm.result.Data;
+import com.gooddata.executeafm.result.ExecutionResult;
+import com.gooddata.executeafm.result.ResultHeaderItem;
+import com.gooddata.util.GoodDataToStringBuilder;
+
+import java.util.List;
+
+import static com.gooddata.util.Validate.notNull;
+
+/**
+ * Represents single row (item of the first dimension) of {@link ExecutionResult} read by {@link ResultRowIterator}.
+ */
+public class ResultRow {
+
+    private final Data data;
+    private final List<ResultHeaderItem> headerItems;
+
+    /**
+     * Creates new row
+     * @param data row data
+     * @param headerItems header items of the row, one for each header of the first dimension
+     */
+    public ResultRow(final Data data, final List<ResultHeaderItem> headerItems) {
+        this.data = notNull(data, "data");
+        this.headerItems = notNull(headerItems, "headerItems");
+    }
+
+    /**
+     * @return row data, {@link com.gooddata.executeafm.result.DataList} of the whole row for two-dimensional
+     * results, single data value for one-dimensional results
+     */
+    public Data getData() {
+        return data;
+    }
+
+    /**
+     * @return header items of the row, one for each header of the first dimension, empty if the result has no headers
+     */
+    public List<ResultHeaderItem> getHeaderItems() {
+        return headerItems;
+    }
+
+    @Override
+    public String toString() {
+        return GoodDataToStringBuilder.defaultToString(this);
+    }
+}
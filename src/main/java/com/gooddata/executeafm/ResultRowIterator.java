@@ -0,0 +1,246 @@
+/*
+ * Copyright (C) 2007-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.executeafm;
+
+import com.gooddata.BoundedExecutor;
+import com.gooddata.FutureResult;
+import com.gooddata.GoodDataException;
+import com.gooddata.executeafm.response.ExecutionResponse;
+import com.gooddata.executeafm.result.Data;
+import com.gooddata.executeafm.result.DataList;
+import com.gooddata.executeafm.result.ExecutionResult;
+import com.gooddata.executeafm.result.ResultHeaderItem;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+import static com.gooddata.util.Validate.notNull;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+
+/**
+ * Iterates over the rows of {@link ExecutionResult} along its first dimension, fetching the result page by page.
+ * Each row holds the header items of the first dimension and the data, which is a {@link DataList} holding the whole
+ * row for two-dimensional results (pages of the second dimension are stitched together) or a single data value for
+ * one-dimensional results.
+ * <p>
+ * While the current page is consumed, up to the configured number of following pages is fetched in the background,
+ * so at most {@code prefetchPages + 1} pages are held in memory at once. The tiles of the pages are fetched
+ * on the shared {@link BoundedExecutor}, at most {@code parallelism} tiles at once.
+ * <p>
+ * Use {@link ExecuteAfmService#readResultRows(ExecutionResponse, int, int, int, int)} to obtain an instance.
+ * Closing the iterator cancels the pending page fetches.
+ */
+public class ResultRowIterator implements Iterator<ResultRow>, AutoCloseable {
+
+    private final Function<ResultPage, FutureResult<ExecutionResult>> pageLoader;
+    private final int dimensions;
+    private final int rowLimit;
+    private final int columnLimit;
+    private final int prefetchPages;
+    private final BoundedExecutor executor;
+    private final Deque<CompletableFuture<List<ResultRow>>> pages = new ArrayDeque<>();
+    private final List<Integer> total;
+
+    private int nextRowOffset;
+    private Iterator<ResultRow> rows = Collections.emptyIterator();
+
+    ResultRowIterator(final Function<ResultPage, FutureResult<ExecutionResult>> pageLoader, final int dimensions,
+                      final int rowLimit, final int columnLimit, final int prefetchPages, final int parallelism) {
+        this.pageLoader = notNull(pageLoader, "pageLoader");
+        if (dimensions < 1 || dimensions > 2) {
+            throw new IllegalArgumentException("Only one or two-dimensional results can be iterated, got " + dimensions);
+        }
+        if (rowLimit < 1 || columnLimit < 1) {
+            throw new IllegalArgumentException("Page limits must be greater than zero");
+        }
+        if (prefetchPages < 0) {
+            throw new IllegalArgumentException("prefetchPages must be not negative");
+        }
+        this.dimensions = dimensions;
+        this.rowLimit = rowLimit;
+        this.columnLimit = columnLimit;
+        this.prefetchPages = prefetchPages;
+        this.executor = new BoundedExecutor(parallelism);
+
+        // the first page is fetched eagerly to learn the result size
+        final ExecutionResult first = pageLoader.apply(page(0, 0)).get();
+        this.total = notNull(notNull(first.getPaging(), "paging").getTotal(), "total");
+        pages.add(fetchRows(first));
+        nextRowOffset = rowLimit;
+        prefetch();
+    }
+
+    /**
+     * @return total size of the result in each dimension
+     */
+    public List<Integer> getTotal() {
+        return total;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!rows.hasNext()) {
+            if (pages.isEmpty()) {
+                if (nextRowOffset >= total.get(0)) {
+                    return false;
+                }
+                pages.add(fetchRows(nextRowOffset));
+                nextRowOffset += rowLimit;
+            }
+            rows = await(pages.poll()).iterator();
+            prefetch();
+        }
+        return true;
+    }
+
+    @Override
+    public ResultRow next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return rows.next();
+    }
+
+    /**
+     * Cancels fetching of the prefetched pages.
+     */
+    @Override
+    public void close() {
+        pages.forEach(future -> future.cancel(true));
+        pages.clear();
+        rows = Collections.emptyIterator();
+        nextRowOffset = total.get(0);
+    }
+
+    private void prefetch() {
+        while (pages.size() < prefetchPages && nextRowOffset < total.get(0)) {
+            pages.add(fetchRows(nextRowOffset));
+            nextRowOffset += rowLimit;
+        }
+    }
+
+    private CompletableFuture<List<ResultRow>> fetchRows(final ExecutionResult first) {
+        final List<CompletableFuture<ExecutionResult>> tiles = new ArrayList<>();
+        tiles.add(CompletableFuture.completedFuture(first));
+        tiles.addAll(fetchColumnTiles(0, columnLimit));
+        return merge(0, tiles);
+    }
+
+    private CompletableFuture<List<ResultRow>> fetchRows(final int rowOffset) {
+        return merge(rowOffset, fetchColumnTiles(rowOffset, 0));
+    }
+
+    private List<CompletableFuture<ExecutionResult>> fetchColumnTiles(final int rowOffset, final int columnOffset) {
+        final List<CompletableFuture<ExecutionResult>> tiles = new ArrayList<>();
+        if (dimensions == 1) {
+            if (columnOffset == 0) {
+                tiles.add(fetchTile(page(rowOffset, 0)));
+            }
+        } else {
+            for (int offset = columnOffset; offset < total.get(1); offset += columnLimit) {
+                tiles.add(fetchTile(page(rowOffset, offset)));
+            }
+        }
+        return tiles;
+    }
+
+    private CompletableFuture<ExecutionResult> fetchTile(final ResultPage page) {
+        // the tile is polled on the shared poll scheduler, the slot is held until the tile is fetched
+        return executor.submit(() -> pageLoader.apply(page).toCompletableFuture());
+    }
+
+    private CompletableFuture<List<ResultRow>> merge(final int rowOffset,
+                                                     final List<CompletableFuture<ExecutionResult>> tiles) {
+        final CompletableFuture<List<ResultRow>> rows = CompletableFuture
+                .allOf(tiles.toArray(new CompletableFuture[tiles.size()]))
+                .thenApply(ignored -> {
+                    final List<List<Data>> tileRows = new ArrayList<>(tiles.size());
+                    for (CompletableFuture<ExecutionResult> tile : tiles) {
+                        tileRows.add(dataOf(tile.join(), rowOffset));
+                    }
+                    return tiles.isEmpty() ? Collections.<ResultRow>emptyList()
+                            : rowsOf(stitch(tileRows), tiles.get(0).join());
+                });
+        rows.whenComplete((result, e) -> {
+            if (rows.isCancelled()) {
+                tiles.forEach(tile -> tile.cancel(true));
+            }
+        });
+        return rows;
+    }
+
+    private List<Data> dataOf(final ExecutionResult tile, final int rowOffset) {
+        final List<Data> data = tile.getData() != null ? tile.getData() : Collections.emptyList();
+        final int expected = Math.min(rowLimit, total.get(0) - rowOffset);
+        if (data.size() < expected) {
+            throw new GoodDataException("Result page at offset " + rowOffset + " has " + data.size()
+                    + " rows, expected " + expected);
+        }
+        return data;
+    }
+
+    /**
+     * @return rows of given data with the header items of the first dimension taken from the first tile of the page
+     */
+    private static List<ResultRow> rowsOf(final List<Data> data, final ExecutionResult firstTile) {
+        final List<List<ResultHeaderItem>> headers = firstTile.getHeaderItems() != null
+                && !firstTile.getHeaderItems().isEmpty() ? firstTile.getHeaderItems().get(0) : Collections.emptyList();
+        final List<ResultRow> rows = new ArrayList<>(data.size());
+        for (int i = 0; i < data.size(); i++) {
+            final List<ResultHeaderItem> items = new ArrayList<>(headers.size());
+            for (List<ResultHeaderItem> header : headers) {
+                items.add(header.get(i));
+            }
+            rows.add(new ResultRow(data.get(i), items));
+        }
+        return rows;
+    }
+
+    private static List<Data> stitch(final List<List<Data>> tileRows) {
+        if (tileRows.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (tileRows.size() == 1) {
+            return tileRows.get(0);
+        }
+        final int size = tileRows.get(0).size();
+        final List<Data> rows = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final List<Data> row = new ArrayList<>();
+            for (List<Data> tile : tileRows) {
+                row.addAll(tile.get(i).asList());
+            }
+            rows.add(new DataList(row));
+        }
+        return rows;
+    }
+
+    private ResultPage page(final int rowOffset, final int columnOffset) {
+        return dimensions == 1
+                ? new ResultPage(singletonList(rowOffset), singletonList(rowLimit))
+                : new ResultPage(asList(rowOffset, columnOffset), asList(rowLimit, columnLimit));
+    }
+
+    private static <T> T await(final CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new GoodDataException("Unable to fetch result page", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2007-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.executeafm;
+
+import com.gooddata.BoundedExecutor;
+import com.gooddata.FutureResult;
+import com.gooddata.GoodDataException;
+import com.gooddata.executeafm.result.Data;
+import com.gooddata.executeafm.result.DataList;
+import com.gooddata.executeafm.result.ExecutionResult;
+import com.gooddata.executeafm.result.HeaderItemDictionary;
+import com.gooddata.executeafm.result.Paging;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import static com.gooddata.util.Validate.notNull;
+import static java.util.Arrays.asList;
+
+/**
+ * Fetches two-dimensional {@link ExecutionResult} split into tiles, downloading at most given number of tiles
+ * concurrently, and assembles the tiles into a single result. The tiles are polled without blocking any thread.
+ */
+class ResultTileFetcher {
+
+    private final Function<ResultPage, FutureResult<ExecutionResult>> pageLoader;
+    private final int rowLimit;
+    private final int columnLimit;
+    private final int parallelism;
+
+    ResultTileFetcher(final Function<ResultPage, FutureResult<ExecutionResult>> pageLoader, final int rowLimit,
+                      final int columnLimit, final int parallelism) {
+        this.pageLoader = notNull(pageLoader, "pageLoader");
+        if (rowLimit < 1 || columnLimit < 1) {
+            throw new IllegalArgumentException("Tile limits must be greater than zero");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be greater than zero");
+        }
+        this.rowLimit = rowLimit;
+        this.columnLimit = columnLimit;
+        this.parallelism = parallelism;
+    }
+
+    ExecutionResult fetch() {
+        // the first tile is fetched eagerly to learn the result size
+        final ExecutionResult first = pageLoader.apply(page(0, 0)).get();
+        final List<Integer> total = notNull(notNull(first.getPaging(), "paging").getTotal(), "total");
+        if (total.size() != 2) {
+            throw new IllegalArgumentException("Only two-dimensional results can be fetched by tiles, got " + total.size());
+        }
+        final int rows = total.get(0);
+        final int columns = total.get(1);
+        final int rowTiles = Math.max(1, (rows + rowLimit - 1) / rowLimit);
+        final int columnTiles = Math.max(1, (columns + columnLimit - 1) / columnLimit);
+
+        final ExecutionResult[][] tiles = new ExecutionResult[rowTiles][columnTiles];
+        tiles[0][0] = first;
+        if (rowTiles * columnTiles > 1) {
+            fetchRemaining(tiles);
+        }
+        return assemble(tiles, rows, columns);
+    }
+
+    private void fetchRemaining(final ExecutionResult[][] tiles) {
+        final int remaining = tiles.length * tiles[0].length - 1;
+        final BoundedExecutor executor = new BoundedExecutor(parallelism);
+        final List<CompletableFuture<Void>> futures = new ArrayList<>(remaining);
+        for (int i = 0; i < tiles.length; i++) {
+            for (int j = 0; j < tiles[i].length; j++) {
+                if (i == 0 && j == 0) {
+                    continue;
+                }
+                final int row = i;
+                final int column = j;
+                // the tile is polled on the shared poll scheduler, the slot is held until the tile is fetched
+                futures.add(executor.submit(() -> pageLoader.apply(page(row * rowLimit, column * columnLimit))
+                        .toCompletableFuture())
+                        .thenAccept(tile -> tiles[row][column] = tile));
+            }
+        }
+        BoundedExecutor.join(CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])),
+                "Unable to fetch result tile");
+    }
+
+    private ExecutionResult assemble(final ExecutionResult[][] tiles, final int rows, final int columns) {
+        final List<Data> data = new ArrayList<>(rows);
+        for (int i = 0; i < tiles.length; i++) {
+            final int tileRows = Math.min(rowLimit, rows - i * rowLimit);
+            for (int row = 0; row < tileRows; row++) {
+                final List<Data> values = new ArrayList<>(columns);
+                for (int j = 0; j < tiles[i].length; j++) {
+                    values.addAll(rowOf(tiles[i][j], i, row).asList());
+                }
+                data.add(new DataList(values));
+            }
+        }
+
+        final ExecutionResult first = tiles[0][0];
+        final ExecutionResult result = new ExecutionResult(new DataList(data),
+                new Paging(asList(rows, columns), asList(0, 0), asList(rows, columns)));
+
+        final List<ExecutionResult> firstColumn = new ArrayList<>(tiles.length);
+        for (ExecutionResult[] tileRow : tiles) {
+            firstColumn.add(tileRow[0]);
+        }
+        final List<ExecutionResult> firstRow = asList(tiles[0]);
+
+        if (first.getHeaderItems() != null) {
+            result.addHeaderItems(concat(firstColumn, tile -> tile.getHeaderItems().get(0)));
+            result.addHeaderItems(concat(firstRow, tile -> tile.getHeaderItems().get(1)));
+            // items repeat across the tiles, keep single instance of each
+            new HeaderItemDictionary().intern(result);
+        }
+        if (first.getTotals() != null) {
+            // totals of rows span the columns and vice versa
+            result.setTotals(asList(
+                    concat(firstRow, tile -> tile.getTotals().get(0)),
+                    concat(firstColumn, tile -> tile.getTotals().get(1))));
+        }
+        result.setTotalTotals(first.getTotalTotals());
+        result.setWarnings(first.getWarnings());
+        return result;
+    }
+
+    private Data rowOf(final ExecutionResult tile, final int tileRow, final int row) {
+        final List<Data> data = tile.getData() != null ? tile.getData() : Collections.emptyList();
+        if (row >= data.size()) {
+            throw new GoodDataException("Result tile at row offset " + tileRow * rowLimit + " has " + data.size()
+                    + " rows, expected " + (row + 1) + " at least");
+        }
+        return data.get(row);
+    }
+
+    /**
+     * Concatenates the lists of the given tiles per index, i.e. items of each header of the dimension.
+     */
+    private static <T> List<List<T>> concat(final List<ExecutionResult> tiles,
+                                            final Function<ExecutionResult, List<List<T>>> getter) {
+        final List<List<T>> result = new ArrayList<>();
+        for (ExecutionResult tile : tiles) {
+            final List<List<T>> lists = getter.apply(tile);
+            for (int index = 0; index < lists.size(); index++) {
+                if (result.size() <= index) {
+                    result.add(new ArrayList<>());
+                }
+                result.get(index).addAll(lists.get(index));
+            }
+        }
+        return result;
+    }
+
+    private ResultPage page(final int rowOffset, final int columnOffset) {
+        return new ResultPage(asList(rowOffset, columnOffset), asList(rowLimit, columnLimit));
+    }
+}
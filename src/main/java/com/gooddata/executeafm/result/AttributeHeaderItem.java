@@ -6,19 +6,29 @@
 package com.gooddata.executeafm.result;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
-import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonRootName;
-import com.fasterxml.jackson.annotation.JsonTypeInfo;
-import com.fasterxml.jackson.annotation.JsonTypeName;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.gooddata.util.GoodDataToStringBuilder;
 
+import java.io.IOException;
+import java.util.Objects;
+
 import static com.gooddata.executeafm.result.AttributeHeaderItem.NAME;
 
 /**
  * Header item for attribute
+ * <p>
+ * Items are interned to the {@link HeaderItemDictionary} of the deserialized result, so the equal items
+ * of single result are the same instance.
  */
 @JsonRootName(NAME)
+@JsonDeserialize(using = AttributeHeaderItem.Deserializer.class)
 public class AttributeHeaderItem extends ResultHeaderItem {
 
     static final String NAME = "attributeHeaderItem";
@@ -43,8 +53,68 @@ public class AttributeHeaderItem extends ResultHeaderItem {
         return uri;
     }
 
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final AttributeHeaderItem that = (AttributeHeaderItem) o;
+        return Objects.equals(getName(), that.getName()) && Objects.equals(uri, that.uri);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getName(), uri);
+    }
+
     @Override
     public String toString() {
         return GoodDataToStringBuilder.defaultToString(this);
     }
+
+    /**
+     * Deserializes the item and interns it to the {@link HeaderItemDictionary} shared by the whole deserialization
+     * call (i.e. single {@link ExecutionResult}).
+     */
+    static class Deserializer extends JsonDeserializer<AttributeHeaderItem> {
+        @Override
+        public AttributeHeaderItem deserialize(final JsonParser jp, final DeserializationContext ctxt) throws IOException {
+            JsonToken token = jp.getCurrentToken();
+            if (token == JsonToken.START_OBJECT) {
+                token = jp.nextToken();
+            }
+            String name = null;
+            String uri = null;
+            for (; token == JsonToken.FIELD_NAME; token = jp.nextToken()) {
+                final String field = jp.getCurrentName();
+                jp.nextToken();
+                if ("name".equals(field)) {
+                    name = jp.getValueAsString();
+                } else if ("uri".equals(field)) {
+                    uri = jp.getValueAsString();
+                } else {
+                    jp.skipChildren();
+                }
+            }
+            if (token != JsonToken.END_OBJECT) {
+                throw JsonMappingException.from(jp, "Unexpected token of " + NAME + ": " + token);
+            }
+            if (name == null) {
+                throw JsonMappingException.from(jp, "Missing name of " + NAME);
+            }
+            return dictionary(ctxt).intern(name, uri);
+        }
+
+        private static HeaderItemDictionary dictionary(final DeserializationContext ctxt) {
+            HeaderItemDictionary dictionary = (HeaderItemDictionary) ctxt.getAttribute(HeaderItemDictionary.class);
+            if (dictionary == null) {
+                dictionary = new HeaderItemDictionary();
+                ctxt.setAttribute(HeaderItemDictionary.class, dictionary);
+            }
+            return dictionary;
+        }
+    }
 }
@@ -7,20 +7,14 @@ package com.gooddata.executeafm.result;
 
 import com.fasterxml.jackson.annotation.JsonValue;
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
 import com.fasterxml.jackson.databind.JsonMappingException;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
 import java.io.IOException;
-import java.io.UncheckedIOException;
 import java.util.List;
-import java.util.Spliterator;
-import java.util.stream.Collectors;
-
-import static java.util.Spliterators.spliteratorUnknownSize;
-import static java.util.stream.StreamSupport.stream;
 
 /**
  * Data of {@link ExecutionResult}, can be of three basic kinds - {@link #NULL}, list and simple value.
@@ -75,32 +69,39 @@ public interface Data {
         throw new UnsupportedOperationException("This is not a list");
     }
 
+    /**
+     * Deserializes the data directly from the parser tokens, without materializing the intermediate JSON tree.
+     */
     class DataDeserializer extends JsonDeserializer<Data> {
         @Override
         public Data deserialize(final JsonParser jp, final DeserializationContext ctxt) throws IOException {
-            final JsonNode root = jp.readValueAsTree();
-            if (root.isArray()) {
-                final List<Data> list = stream(spliteratorUnknownSize(root.elements(), Spliterator.ORDERED), false)
-                        .map(elem -> {
-                            try {
-                                return ctxt.readValue(elem.traverse(jp.getCodec()), Data.class);
-                            } catch (IOException e) {
-                                throw new UncheckedIOException(e);
-                            }
-                        }).collect(Collectors.toList());
-                return new DataList(list);
-            } else if (root.isTextual()) {
-                return new DataValue(root.textValue());
-            } else if (root.isNull()) {
-                return NULL;
-            } else {
-                throw JsonMappingException.from(jp, "Unknown value of type: " + root.getNodeType());
-            }
+            return readData(jp, jp.getCurrentToken());
         }
 
         @Override
         public Data getNullValue(final DeserializationContext ctxt) throws JsonMappingException {
             return NULL;
         }
+
+        private static Data readData(final JsonParser jp, final JsonToken token) throws IOException {
+            if (token == null) {
+                throw JsonMappingException.from(jp, "Unexpected end of input");
+            }
+            switch (token) {
+                case START_ARRAY:
+                    final DataList list = new DataList();
+                    JsonToken next;
+                    while ((next = jp.nextToken()) != JsonToken.END_ARRAY) {
+                        list.add(readData(jp, next));
+                    }
+                    return list;
+                case VALUE_STRING:
+                    return new DataValue(jp.getText());
+                case VALUE_NULL:
+                    return NULL;
+                default:
+                    throw JsonMappingException.from(jp, "Unknown value of type: " + token);
+            }
+        }
     }
 }
@@ -27,6 +27,12 @@ public class DataList extends ArrayList<Data> implements Data {
         super(notNull(values, "values"));
     }
 
+    /**
+     * Creates new empty instance, used when deserializing
+     */
+    DataList() {
+    }
+
     /**
      * Creates new instance by transforming the given array to list of simple or null values
      * @param array array of values
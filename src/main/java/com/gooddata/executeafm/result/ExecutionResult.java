@@ -53,6 +53,16 @@ public class ExecutionResult {
         this.paging = notNull(paging, "paging");
     }
 
+    /**
+     * Creates new result
+     * @param data result data
+     * @param paging result paging
+     */
+    public ExecutionResult(final DataList data, final Paging paging) {
+        this.data = notNull(data, "data");
+        this.paging = notNull(paging, "paging");
+    }
+
     /**
      * Creates new result
      * @param data result data
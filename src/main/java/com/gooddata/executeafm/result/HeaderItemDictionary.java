@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2007-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.executeafm.result;
+
+import com.gooddata.util.GoodDataToStringBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.gooddata.util.Validate.notNull;
+
+/**
+ * Dictionary of {@link AttributeHeaderItem}s, assigning each distinct name and uri pair an int reference and holding
+ * a single canonical instance of it.
+ * <p>
+ * Header items of single {@link ExecutionResult} are interned to a per-result dictionary during deserialization
+ * automatically. Use shared dictionary and {@link #intern(ExecutionResult)} when stitching multiple result pages
+ * of the same execution together, so equal items of all the pages are the same instance (and can be compared by
+ * reference) and each distinct item is kept in memory only once.
+ * <p>
+ * The dictionary is thread safe.
+ */
+public class HeaderItemDictionary {
+
+    /**
+     * Reference returned by {@link #encode(List)} for header items which are not {@link AttributeHeaderItem}s
+     */
+    public static final int NO_REFERENCE = -1;
+
+    private final Map<AttributeHeaderItem, Integer> references = new HashMap<>();
+    private final List<AttributeHeaderItem> items = new ArrayList<>();
+
+    /**
+     * Returns canonical instance of header item of given name and uri, adds it to the dictionary if not present yet.
+     * @param name name of item
+     * @param uri uri of item
+     * @return canonical header item
+     */
+    public AttributeHeaderItem intern(final String name, final String uri) {
+        return intern(new AttributeHeaderItem(name, uri));
+    }
+
+    /**
+     * Returns canonical instance of given header item, adds the item to the dictionary if not present yet.
+     * @param item header item
+     * @return canonical header item equal to given one
+     */
+    public synchronized AttributeHeaderItem intern(final AttributeHeaderItem item) {
+        return get(referenceOf(item));
+    }
+
+    /**
+     * Returns reference of given header item, adds the item to the dictionary if not present yet.
+     * @param item header item
+     * @return int reference of the item
+     */
+    public synchronized int referenceOf(final AttributeHeaderItem item) {
+        notNull(item, "item");
+        final Integer reference = references.get(item);
+        if (reference != null) {
+            return reference;
+        }
+        items.add(item);
+        references.put(item, items.size() - 1);
+        return items.size() - 1;
+    }
+
+    /**
+     * @param reference int reference of the item
+     * @return canonical header item of given reference
+     * @throws IndexOutOfBoundsException when the reference is not known to this dictionary
+     */
+    public synchronized AttributeHeaderItem get(final int reference) {
+        return items.get(reference);
+    }
+
+    /**
+     * @return number of distinct header items in the dictionary
+     */
+    public synchronized int size() {
+        return items.size();
+    }
+
+    /**
+     * Encodes the items of single header to int references, adding them to the dictionary when not present yet.
+     * @param headerItems items of single header
+     * @return references of the items, {@link #NO_REFERENCE} for items other than {@link AttributeHeaderItem}
+     */
+    public int[] encode(final List<ResultHeaderItem> headerItems) {
+        notNull(headerItems, "headerItems");
+        final int[] result = new int[headerItems.size()];
+        for (int i = 0; i < result.length; i++) {
+            final ResultHeaderItem item = headerItems.get(i);
+            result[i] = item instanceof AttributeHeaderItem ? referenceOf((AttributeHeaderItem) item) : NO_REFERENCE;
+        }
+        return result;
+    }
+
+    /**
+     * Replaces the attribute header items of given result by their canonical instances from this dictionary.
+     * @param result result to intern header items of
+     * @return given result
+     */
+    public ExecutionResult intern(final ExecutionResult result) {
+        notNull(result, "result");
+        final List<List<List<ResultHeaderItem>>> dimensions = result.getHeaderItems();
+        if (dimensions == null) {
+            return result;
+        }
+        final List<List<List<ResultHeaderItem>>> interned = new ArrayList<>(dimensions.size());
+        for (List<List<ResultHeaderItem>> headers : dimensions) {
+            final List<List<ResultHeaderItem>> internedHeaders = new ArrayList<>(headers.size());
+            for (List<ResultHeaderItem> header : headers) {
+                final List<ResultHeaderItem> internedHeader = new ArrayList<>(header.size());
+                for (ResultHeaderItem item : header) {
+                    internedHeader.add(item instanceof AttributeHeaderItem ? intern((AttributeHeaderItem) item) : item);
+                }
+                internedHeaders.add(internedHeader);
+            }
+            interned.add(internedHeaders);
+        }
+        result.setHeaderItems(interned);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return GoodDataToStringBuilder.defaultToString(this, "references", "items");
+    }
+}
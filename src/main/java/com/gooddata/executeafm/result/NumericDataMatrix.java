@@ -0,0 +1,344 @@
+/*
+ * Copyright (C) 2007-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.executeafm.result;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.gooddata.util.GoodDataToStringBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+import static com.gooddata.util.Validate.notNull;
+
+/**
+ * Numeric {@link Data} of {@link NumericExecutionResult} stored as dense primitive matrix.
+ * <p>
+ * Values are kept in a single {@code double[]} in row-major order accompanied by a bitmap of null values, so a result
+ * costs about 8 bytes per cell instead of a {@link DataValue} and its {@link String} per cell.
+ * Results of one dimension are represented as matrix of single column.
+ * <p>
+ * Text of the values is not kept, it's rendered lazily from the number when accessed using
+ * {@link #textValue(int, int)} or the {@link #asList()} view (i.e. {@code "1234.50"} is rendered as {@code "1234.5"}).
+ */
+@JsonDeserialize(using = NumericDataMatrix.NumericDataMatrixDeserializer.class)
+public class NumericDataMatrix implements Data {
+
+    private final double[] values;
+    private final BitSet nulls;
+    private final int rowCount;
+    private final int columnCount;
+    private final boolean oneDimensional;
+
+    /**
+     * Creates new two-dimensional matrix
+     * @param values values in row-major order, {@link Double#NaN} at the positions of null values
+     * @param nulls bitmap of null values in row-major order
+     * @param rowCount number of rows
+     * @param columnCount number of columns
+     */
+    public NumericDataMatrix(final double[] values, final BitSet nulls, final int rowCount, final int columnCount) {
+        this(values, nulls, rowCount, columnCount, false);
+    }
+
+    /**
+     * Creates new one-dimensional matrix
+     * @param values values, {@link Double#NaN} at the positions of null values
+     * @param nulls bitmap of null values
+     */
+    public NumericDataMatrix(final double[] values, final BitSet nulls) {
+        this(values, nulls, notNull(values, "values").length, 1, true);
+    }
+
+    private NumericDataMatrix(final double[] values, final BitSet nulls, final int rowCount, final int columnCount,
+                              final boolean oneDimensional) {
+        this.values = notNull(values, "values");
+        this.nulls = notNull(nulls, "nulls");
+        if (rowCount < 0 || columnCount < 0 || values.length != rowCount * columnCount) {
+            throw new IllegalArgumentException("values must have rowCount * columnCount elements");
+        }
+        this.rowCount = rowCount;
+        this.columnCount = columnCount;
+        this.oneDimensional = oneDimensional;
+    }
+
+    /**
+     * @return number of rows (number of items for one-dimensional data)
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return number of columns (1 for one-dimensional data)
+     */
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    /**
+     * @return true if this matrix represents one-dimensional data
+     */
+    public boolean isOneDimensional() {
+        return oneDimensional;
+    }
+
+    /**
+     * @param row row index
+     * @param column column index
+     * @return true if the value at given position is null
+     */
+    public boolean isNull(final int row, final int column) {
+        return nulls.get(index(row, column));
+    }
+
+    /**
+     * @param row row index
+     * @param column column index
+     * @return value at given position, {@link Double#NaN} for null value
+     */
+    public double getDouble(final int row, final int column) {
+        return values[index(row, column)];
+    }
+
+    /**
+     * @param row row index
+     * @param column column index
+     * @return text of the value at given position rendered from the number, null for null value
+     */
+    public String textValue(final int row, final int column) {
+        final int index = index(row, column);
+        return nulls.get(index) ? null : format(values[index]);
+    }
+
+    /**
+     * @param column column index
+     * @return copy of the column values, {@link Double#NaN} for null values
+     */
+    public double[] getColumn(final int column) {
+        final double[] result = new double[rowCount];
+        for (int row = 0; row < rowCount; row++) {
+            result[row] = values[index(row, column)];
+        }
+        return result;
+    }
+
+    /**
+     * @param row row index
+     * @return copy of the row values, {@link Double#NaN} for null values
+     */
+    public double[] getRow(final int row) {
+        final int from = index(row, 0);
+        return Arrays.copyOfRange(values, from, from + columnCount);
+    }
+
+    /**
+     * @param column column index
+     * @return sum of non-null values of the column
+     */
+    public double sumColumn(final int column) {
+        double sum = 0;
+        for (int row = 0; row < rowCount; row++) {
+            final int index = index(row, column);
+            if (!nulls.get(index)) {
+                sum += values[index];
+            }
+        }
+        return sum;
+    }
+
+    @Override
+    public boolean isList() {
+        return true;
+    }
+
+    @Override
+    public boolean isValue() {
+        return false;
+    }
+
+    @Override
+    public String textValue() {
+        throw new UnsupportedOperationException("NumericDataMatrix doesn't contain text value");
+    }
+
+    /**
+     * View of this matrix as list of {@link Data}, the {@link DataValue}s are created lazily on access.
+     * @return list of rows (lists of values), list of values for one-dimensional data
+     */
+    @Override
+    @JsonValue
+    public List<Data> asList() {
+        return oneDimensional ? new RowView(0, rowCount) : new AbstractList<Data>() {
+            @Override
+            public Data get(final int row) {
+                if (row < 0 || row >= rowCount) {
+                    throw new IndexOutOfBoundsException("Index: " + row + ", Size: " + rowCount);
+                }
+                return new RowView(row * columnCount, columnCount);
+            }
+
+            @Override
+            public int size() {
+                return rowCount;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return GoodDataToStringBuilder.defaultToString(this);
+    }
+
+    private int index(final int row, final int column) {
+        if (row < 0 || row >= rowCount || column < 0 || column >= columnCount) {
+            throw new IndexOutOfBoundsException("Position [" + row + "," + column + "] out of "
+                    + rowCount + "x" + columnCount + " matrix");
+        }
+        return row * columnCount + column;
+    }
+
+    private static String format(final double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return Double.toString(value);
+        }
+        return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+    }
+
+    /**
+     * Lazy list view of consecutive values stored in the matrix starting at given index
+     */
+    private class RowView extends AbstractList<Data> implements Data {
+        private final int from;
+        private final int size;
+
+        private RowView(final int from, final int size) {
+            this.from = from;
+            this.size = size;
+        }
+
+        @Override
+        public Data get(final int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            final int position = from + index;
+            return nulls.get(position) ? Data.NULL : new DataValue(format(values[position]));
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean isList() {
+            return true;
+        }
+
+        @Override
+        public boolean isValue() {
+            return false;
+        }
+
+        @Override
+        public String textValue() {
+            throw new UnsupportedOperationException("NumericDataMatrix row doesn't contain text value");
+        }
+
+        @Override
+        public List<Data> asList() {
+            return this;
+        }
+    }
+
+    /**
+     * Deserializes the data directly from the parser tokens, without creating any intermediate objects per value.
+     */
+    static class NumericDataMatrixDeserializer extends JsonDeserializer<NumericDataMatrix> {
+        @Override
+        public NumericDataMatrix deserialize(final JsonParser jp, final DeserializationContext ctxt) throws IOException {
+            if (jp.getCurrentToken() != JsonToken.START_ARRAY) {
+                throw JsonMappingException.from(jp, "Expected array of data, got " + jp.getCurrentToken());
+            }
+            final Builder builder = new Builder();
+            int rows = 0;
+            int columns = -1;
+            Boolean nested = null;
+            JsonToken token;
+            while ((token = jp.nextToken()) != JsonToken.END_ARRAY) {
+                if (nested == null) {
+                    nested = token == JsonToken.START_ARRAY;
+                }
+                if (nested) {
+                    if (token != JsonToken.START_ARRAY) {
+                        throw JsonMappingException.from(jp, "Expected array of data row, got " + token);
+                    }
+                    int rowColumns = 0;
+                    while ((token = jp.nextToken()) != JsonToken.END_ARRAY) {
+                        builder.add(jp, token);
+                        rowColumns++;
+                    }
+                    if (columns >= 0 && columns != rowColumns) {
+                        throw JsonMappingException.from(jp, "Data rows have different sizes: " + columns + " and " + rowColumns);
+                    }
+                    columns = rowColumns;
+                } else {
+                    builder.add(jp, token);
+                }
+                rows++;
+            }
+            return nested != null && nested
+                    ? new NumericDataMatrix(builder.values(), builder.nulls, rows, columns)
+                    : new NumericDataMatrix(builder.values(), builder.nulls);
+        }
+    }
+
+    private static class Builder {
+        private double[] values = new double[64];
+        private final BitSet nulls = new BitSet();
+        private int size;
+
+        private void add(final JsonParser jp, final JsonToken token) throws IOException {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            switch (token) {
+                case VALUE_NULL:
+                    nulls.set(size);
+                    values[size] = Double.NaN;
+                    break;
+                case VALUE_NUMBER_INT:
+                case VALUE_NUMBER_FLOAT:
+                    values[size] = jp.getDoubleValue();
+                    break;
+                case VALUE_STRING:
+                    try {
+                        values[size] = Double.parseDouble(jp.getText());
+                    } catch (NumberFormatException e) {
+                        throw JsonMappingException.from(jp, "Non-numeric data value: " + jp.getText(), e);
+                    }
+                    break;
+                default:
+                    throw JsonMappingException.from(jp, "Unexpected data value of type: " + token);
+            }
+            size++;
+        }
+
+        private double[] values() {
+            return size == values.length ? values : Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2007-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.executeafm.result;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import com.gooddata.util.GoodDataToStringBuilder;
+
+import java.util.List;
+
+/**
+ * Data result of the {@link com.gooddata.executeafm.Execution} with the data held in a primitive
+ * {@link NumericDataMatrix}. Alternative to {@link ExecutionResult} for numeric-heavy results, requested using
+ * {@link com.gooddata.executeafm.ExecuteAfmService#getNumericResult(com.gooddata.executeafm.response.ExecutionResponse)}.
+ */
+@JsonTypeInfo(include = JsonTypeInfo.As.WRAPPER_OBJECT, use = JsonTypeInfo.Id.NAME)
+@JsonTypeName("executionResult")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class NumericExecutionResult {
+
+    private final NumericDataMatrix data;
+    private final Paging paging;
+    private final List<List<List<ResultHeaderItem>>> headerItems;
+    private final List<List<List<String>>> totals;
+    private final List<List<List<String>>> totalTotals;
+    private final List<Warning> warnings;
+
+    @JsonCreator
+    NumericExecutionResult(@JsonProperty("data") final NumericDataMatrix data,
+                           @JsonProperty("paging") final Paging paging,
+                           @JsonProperty("headerItems") final List<List<List<ResultHeaderItem>>> headerItems,
+                           @JsonProperty("totals") final List<List<List<String>>> totals,
+                           @JsonProperty("totalTotals") final List<List<List<String>>> totalTotals,
+                           @JsonProperty("warnings") final List<Warning> warnings) {
+        this.data = data;
+        this.paging = paging;
+        this.headerItems = headerItems;
+        this.totals = totals;
+        this.totalTotals = totalTotals;
+        this.warnings = warnings;
+    }
+
+    /**
+     * @return result data
+     */
+    public NumericDataMatrix getData() {
+        return data;
+    }
+
+    /**
+     * @return result paging
+     */
+    public Paging getPaging() {
+        return paging;
+    }
+
+    /**
+     * @return header items, for each header in each dimension, there is a list of header items
+     */
+    public List<List<List<ResultHeaderItem>>> getHeaderItems() {
+        return headerItems;
+    }
+
+    /**
+     * @return data of totals, for each total in each dimension, there is a list of total's values
+     */
+    public List<List<List<String>>> getTotals() {
+        return totals;
+    }
+
+    /**
+     * @return 3-dimensional matrix of totals of totals data
+     */
+    public List<List<List<String>>> getTotalTotals() {
+        return totalTotals;
+    }
+
+    /**
+     * @return result's warnings
+     */
+    public List<Warning> getWarnings() {
+        return warnings;
+    }
+
+    @Override
+    public String toString() {
+        return GoodDataToStringBuilder.defaultToString(this);
+    }
+}
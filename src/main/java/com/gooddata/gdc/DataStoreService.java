@@ -47,6 +47,11 @@ import static com.gooddata.util.Validate.notNull;
  */
 public class DataStoreService {
 
+    /**
+     * Suffix of the files uploaded by {@link #uploadCompressed(String, InputStream)}
+     */
+    public static final String GZIP_SUFFIX = ".gz";
+
     private final Sardine sardine;
     private final GdcService gdcService;
     private final URI gdcUri;
@@ -100,6 +105,19 @@ public class DataStoreService {
         upload(getUri(path), stream);
     }
 
+    /**
+     * Uploads given stream compressed by gzip to given datastore path. The stream is compressed on the fly
+     * while uploading, no temporary file is used.
+     * @param path path where to upload to, should end with {@link #GZIP_SUFFIX}
+     * @param stream stream to compress and upload
+     * @throws com.gooddata.gdc.DataStoreException in case upload failed
+     */
+    public void uploadCompressed(String path, InputStream stream) {
+        notEmpty(path, "path");
+        notNull(stream, "stream");
+        upload(getUri(path), new GzipCompressingInputStream(stream));
+    }
+
     private void upload(URI url, InputStream stream) {
         try {
             sardine.put(url.toString(), stream);
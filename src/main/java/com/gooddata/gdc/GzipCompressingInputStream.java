@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2004-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.gdc;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import static com.gooddata.util.Validate.notNull;
+
+/**
+ * Reads the source stream compressed to gzip format on the fly, so the compressed data can be streamed
+ * (i.e. uploaded) without buffering them in memory or in temporary file.
+ */
+class GzipCompressingInputStream extends InputStream {
+
+    private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    private static final int BUFFER_SIZE = 8192;
+
+    private final InputStream source;
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    private final CRC32 crc = new CRC32();
+    private final byte[] input = new byte[BUFFER_SIZE];
+    private final byte[] deflated = new byte[BUFFER_SIZE];
+    private final byte[] single = new byte[1];
+
+    private byte[] buffer = HEADER;
+    private int position;
+    private int limit = HEADER.length;
+    private boolean sourceFinished;
+    private boolean trailerWritten;
+
+    GzipCompressingInputStream(final InputStream source) {
+        this.source = notNull(source, "source");
+    }
+
+    @Override
+    public int read() throws IOException {
+        final int read = read(single, 0, 1);
+        return read < 0 ? -1 : single[0] & 0xff;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        while (position == limit) {
+            if (!fill()) {
+                return -1;
+            }
+        }
+        final int read = Math.min(len, limit - position);
+        System.arraycopy(buffer, position, b, off, read);
+        position += read;
+        return read;
+    }
+
+    private boolean fill() throws IOException {
+        if (deflater.finished()) {
+            if (trailerWritten) {
+                return false;
+            }
+            trailerWritten = true;
+            buffer = trailer();
+        } else {
+            if (deflater.needsInput() && !sourceFinished) {
+                final int read = source.read(input);
+                if (read < 0) {
+                    sourceFinished = true;
+                    deflater.finish();
+                } else if (read > 0) {
+                    crc.update(input, 0, read);
+                    deflater.setInput(input, 0, read);
+                }
+            }
+            buffer = deflated;
+        }
+        position = 0;
+        limit = buffer == deflated ? deflater.deflate(deflated, 0, deflated.length) : buffer.length;
+        return true;
+    }
+
+    private byte[] trailer() {
+        final byte[] trailer = new byte[8];
+        writeInt(trailer, 0, crc.getValue());
+        writeInt(trailer, 4, deflater.getBytesRead());
+        return trailer;
+    }
+
+    private static void writeInt(final byte[] bytes, final int offset, final long value) {
+        for (int i = 0; i < 4; i++) {
+            bytes[offset + i] = (byte) (value >>> (i * 8));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        deflater.end();
+        source.close();
+    }
+}
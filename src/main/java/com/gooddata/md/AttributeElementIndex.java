@@ -0,0 +1,253 @@
+/*
+ * Copyright (C) 2004-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.md;
+
+import com.gooddata.util.GoodDataToStringBuilder;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.gooddata.util.Validate.noNullElements;
+import static com.gooddata.util.Validate.notNull;
+
+/**
+ * Index of the elements of single display form, mapping the element titles to the element URIs, i.e. to build
+ * {@link com.gooddata.executeafm.afm.PositiveAttributeFilter} or
+ * {@link com.gooddata.executeafm.afm.NegativeAttributeFilter} from the values entered by user.
+ * <p>
+ * The index is held in compact form - the titles are stored in single character array, the URIs sharing
+ * the common <code>{ELEMENTS_URI}?id={ID}</code> form are stored as the numeric ids only and the titles are
+ * looked up by an open addressing hash table. When more elements have the same title, the first one is indexed.
+ * <p>
+ * Use {@link MetadataService#getAttributeElementIndex(DisplayForm)} to obtain an instance.
+ */
+public final class AttributeElementIndex {
+
+    private static final String ID_PARAM = "?id=";
+    private static final int EMPTY = -1;
+
+    private final String uriPrefix;
+    private final char[] titles;
+    private final int[] titleOffsets;
+    private final long[] ids;
+    private final Map<Integer, String> irregularUris;
+    private final int[] slots;
+    private final int size;
+
+    private AttributeElementIndex(final String uriPrefix, final char[] titles, final int[] titleOffsets,
+                                  final long[] ids, final Map<Integer, String> irregularUris, final int size) {
+        this.uriPrefix = uriPrefix;
+        this.titles = titles;
+        this.titleOffsets = titleOffsets;
+        this.ids = ids;
+        this.irregularUris = irregularUris;
+        this.size = size;
+        this.slots = new int[tableSize(size)];
+        Arrays.fill(slots, EMPTY);
+        for (int element = 0; element < size; element++) {
+            insert(element);
+        }
+    }
+
+    /**
+     * @return number of the indexed elements
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param title title of the element
+     * @return URI of the element of given title, null if there is no such element
+     */
+    public String getUri(final String title) {
+        notNull(title, "title");
+        final int element = lookup(title);
+        return element == EMPTY ? null : uriOf(element);
+    }
+
+    /**
+     * Looks up the URIs of the elements of given titles.
+     * @param titles titles of the elements
+     * @return URIs of the found elements by their titles, in order of the given titles, the titles not found
+     *         are not included
+     */
+    public Map<String, String> getUris(final Collection<String> titles) {
+        noNullElements(titles, "titles");
+        final Map<String, String> result = new LinkedHashMap<>(titles.size() * 4 / 3 + 1);
+        for (String title : titles) {
+            final int element = lookup(title);
+            if (element != EMPTY) {
+                result.put(title, uriOf(element));
+            }
+        }
+        return result;
+    }
+
+    private int lookup(final String title) {
+        final int mask = slots.length - 1;
+        for (int slot = hash(title) & mask; ; slot = (slot + 1) & mask) {
+            final int element = slots[slot];
+            if (element == EMPTY || titleEquals(element, title)) {
+                return element;
+            }
+        }
+    }
+
+    private void insert(final int element) {
+        final int mask = slots.length - 1;
+        final int from = titleOffsets[element];
+        final int to = titleOffsets[element + 1];
+        for (int slot = hash(titles, from, to) & mask; ; slot = (slot + 1) & mask) {
+            final int existing = slots[slot];
+            if (existing == EMPTY) {
+                slots[slot] = element;
+                return;
+            }
+            if (titleEquals(existing, from, to)) {
+                // keep the first element of the duplicate title
+                return;
+            }
+        }
+    }
+
+    private boolean titleEquals(final int element, final String title) {
+        final int from = titleOffsets[element];
+        if (titleOffsets[element + 1] - from != title.length()) {
+            return false;
+        }
+        for (int i = 0; i < title.length(); i++) {
+            if (titles[from + i] != title.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean titleEquals(final int element, final int from, final int to) {
+        final int start = titleOffsets[element];
+        if (titleOffsets[element + 1] - start != to - from) {
+            return false;
+        }
+        for (int i = 0; i < to - from; i++) {
+            if (titles[start + i] != titles[from + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String uriOf(final int element) {
+        final String uri = irregularUris.get(element);
+        return uri != null ? uri : uriPrefix + ids[element];
+    }
+
+    /**
+     * Same as {@link String#hashCode()}, spread to the lower bits
+     */
+    private static int hash(final String title) {
+        return spread(title.hashCode());
+    }
+
+    private static int hash(final char[] chars, final int from, final int to) {
+        int hash = 0;
+        for (int i = from; i < to; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        return spread(hash);
+    }
+
+    private static int spread(final int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * @return power of two at least twice as big as the number of elements, to keep the load factor under 0.5
+     */
+    private static int tableSize(final int size) {
+        int tableSize = 2;
+        while (tableSize < size * 2) {
+            tableSize <<= 1;
+        }
+        return tableSize;
+    }
+
+    @Override
+    public String toString() {
+        return GoodDataToStringBuilder.defaultToString(this, "titles", "titleOffsets", "ids", "irregularUris", "slots");
+    }
+
+    /**
+     * Builds the index from the given elements
+     * @param elements elements to index
+     * @return index of the elements
+     */
+    static AttributeElementIndex of(final Iterator<AttributeElement> elements) {
+        notNull(elements, "elements");
+
+        String uriPrefix = null;
+        char[] titles = new char[1024];
+        int[] titleOffsets = new int[65];
+        long[] ids = new long[64];
+        final Map<Integer, String> irregularUris = new HashMap<>();
+        int size = 0;
+        int length = 0;
+
+        while (elements.hasNext()) {
+            final AttributeElement element = elements.next();
+            final String title = element.getTitle() != null ? element.getTitle() : "";
+            final String uri = element.getUri();
+
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                titleOffsets = Arrays.copyOf(titleOffsets, size * 2 + 1);
+            }
+            if (length + title.length() > titles.length) {
+                titles = Arrays.copyOf(titles, Math.max(titles.length * 2, length + title.length()));
+            }
+            title.getChars(0, title.length(), titles, length);
+            length += title.length();
+            titleOffsets[size + 1] = length;
+
+            final int idStart = uri != null ? uri.lastIndexOf(ID_PARAM) + ID_PARAM.length() : -1;
+            if (uriPrefix == null && idStart >= ID_PARAM.length()) {
+                uriPrefix = uri.substring(0, idStart);
+            }
+            final long id = uriPrefix != null && idStart == uriPrefix.length() && uri.startsWith(uriPrefix)
+                    ? parseId(uri, idStart) : -1;
+            if (id >= 0) {
+                ids[size] = id;
+            } else {
+                irregularUris.put(size, uri);
+            }
+            size++;
+        }
+        return new AttributeElementIndex(uriPrefix, Arrays.copyOf(titles, length), Arrays.copyOf(titleOffsets, size + 1),
+                Arrays.copyOf(ids, size), irregularUris, size);
+    }
+
+    /**
+     * @return the numeric id of the element URI, or -1 when the id is not a plain number
+     */
+    private static long parseId(final String uri, final int from) {
+        if (from >= uri.length() || uri.length() - from > 18 || (uri.charAt(from) == '0' && uri.length() - from > 1)) {
+            return -1;
+        }
+        long id = 0;
+        for (int i = from; i < uri.length(); i++) {
+            final char c = uri.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            id = id * 10 + (c - '0');
+        }
+        return id;
+    }
+}
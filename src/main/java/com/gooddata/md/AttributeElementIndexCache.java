@@ -0,0 +1,147 @@
+/*
+ * Copyright (C) 2004-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.md;
+
+import com.gooddata.BoundedExecutor;
+import com.gooddata.util.GoodDataToStringBuilder;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static com.gooddata.util.Validate.notNull;
+
+/**
+ * Opt-in cache of the indexes built by {@link MetadataService#getAttributeElementIndex(DisplayForm)}, see
+ * {@link MetadataService#setAttributeElementIndexCache(AttributeElementIndexCache)}.
+ * <p>
+ * The cache holds the indexes of at most given number of display forms, evicting the least recently used ones,
+ * and each index expires after given time. Concurrent calls for the same display form wait for the single index
+ * being built. When the attribute elements change (i.e. after data load), invalidate the index using
+ * {@link #invalidate(DisplayForm)}.
+ */
+public class AttributeElementIndexCache {
+
+    private final int maxSize;
+    private final long ttl;
+    private final Map<String, Entry> entries;
+
+    /**
+     * Creates new cache
+     * @param maxSize maximum number of cached indexes
+     * @param ttl time to live of each index
+     * @param unit time to live unit
+     */
+    public AttributeElementIndexCache(final int maxSize, final long ttl, final TimeUnit unit) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be greater than zero");
+        }
+        if (ttl < 1) {
+            throw new IllegalArgumentException("ttl must be greater than zero");
+        }
+        this.maxSize = maxSize;
+        this.ttl = notNull(unit, "unit").toMillis(ttl);
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+                return size() > AttributeElementIndexCache.this.maxSize;
+            }
+        };
+    }
+
+    /**
+     * Removes the index of given display form
+     * @param displayForm display form
+     */
+    public void invalidate(final DisplayForm displayForm) {
+        invalidate(notNull(notNull(displayForm, "displayForm").getUri(), "displayForm.uri"));
+    }
+
+    /**
+     * Removes the index of given display form
+     * @param displayFormUri display form URI
+     */
+    public synchronized void invalidate(final String displayFormUri) {
+        entries.remove(notNull(displayFormUri, "displayFormUri"));
+    }
+
+    /**
+     * Removes all the indexes
+     */
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * @return number of cached indexes (including the expired ones not evicted yet)
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the cached index of given display form, or builds and caches it when there is none.
+     * @param displayFormUri display form URI
+     * @param builder builder of the index, invoked by the first caller only
+     * @return index of the display form elements
+     */
+    AttributeElementIndex get(final String displayFormUri, final Supplier<AttributeElementIndex> builder) {
+        notNull(displayFormUri, "displayFormUri");
+        notNull(builder, "builder");
+
+        final Entry entry;
+        final boolean build;
+        synchronized (this) {
+            final Entry existing = entries.get(displayFormUri);
+            build = existing == null || existing.expiresAt < System.currentTimeMillis();
+            if (build) {
+                evictExpired();
+                entry = new Entry(System.currentTimeMillis() + ttl);
+                entries.put(displayFormUri, entry);
+            } else {
+                entry = existing;
+            }
+        }
+        if (build) {
+            try {
+                entry.index.complete(builder.get());
+            } catch (RuntimeException | Error e) {
+                synchronized (this) {
+                    entries.remove(displayFormUri, entry);
+                }
+                entry.index.completeExceptionally(e);
+            }
+        }
+        return BoundedExecutor.join(entry.index, "Unable to build attribute element index");
+    }
+
+    private void evictExpired() {
+        final long now = System.currentTimeMillis();
+        final Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().expiresAt < now) {
+                iterator.remove();
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return GoodDataToStringBuilder.defaultToString(this, "entries");
+    }
+
+    private static class Entry {
+        private final CompletableFuture<AttributeElementIndex> index = new CompletableFuture<>();
+        private final long expiresAt;
+
+        private Entry(final long expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2004-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.md;
+
+import com.gooddata.BoundedExecutor;
+import com.gooddata.util.GoodDataToStringBuilder;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+
+import static com.gooddata.util.Validate.notNull;
+
+/**
+ * Iterates over the elements of a display form, fetching them page by page. While the current page is consumed,
+ * the next one is fetched in the background, so at most two pages are held in memory at once.
+ * <p>
+ * Use {@link MetadataService#iterateAttributeElements(DisplayForm, String, int)} to obtain an instance.
+ * Closing the iterator cancels the pending page fetch.
+ */
+public class AttributeElementIterator implements Iterator<AttributeElement>, AutoCloseable {
+
+    private final BiFunction<Integer, Integer, AttributeElements> pageLoader;
+    private final int pageSize;
+    private final BoundedExecutor executor = new BoundedExecutor(1);
+
+    private int nextOffset;
+    private boolean lastPage;
+    private CompletableFuture<AttributeElements> nextPage;
+    private Iterator<AttributeElement> elements = Collections.emptyIterator();
+
+    /**
+     * @param pageLoader loads the page of elements of given offset and limit, the page may hold fewer elements
+     *                   than the limit
+     * @param offset     offset of the first element
+     * @param pageSize   number of elements fetched by single request
+     */
+    AttributeElementIterator(final BiFunction<Integer, Integer, AttributeElements> pageLoader,
+                             final int offset, final int pageSize) {
+        this.pageLoader = notNull(pageLoader, "pageLoader");
+        if (offset < 0) {
+            throw new IllegalArgumentException("offset must not be negative");
+        }
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("pageSize must be greater than zero");
+        }
+        this.pageSize = pageSize;
+        this.nextOffset = offset;
+        prefetch();
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!elements.hasNext()) {
+            if (nextPage == null) {
+                return false;
+            }
+            final AttributeElements page = BoundedExecutor.join(nextPage, "Unable to fetch attribute elements");
+            nextPage = null;
+            final List<AttributeElement> pageElements = page.getElements();
+            nextOffset += pageElements.size();
+            // the server may return fewer elements than requested, so the page is the last one when the total
+            // is reached or when it's empty
+            final AttributeElements.Paging paging = page.getPaging();
+            lastPage = pageElements.isEmpty()
+                    || paging != null && paging.getTotal() != null && nextOffset >= paging.getTotal();
+            elements = pageElements.iterator();
+            prefetch();
+        }
+        return true;
+    }
+
+    @Override
+    public AttributeElement next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return elements.next();
+    }
+
+    /**
+     * Cancels fetching of the prefetched page.
+     */
+    @Override
+    public void close() {
+        if (nextPage != null) {
+            nextPage.cancel(true);
+            nextPage = null;
+        }
+        lastPage = true;
+        elements = Collections.emptyIterator();
+    }
+
+    private void prefetch() {
+        if (lastPage) {
+            return;
+        }
+        final int offset = nextOffset;
+        nextPage = CompletableFuture.supplyAsync(() -> pageLoader.apply(offset, pageSize), executor);
+    }
+
+    @Override
+    public String toString() {
+        return GoodDataToStringBuilder.defaultToString(this, "pageLoader", "executor", "nextPage", "elements");
+    }
+}
@@ -31,17 +31,32 @@ class AttributeElements {
     static final UriTemplate TEMPLATE = new UriTemplate(URI);
 
     private final List<AttributeElement> elements;
+    private final Paging paging;
+
+    AttributeElements(List<AttributeElement> elements) {
+        this(elements, null);
+    }
 
     @JsonCreator
-    AttributeElements(@JsonProperty("elements") List<AttributeElement> elements) {
+    AttributeElements(@JsonProperty("elements") List<AttributeElement> elements,
+                      @JsonProperty("elementsMeta") Paging paging) {
         notNull(elements, "elements");
         this.elements = elements;
+        this.paging = paging;
     }
 
     public List<AttributeElement> getElements() {
         return elements;
     }
 
+    /**
+     * @return paging of the elements or null if the response doesn't contain it
+     */
+    @JsonProperty("elementsMeta")
+    Paging getPaging() {
+        return paging;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o)
@@ -51,17 +66,91 @@ class AttributeElements {
 
         AttributeElements that = (AttributeElements) o;
 
-        return !(elements != null ? !elements.equals(that.elements) : that.elements != null);
-
+        if (elements != null ? !elements.equals(that.elements) : that.elements != null)
+            return false;
+        return paging != null ? paging.equals(that.paging) : that.paging == null;
     }
 
     @Override
     public int hashCode() {
-        return elements != null ? elements.hashCode() : 0;
+        int result = elements != null ? elements.hashCode() : 0;
+        result = 31 * result + (paging != null ? paging.hashCode() : 0);
+        return result;
     }
 
     @Override
     public String toString() {
         return GoodDataToStringBuilder.defaultToString(this);
     }
+
+    /**
+     * Paging of the elements, mapped from the meta section of the elements response.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    static class Paging {
+
+        private final Integer offset;
+        private final Integer count;
+        private final Integer total;
+
+        @JsonCreator
+        Paging(@JsonProperty("offset") Integer offset, @JsonProperty("count") Integer count,
+               @JsonProperty("records") Integer total) {
+            this.offset = offset;
+            this.count = count;
+            this.total = total;
+        }
+
+        /**
+         * @return offset of the first element of the page
+         */
+        Integer getOffset() {
+            return offset;
+        }
+
+        /**
+         * @return number of the elements of the page
+         */
+        Integer getCount() {
+            return count;
+        }
+
+        /**
+         * @return total number of the elements or null if unknown
+         */
+        @JsonProperty("records")
+        Integer getTotal() {
+            return total;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (o == null || getClass() != o.getClass())
+                return false;
+
+            Paging that = (Paging) o;
+
+            if (offset != null ? !offset.equals(that.offset) : that.offset != null)
+                return false;
+            if (count != null ? !count.equals(that.count) : that.count != null)
+                return false;
+            return total != null ? total.equals(that.total) : that.total == null;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = offset != null ? offset.hashCode() : 0;
+            result = 31 * result + (count != null ? count.hashCode() : 0);
+            result = 31 * result + (total != null ? total.hashCode() : 0);
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return GoodDataToStringBuilder.defaultToString(this);
+        }
+    }
 }
@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2004-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.md;
+
+import com.gooddata.GoodDataException;
+import com.gooddata.util.GoodDataToStringBuilder;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Report of bulk operation on metadata objects, i.e. {@link MetadataService#createObjs(com.gooddata.project.Project,
+ * java.util.Collection, int)}. Holds the outcome of the operation of every given object in order of the given
+ * objects, either the result or the failure, the bulk operation doesn't stop at the first failure.
+ * @param <T> type of the processed objects
+ */
+public class BulkObjResult<T> {
+
+    private final List<Outcome<T>> outcomes;
+
+    BulkObjResult(final List<Outcome<T>> outcomes) {
+        this.outcomes = Collections.unmodifiableList(outcomes);
+    }
+
+    /**
+     * @return true if all the operations succeeded
+     */
+    public boolean isSuccess() {
+        return outcomes.stream().allMatch(Outcome::isSuccess);
+    }
+
+    /**
+     * @return outcomes of the operations, one per given object in order of the given objects
+     */
+    public List<Outcome<T>> getOutcomes() {
+        return outcomes;
+    }
+
+    /**
+     * @return results of the succeeded operations in order of the given objects
+     */
+    public List<T> getResults() {
+        return outcomes.stream().filter(Outcome::isSuccess).map(Outcome::getResult).collect(Collectors.toList());
+    }
+
+    /**
+     * @return outcomes of the failed operations in order of the given objects
+     */
+    public List<Outcome<T>> getFailures() {
+        return outcomes.stream().filter(outcome -> !outcome.isSuccess()).collect(Collectors.toList());
+    }
+
+    @Override
+    public String toString() {
+        return GoodDataToStringBuilder.defaultToString(this);
+    }
+
+    /**
+     * Outcome of the operation of single given object, either the result or the failure of the operation.
+     * @param <T> type of the processed objects
+     */
+    public static class Outcome<T> {
+
+        private final int index;
+        private final T obj;
+        private final T result;
+        private final GoodDataException exception;
+
+        Outcome(final int index, final T obj, final T result, final GoodDataException exception) {
+            this.index = index;
+            this.obj = obj;
+            this.result = result;
+            this.exception = exception;
+        }
+
+        /**
+         * @return index of the object in the given objects
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * @return the given object
+         */
+        public T getObj() {
+            return obj;
+        }
+
+        /**
+         * @return true if the operation succeeded
+         */
+        public boolean isSuccess() {
+            return exception == null;
+        }
+
+        /**
+         * @return result of the operation
+         * @throws GoodDataException the failure of the operation when it didn't succeed
+         */
+        public T getResult() {
+            if (exception != null) {
+                throw exception;
+            }
+            return result;
+        }
+
+        /**
+         * @return failure of the operation, null if the operation succeeded
+         */
+        public GoodDataException getException() {
+            return exception;
+        }
+
+        @Override
+        public String toString() {
+            return GoodDataToStringBuilder.defaultToString(this);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2004-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.md;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gooddata.GoodDataException;
+import com.gooddata.util.GoodDataToStringBuilder;
+
+import java.io.IOException;
+
+import static com.gooddata.util.Validate.notNull;
+
+/**
+ * Metadata object held by {@link ObjCache} together with the validators needed for its conditional revalidation.
+ * The object is held serialized, every {@link #getObj(Class)} call returns new instance, so the callers modifying
+ * the returned object don't affect the cache nor each other.
+ */
+public final class CachedObj {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private final String uri;
+    private final Class<? extends Obj> type;
+    private final byte[] body;
+    private final String eTag;
+    private final long lastModified;
+    private final long validatedAt;
+
+    /**
+     * Creates new cached object
+     * @param uri URI of the object
+     * @param obj metadata object
+     * @param eTag value of the {@code ETag} header of the response, null if not present
+     * @param lastModified value of the {@code Last-Modified} header of the response in millis, -1 if not present
+     * @param validatedAt time in millis the object was fetched or revalidated last time
+     */
+    public CachedObj(final String uri, final Obj obj, final String eTag, final long lastModified,
+                     final long validatedAt) {
+        this(uri, notNull(obj, "obj").getClass(), serialize(uri, obj), eTag, lastModified, validatedAt);
+    }
+
+    /**
+     * Creates new cached object of already serialized metadata object
+     * @param uri URI of the object
+     * @param type type of the object
+     * @param body serialized metadata object, must not be modified afterwards
+     * @param eTag value of the {@code ETag} header of the response, null if not present
+     * @param lastModified value of the {@code Last-Modified} header of the response in millis, -1 if not present
+     * @param validatedAt time in millis the object was fetched or revalidated last time
+     */
+    public CachedObj(final String uri, final Class<? extends Obj> type, final byte[] body, final String eTag,
+                     final long lastModified, final long validatedAt) {
+        this.uri = notNull(uri, "uri");
+        this.type = notNull(type, "type");
+        this.body = notNull(body, "body");
+        this.eTag = eTag;
+        this.lastModified = lastModified;
+        this.validatedAt = validatedAt;
+    }
+
+    public String getUri() {
+        return uri;
+    }
+
+    /**
+     * @return type of the cached object
+     */
+    public Class<? extends Obj> getType() {
+        return type;
+    }
+
+    /**
+     * @param cls expected class of the object
+     * @return true if the cached object is of given class
+     */
+    public boolean isInstanceOf(final Class<? extends Obj> cls) {
+        return notNull(cls, "cls").isAssignableFrom(type);
+    }
+
+    /**
+     * @param cls class of the resulting object
+     * @param <T> type of the object to be returned
+     * @return new instance of the cached object
+     * @throws GoodDataException when the object can't be deserialized or isn't of given class
+     */
+    public <T extends Obj> T getObj(final Class<T> cls) {
+        if (!isInstanceOf(cls)) {
+            throw new GoodDataException("Cached object " + uri + " is " + type.getSimpleName()
+                    + ", not " + cls.getSimpleName());
+        }
+        try {
+            return cls.cast(MAPPER.readValue(body, type));
+        } catch (IOException e) {
+            throw new GoodDataException("Unable to deserialize cached object " + uri, e);
+        }
+    }
+
+    /**
+     * @return value of the {@code ETag} header of the response, null if not present
+     */
+    public String getETag() {
+        return eTag;
+    }
+
+    /**
+     * @return value of the {@code Last-Modified} header of the response in millis, -1 if not present
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * @return time in millis the object was fetched or revalidated last time
+     */
+    public long getValidatedAt() {
+        return validatedAt;
+    }
+
+    /**
+     * @return true if the object can be revalidated by conditional request
+     */
+    public boolean hasValidators() {
+        return eTag != null || lastModified >= 0;
+    }
+
+    /**
+     * @param validatedAt time in millis of the revalidation
+     * @return copy of this object revalidated at given time
+     */
+    public CachedObj revalidated(final long validatedAt) {
+        return new CachedObj(uri, type, body, eTag, lastModified, validatedAt);
+    }
+
+    private static byte[] serialize(final String uri, final Obj obj) {
+        try {
+            return MAPPER.writeValueAsBytes(obj);
+        } catch (IOException e) {
+            throw new GoodDataException("Unable to serialize object " + uri + " to cache", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return GoodDataToStringBuilder.defaultToString(this, "body");
+    }
+}
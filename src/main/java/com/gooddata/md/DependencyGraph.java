@@ -0,0 +1,244 @@
+/*
+ * Copyright (C) 2004-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.md;
+
+import com.gooddata.project.Project;
+import com.gooddata.util.GoodDataToStringBuilder;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.gooddata.util.Validate.notNull;
+
+/**
+ * Graph of dependencies between metadata objects of a project (which objects use which ones), see
+ * {@link MetadataService#buildDependencyGraph(Project, Collection, int, int)}.
+ * <p>
+ * The graph is stored in compact form of two adjacency arrays (compressed sparse rows) - one for each direction,
+ * so the transitive queries are answered in memory without any request. The graph is {@link Serializable},
+ * so it can be stored to disk and reused.
+ */
+public final class DependencyGraph implements Serializable {
+
+    private static final long serialVersionUID = -1519435616925512334L;
+
+    private final String[] uris;
+    private final int[] usedByOffsets;
+    private final int[] usedByTargets;
+    private final int[] usingOffsets;
+    private final int[] usingTargets;
+
+    private transient Map<String, Integer> index;
+
+    private DependencyGraph(final String[] uris, final int[] usedByOffsets, final int[] usedByTargets,
+                            final int[] usingOffsets, final int[] usingTargets) {
+        this.uris = uris;
+        this.usedByOffsets = usedByOffsets;
+        this.usedByTargets = usedByTargets;
+        this.usingOffsets = usingOffsets;
+        this.usingTargets = usingTargets;
+        this.index = createIndex(uris);
+    }
+
+    /**
+     * @return number of objects in the graph
+     */
+    public int size() {
+        return uris.length;
+    }
+
+    /**
+     * @return number of dependencies in the graph
+     */
+    public int getDependencyCount() {
+        return usedByTargets.length;
+    }
+
+    /**
+     * @param uri URI of the object
+     * @return true if the graph contains object of given URI
+     */
+    public boolean contains(final String uri) {
+        return index.containsKey(notNull(uri, "uri"));
+    }
+
+    /**
+     * @param uri URI of the object
+     * @return URIs of the objects directly using the object of given URI
+     */
+    public Collection<String> getUsedBy(final String uri) {
+        return neighbours(uri, usedByOffsets, usedByTargets);
+    }
+
+    /**
+     * @param uri URI of the object
+     * @return URIs of the objects directly used by the object of given URI
+     */
+    public Collection<String> getUsing(final String uri) {
+        return neighbours(uri, usingOffsets, usingTargets);
+    }
+
+    /**
+     * Impact analysis - finds all the objects which would be affected by the change of given object.
+     * @param uri URI of the object
+     * @return URIs of the objects using the object of given URI directly or transitively
+     */
+    public Collection<String> getTransitiveUsedBy(final String uri) {
+        return reachable(uri, usedByOffsets, usedByTargets);
+    }
+
+    /**
+     * @param uri URI of the object
+     * @return URIs of the objects used by the object of given URI directly or transitively
+     */
+    public Collection<String> getTransitiveUsing(final String uri) {
+        return reachable(uri, usingOffsets, usingTargets);
+    }
+
+    /**
+     * @return URIs of the objects not used by any other object
+     */
+    public Collection<String> getOrphans() {
+        final List<String> result = new ArrayList<>();
+        for (int node = 0; node < uris.length; node++) {
+            if (usedByOffsets[node] == usedByOffsets[node + 1]) {
+                result.add(uris[node]);
+            }
+        }
+        return result;
+    }
+
+    private Collection<String> neighbours(final String uri, final int[] offsets, final int[] targets) {
+        final int node = nodeOf(uri);
+        final List<String> result = new ArrayList<>(offsets[node + 1] - offsets[node]);
+        for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+            result.add(uris[targets[i]]);
+        }
+        return result;
+    }
+
+    private Collection<String> reachable(final String uri, final int[] offsets, final int[] targets) {
+        final int start = nodeOf(uri);
+        final BitSet visited = new BitSet(uris.length);
+        final int[] queue = new int[uris.length];
+        int head = 0;
+        int tail = 0;
+        visited.set(start);
+        queue[tail++] = start;
+        final List<String> result = new ArrayList<>();
+        while (head < tail) {
+            final int node = queue[head++];
+            for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+                final int target = targets[i];
+                if (!visited.get(target)) {
+                    visited.set(target);
+                    queue[tail++] = target;
+                    result.add(uris[target]);
+                }
+            }
+        }
+        return result;
+    }
+
+    private int nodeOf(final String uri) {
+        final Integer node = index.get(notNull(uri, "uri"));
+        if (node == null) {
+            throw new IllegalArgumentException("Object " + uri + " is not part of the graph");
+        }
+        return node;
+    }
+
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        index = createIndex(uris);
+    }
+
+    private static Map<String, Integer> createIndex(final String[] uris) {
+        final Map<String, Integer> index = new HashMap<>(uris.length * 4 / 3 + 1);
+        for (int i = 0; i < uris.length; i++) {
+            index.put(uris[i], i);
+        }
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return GoodDataToStringBuilder.defaultToString(this, "uris", "usedByOffsets", "usedByTargets",
+                "usingOffsets", "usingTargets", "index");
+    }
+
+    /**
+     * Collects the objects and dependencies and builds the compact graph.
+     */
+    static class Builder {
+        private final Map<String, Integer> nodes = new LinkedHashMap<>();
+        private int[] sources = new int[64];
+        private int[] targets = new int[64];
+        private int edges;
+
+        /**
+         * Adds object to the graph
+         * @param uri URI of the object
+         * @return node of the object
+         */
+        synchronized int addObject(final String uri) {
+            return nodes.computeIfAbsent(notNull(uri, "uri"), key -> nodes.size());
+        }
+
+        /**
+         * Adds dependency to the graph, adding the objects if not present yet
+         * @param uri URI of the used object
+         * @param usedBy URI of the object using it
+         */
+        synchronized void addUsedBy(final String uri, final String usedBy) {
+            final int source = addObject(uri);
+            final int target = addObject(usedBy);
+            if (edges == sources.length) {
+                sources = Arrays.copyOf(sources, edges * 2);
+                targets = Arrays.copyOf(targets, edges * 2);
+            }
+            sources[edges] = source;
+            targets[edges] = target;
+            edges++;
+        }
+
+        synchronized DependencyGraph build() {
+            final String[] uris = nodes.keySet().toArray(new String[nodes.size()]);
+            final int[] usedByOffsets = new int[uris.length + 1];
+            final int[] usedByTargets = new int[edges];
+            final int[] usingOffsets = new int[uris.length + 1];
+            final int[] usingTargets = new int[edges];
+            fill(sources, targets, usedByOffsets, usedByTargets);
+            fill(targets, sources, usingOffsets, usingTargets);
+            return new DependencyGraph(uris, usedByOffsets, usedByTargets, usingOffsets, usingTargets);
+        }
+
+        /**
+         * Counting sort of the edges by their source node into the compressed sparse rows
+         */
+        private void fill(final int[] from, final int[] to, final int[] offsets, final int[] result) {
+            for (int i = 0; i < edges; i++) {
+                offsets[from[i] + 1]++;
+            }
+            for (int node = 0; node < offsets.length - 1; node++) {
+                offsets[node + 1] += offsets[node];
+            }
+            final int[] positions = Arrays.copyOf(offsets, offsets.length - 1);
+            for (int i = 0; i < edges; i++) {
+                result[positions[from[i]]++] = to[i];
+            }
+        }
+    }
+}
@@ -6,15 +6,24 @@
 package com.gooddata.md;
 
 import com.fasterxml.jackson.annotation.*;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
 import com.gooddata.util.*;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import org.joda.time.DateTime;
 
+import java.io.IOException;
 import java.util.Set;
 
 /**
  * Metadata entry (can be named "LINK" in some API docs)
+ * <p>
+ * The categories, authors, tags and timestamps repeated across the entries of single listing share the same
+ * instances, the tags are immutable.
  */
 @JsonIgnoreProperties(ignoreUnknown = true)
 @JsonInclude(JsonInclude.Include.NON_NULL)
@@ -38,14 +47,14 @@ public class Entry {
     public Entry(@JsonProperty("link") String uri,
                  @JsonProperty("title") String title,
                  @JsonProperty("summary") String summary,
-                 @JsonProperty("category") String category,
-                 @JsonProperty("author") String author,
-                 @JsonProperty("contributor") String contributor,
+                 @JsonProperty("category") @JsonDeserialize(using = PooledStringDeserializer.class) String category,
+                 @JsonProperty("author") @JsonDeserialize(using = PooledStringDeserializer.class) String author,
+                 @JsonProperty("contributor") @JsonDeserialize(using = PooledStringDeserializer.class) String contributor,
                  @JsonProperty("deprecated") @JsonDeserialize(using = BooleanDeserializer.class) Boolean deprecated,
                  @JsonProperty("identifier") String identifier,
-                 @JsonProperty("tags") @JsonDeserialize(using = TagsDeserializer.class) Set<String> tags,
-                 @JsonProperty("created") @JsonDeserialize(using = GDDateTimeDeserializer.class) DateTime created,
-                 @JsonProperty("updated") @JsonDeserialize(using = GDDateTimeDeserializer.class) DateTime updated,
+                 @JsonProperty("tags") @JsonDeserialize(using = PooledTagsDeserializer.class) Set<String> tags,
+                 @JsonProperty("created") @JsonDeserialize(using = PooledDateTimeDeserializer.class) DateTime created,
+                 @JsonProperty("updated") @JsonDeserialize(using = PooledDateTimeDeserializer.class) DateTime updated,
                  @JsonProperty("locked") @JsonDeserialize(using = BooleanDeserializer.class) Boolean locked,
                  @JsonProperty("unlisted") @JsonDeserialize(using = BooleanDeserializer.class) Boolean unlisted) {
         this.uri = uri;
@@ -127,6 +136,10 @@ public class Entry {
         return identifier;
     }
 
+    /**
+     * Returns tags of the object. The set is immutable and may be shared by other entries of the same listing.
+     * @return immutable set of the object tags
+     */
     @JsonSerialize(using = TagsSerializer.class)
     public Set<String> getTags() {
         return tags;
@@ -172,4 +185,56 @@ public class Entry {
     public String toString() {
         return GoodDataToStringBuilder.defaultToString(this);
     }
+
+    /**
+     * Deserializes the string shared by the whole deserialization call (i.e. single {@link Query}).
+     */
+    static class PooledStringDeserializer extends JsonDeserializer<String> {
+        @Override
+        public String deserialize(final JsonParser jp, final DeserializationContext ctxt) throws IOException {
+            final String value = jp.getValueAsString();
+            if (value == null) {
+                return (String) ctxt.handleUnexpectedToken(String.class, jp);
+            }
+            return EntryValuePool.of(ctxt).string(value);
+        }
+    }
+
+    /**
+     * Deserializes whitespace separated tags to immutable set shared by the whole deserialization call
+     * (i.e. single {@link Query}).
+     */
+    static class PooledTagsDeserializer extends JsonDeserializer<Set<String>> {
+        @Override
+        public Set<String> deserialize(final JsonParser jp, final DeserializationContext ctxt) throws IOException {
+            if (jp.getCurrentToken() != JsonToken.VALUE_STRING) {
+                throw JsonMappingException.from(jp, "Unknown value of type: " + jp.getCurrentToken());
+            }
+            return EntryValuePool.of(ctxt).tags(jp.getText());
+        }
+    }
+
+    /**
+     * Deserializes the timestamp, parsing each distinct value only once per deserialization call
+     * (i.e. single {@link Query}).
+     */
+    static class PooledDateTimeDeserializer extends JsonDeserializer<DateTime> {
+        private final GDDateTimeDeserializer delegate = new GDDateTimeDeserializer();
+
+        @Override
+        public DateTime deserialize(final JsonParser jp, final DeserializationContext ctxt) throws IOException {
+            if (jp.getCurrentToken() != JsonToken.VALUE_STRING) {
+                return delegate.deserialize(jp, ctxt);
+            }
+            final EntryValuePool pool = EntryValuePool.of(ctxt);
+            final String value = jp.getText();
+            final DateTime cached = pool.date(value);
+            if (cached != null) {
+                return cached;
+            }
+            final DateTime parsed = delegate.deserialize(jp, ctxt);
+            pool.date(value, parsed);
+            return parsed;
+        }
+    }
 }
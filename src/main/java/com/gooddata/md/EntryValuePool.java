@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2004-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.md;
+
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.gooddata.util.TagsDeserializer;
+import org.joda.time.DateTime;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Pool of the values repeated across the entries of single metadata listing (i.e. {@link Query}) - the categories,
+ * authors, tags and timestamps. The pool lives for the single deserialization call only, the equal values
+ * deserialized within the call share the same instance.
+ */
+class EntryValuePool {
+
+    private final Map<String, String> strings = new HashMap<>();
+    private final Map<String, Set<String>> tags = new HashMap<>();
+    private final Map<String, DateTime> dates = new HashMap<>();
+
+    /**
+     * @param ctxt context of the deserialization call
+     * @return pool of the given deserialization call
+     */
+    static EntryValuePool of(final DeserializationContext ctxt) {
+        EntryValuePool pool = (EntryValuePool) ctxt.getAttribute(EntryValuePool.class);
+        if (pool == null) {
+            pool = new EntryValuePool();
+            ctxt.setAttribute(EntryValuePool.class, pool);
+        }
+        return pool;
+    }
+
+    String string(final String value) {
+        if (value == null) {
+            return null;
+        }
+        final String pooled = strings.putIfAbsent(value, value);
+        return pooled != null ? pooled : value;
+    }
+
+    DateTime date(final String value) {
+        return dates.get(value);
+    }
+
+    void date(final String value, final DateTime date) {
+        dates.put(value, date);
+    }
+
+    /**
+     * Splits the whitespace separated tags into immutable set, the same tags string results in the same set.
+     */
+    Set<String> tags(final String value) {
+        final Set<String> pooled = tags.get(value);
+        if (pooled != null) {
+            return pooled;
+        }
+        final Set<String> parsed = parseTags(value);
+        tags.put(value, parsed);
+        return parsed;
+    }
+
+    private Set<String> parseTags(final String value) {
+        final TagsBuilder builder = new TagsBuilder();
+        TagsDeserializer.forEachTag(value, builder);
+        return builder.build();
+    }
+
+    private static boolean contains(final String[] tokens, final int size, final String token) {
+        for (int i = 0; i < size; i++) {
+            if (tokens[i].equals(token)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Collects the distinct tags, pooling them
+     */
+    private class TagsBuilder implements Consumer<String> {
+        private String[] tokens = new String[4];
+        private int size;
+
+        @Override
+        public void accept(final String tag) {
+            final String token = string(tag);
+            if (!contains(tokens, size, token)) {
+                if (size == tokens.length) {
+                    tokens = Arrays.copyOf(tokens, size * 2);
+                }
+                tokens[size++] = token;
+            }
+        }
+
+        private Set<String> build() {
+            switch (size) {
+                case 0:
+                    return Collections.emptySet();
+                case 1:
+                    return Collections.singleton(tokens[0]);
+                default:
+                    return new TagSet(Arrays.copyOf(tokens, size));
+            }
+        }
+    }
+
+    /**
+     * Immutable set of few tags backed by an array
+     */
+    private static class TagSet extends AbstractSet<String> {
+        private final String[] tags;
+
+        private TagSet(final String[] tags) {
+            this.tags = tags;
+        }
+
+        @Override
+        public boolean contains(final Object o) {
+            return o instanceof String && EntryValuePool.contains(tags, tags.length, (String) o);
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return new Iterator<String>() {
+                private int next;
+
+                @Override
+                public boolean hasNext() {
+                    return next < tags.length;
+                }
+
+                @Override
+                public String next() {
+                    if (next >= tags.length) {
+                        throw new NoSuchElementException();
+                    }
+                    return tags[next++];
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return tags.length;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2004-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.md;
+
+import com.gooddata.project.Project;
+import com.gooddata.util.GoodDataToStringBuilder;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.gooddata.util.Validate.notNull;
+
+/**
+ * Bidirectional cache of metadata object identifiers and URIs of each project used by
+ * {@link MetadataService#identifiersToUris(Project, java.util.Collection)},
+ * {@link MetadataService#urisToIdentifiers(Project, java.util.Collection)} and
+ * {@link MetadataService#findUris(Project, Restriction...)}, see
+ * {@link MetadataService#setIdentifierUriCache(IdentifierUriCache)}.
+ * <p>
+ * Identifier and URI of an object never change, so the pairs are cached until the object is removed using
+ * {@link MetadataService} or the cache is invalidated explicitly. The cache can be preloaded by
+ * {@link MetadataService#preloadIdentifierUris(Project, Class[])}. The local lookups by {@link #getUri(String, String)}
+ * and {@link #getIdentifier(String, String)} are useful when converting between
+ * {@link com.gooddata.executeafm.IdentifierObjQualifier} and {@link com.gooddata.executeafm.UriObjQualifier}.
+ */
+public class IdentifierUriCache {
+
+    private final ConcurrentMap<String, Mapping> projects = new ConcurrentHashMap<>();
+
+    /**
+     * @param projectId project id
+     * @param identifier identifier of the object
+     * @return URI of the object of given identifier, null if not cached
+     */
+    public String getUri(final String projectId, final String identifier) {
+        final Mapping mapping = projects.get(notNull(projectId, "projectId"));
+        return mapping == null ? null : mapping.uris.get(notNull(identifier, "identifier"));
+    }
+
+    /**
+     * @param projectId project id
+     * @param uri URI of the object
+     * @return identifier of the object of given URI, null if not cached
+     */
+    public String getIdentifier(final String projectId, final String uri) {
+        final Mapping mapping = projects.get(notNull(projectId, "projectId"));
+        return mapping == null ? null : mapping.identifiers.get(notNull(uri, "uri"));
+    }
+
+    /**
+     * Caches identifier and URI of the object
+     * @param projectId project id
+     * @param identifier identifier of the object
+     * @param uri URI of the object
+     */
+    public void put(final String projectId, final String identifier, final String uri) {
+        notNull(identifier, "identifier");
+        notNull(uri, "uri");
+        final Mapping mapping = projects.computeIfAbsent(notNull(projectId, "projectId"), id -> new Mapping());
+        mapping.uris.put(identifier, uri);
+        mapping.identifiers.put(uri, identifier);
+    }
+
+    /**
+     * Removes the pair of the object of given URI
+     * @param projectId project id
+     * @param uri URI of the object
+     */
+    public void removeUri(final String projectId, final String uri) {
+        final Mapping mapping = projects.get(notNull(projectId, "projectId"));
+        if (mapping != null) {
+            final String identifier = mapping.identifiers.remove(notNull(uri, "uri"));
+            if (identifier != null) {
+                mapping.uris.remove(identifier, uri);
+            }
+        }
+    }
+
+    /**
+     * Removes all the pairs of given project
+     * @param project project
+     */
+    public void invalidate(final Project project) {
+        projects.remove(notNull(notNull(project, "project").getId(), "project.id"));
+    }
+
+    /**
+     * Removes all the pairs
+     */
+    public void invalidateAll() {
+        projects.clear();
+    }
+
+    /**
+     * @return number of cached pairs of all the projects
+     */
+    public int size() {
+        return projects.values().stream().mapToInt(mapping -> mapping.uris.size()).sum();
+    }
+
+    @Override
+    public String toString() {
+        return GoodDataToStringBuilder.defaultToString(this, "projects");
+    }
+
+    private static class Mapping {
+        private final ConcurrentMap<String, String> uris = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, String> identifiers = new ConcurrentHashMap<>();
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2004-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.md;
+
+import com.gooddata.project.Project;
+import com.gooddata.util.GoodDataToStringBuilder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.gooddata.util.Validate.notNull;
+
+/**
+ * {@link ObjCache} holding at most given number of objects, evicting the least recently used ones.
+ * <p>
+ * Objects validated within the {@code freshFor} period are returned without any request, older objects are
+ * revalidated by conditional request (or by comparing the {@link Meta#getUpdated()} timestamp when the server
+ * doesn't provide validators). Objects not validated within the {@code ttl} period are evicted.
+ */
+public class LruObjCache implements ObjCache {
+
+    private final int maxSize;
+    private final long freshFor;
+    private final long ttl;
+    private final Map<String, CachedObj> objects;
+
+    /**
+     * Creates new cache
+     * @param maxSize maximum number of cached objects
+     * @param freshFor time the object is used without revalidation, zero to revalidate on every access
+     * @param ttl time to live of the object since its last validation
+     * @param unit time unit of {@code freshFor} and {@code ttl}
+     */
+    public LruObjCache(final int maxSize, final long freshFor, final long ttl, final TimeUnit unit) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be greater than zero");
+        }
+        if (freshFor < 0) {
+            throw new IllegalArgumentException("freshFor must not be negative");
+        }
+        if (ttl < freshFor || ttl < 1) {
+            throw new IllegalArgumentException("ttl must be greater than zero and at least freshFor");
+        }
+        notNull(unit, "unit");
+        this.maxSize = maxSize;
+        this.freshFor = unit.toMillis(freshFor);
+        this.ttl = unit.toMillis(ttl);
+        this.objects = new LinkedHashMap<String, CachedObj>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, CachedObj> eldest) {
+                return size() > LruObjCache.this.maxSize;
+            }
+        };
+    }
+
+    @Override
+    public synchronized CachedObj get(final String uri) {
+        final CachedObj cached = objects.get(notNull(uri, "uri"));
+        if (cached != null && cached.getValidatedAt() + ttl < System.currentTimeMillis()) {
+            objects.remove(uri);
+            return null;
+        }
+        return cached;
+    }
+
+    @Override
+    public synchronized void put(final CachedObj cached) {
+        notNull(cached, "cached");
+        objects.put(cached.getUri(), cached);
+    }
+
+    @Override
+    public boolean isFresh(final CachedObj cached) {
+        return notNull(cached, "cached").getValidatedAt() + freshFor >= System.currentTimeMillis();
+    }
+
+    @Override
+    public synchronized void invalidate(final String uri) {
+        objects.remove(notNull(uri, "uri"));
+    }
+
+    /**
+     * Removes all the objects of given project
+     * @param project project
+     */
+    public synchronized void invalidate(final Project project) {
+        final String prefix = "/gdc/md/" + notNull(notNull(project, "project").getId(), "project.id") + "/";
+        objects.keySet().removeIf(uri -> uri.startsWith(prefix));
+    }
+
+    @Override
+    public synchronized void invalidateAll() {
+        objects.clear();
+    }
+
+    /**
+     * @return number of cached objects (including the expired ones not evicted yet)
+     */
+    public synchronized int size() {
+        return objects.size();
+    }
+
+    @Override
+    public String toString() {
+        return GoodDataToStringBuilder.defaultToString(this, "objects");
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2004-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.md;
+
+import com.gooddata.project.Project;
+import com.gooddata.util.GoodDataToStringBuilder;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Changes of the project metadata since the previous snapshot, see
+ * {@link MetadataService#sync(Project, MetadataSnapshot, Class[])}.
+ */
+public class MetadataDelta {
+
+    private final List<Obj> added;
+    private final List<Obj> updated;
+    private final Collection<String> removed;
+    private final MetadataSnapshot snapshot;
+
+    MetadataDelta(final List<Obj> added, final List<Obj> updated, final Collection<String> removed,
+                  final MetadataSnapshot snapshot) {
+        this.added = Collections.unmodifiableList(added);
+        this.updated = Collections.unmodifiableList(updated);
+        this.removed = Collections.unmodifiableCollection(removed);
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * @return metadata objects added since the previous snapshot
+     */
+    public List<Obj> getAdded() {
+        return added;
+    }
+
+    /**
+     * @return metadata objects updated since the previous snapshot
+     */
+    public List<Obj> getUpdated() {
+        return updated;
+    }
+
+    /**
+     * @return URIs of the metadata objects removed since the previous snapshot
+     */
+    public Collection<String> getRemoved() {
+        return removed;
+    }
+
+    /**
+     * @return the current snapshot to be used by the next synchronization
+     */
+    public MetadataSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * @return true if nothing changed since the previous snapshot
+     */
+    public boolean isEmpty() {
+        return added.isEmpty() && updated.isEmpty() && removed.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return GoodDataToStringBuilder.defaultToString(this, "snapshot");
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright (C) 2004-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.md;
+
+import com.gooddata.project.Project;
+import com.gooddata.util.GoodDataToStringBuilder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static com.gooddata.util.Validate.notNull;
+
+/**
+ * In-memory index of project metadata used by {@link MetadataService#find(Project, Class, Restriction...)}
+ * and the methods using it, see {@link MetadataService#setMetadataIndex(MetadataIndex)}.
+ * <p>
+ * The entries of each project and metadata type are downloaded once and indexed by identifier, title, summary
+ * and tag, so the lookups don't need any request until the index gets stale. Stale index is refreshed
+ * from the new listing incrementally, only the entries added, removed or updated (according to
+ * {@link Entry#getUpdated()}) are re-indexed.
+ * <p>
+ * The index of a project becomes stale after given time or when the project metadata are created, updated
+ * or removed using the {@link MetadataService}. Invalidate it explicitly using {@link #invalidate(Project)}
+ * when the metadata are changed by other means.
+ */
+public class MetadataIndex {
+
+    private final long refreshAfter;
+    private final ConcurrentMap<String, TypeIndex> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * Creates new index
+     * @param refreshAfter time after which the indexed entries are refreshed
+     * @param unit unit of {@code refreshAfter}
+     */
+    public MetadataIndex(final long refreshAfter, final TimeUnit unit) {
+        if (refreshAfter < 0) {
+            throw new IllegalArgumentException("refreshAfter must not be negative");
+        }
+        this.refreshAfter = notNull(unit, "unit").toMillis(refreshAfter);
+    }
+
+    /**
+     * Marks the index of given project stale, so it's refreshed on next lookup
+     * @param project project
+     */
+    public void invalidate(final Project project) {
+        invalidate(notNull(notNull(project, "project").getId(), "project.id"));
+    }
+
+    /**
+     * Marks the index of given project stale, so it's refreshed on next lookup
+     * @param projectId project id
+     */
+    public void invalidate(final String projectId) {
+        notNull(projectId, "projectId");
+        indexes.forEach((key, index) -> {
+            if (key.startsWith(projectId + ':')) {
+                index.invalidate();
+            }
+        });
+    }
+
+    /**
+     * Removes all the indexed entries
+     */
+    public void invalidateAll() {
+        indexes.clear();
+    }
+
+    /**
+     * @return number of indexed entries of all the projects and types
+     */
+    public int size() {
+        return indexes.values().stream().mapToInt(TypeIndex::size).sum();
+    }
+
+    Collection<Entry> find(final String projectId, final String type, final Supplier<Collection<Entry>> loader,
+                           final Restriction... restrictions) {
+        final TypeIndex index = index(projectId, type, loader);
+        return restrictions == null || restrictions.length == 0 ? index.all() : index.find(restrictions);
+    }
+
+    Collection<Entry> findByTag(final String projectId, final String type, final Supplier<Collection<Entry>> loader,
+                                final String tag) {
+        return index(projectId, type, loader).findByTag(tag);
+    }
+
+    private TypeIndex index(final String projectId, final String type, final Supplier<Collection<Entry>> loader) {
+        final TypeIndex index = indexes.computeIfAbsent(projectId + ':' + type, key -> new TypeIndex());
+        index.refreshIfStale(loader, refreshAfter);
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return GoodDataToStringBuilder.defaultToString(this, "indexes");
+    }
+
+    /**
+     * Index of the entries of single project and type
+     */
+    private static class TypeIndex {
+        private List<Entry> entries = Collections.emptyList();
+        private final Map<String, Integer> positions = new HashMap<>();
+        private final Map<String, Entry> byUri = new HashMap<>();
+        private final Map<String, List<Entry>> byIdentifier = new HashMap<>();
+        private final Map<String, List<Entry>> byTitle = new HashMap<>();
+        private final Map<String, List<Entry>> bySummary = new HashMap<>();
+        private final Map<String, List<Entry>> byTag = new HashMap<>();
+        private long loadedAt = -1;
+
+        private synchronized void invalidate() {
+            if (loadedAt >= 0) {
+                loadedAt = 0;
+            }
+        }
+
+        private synchronized void refreshIfStale(final Supplier<Collection<Entry>> loader, final long refreshAfter) {
+            final long now = System.currentTimeMillis();
+            if (loadedAt > 0 && loadedAt + refreshAfter >= now) {
+                return;
+            }
+            refresh(loader.get());
+            loadedAt = now;
+        }
+
+        private void refresh(final Collection<Entry> loaded) {
+            final Map<String, Entry> previous = new HashMap<>(byUri);
+            final List<Entry> refreshed = new ArrayList<>(loaded.size());
+            positions.clear();
+            for (Entry entry : loaded) {
+                final Entry indexed = previous.remove(entry.getUri());
+                if (indexed != null && Objects.equals(indexed.getUpdated(), entry.getUpdated())) {
+                    refreshed.add(indexed);
+                } else {
+                    if (indexed != null) {
+                        remove(indexed);
+                    }
+                    add(entry);
+                    refreshed.add(entry);
+                }
+                positions.put(entry.getUri(), refreshed.size() - 1);
+            }
+            previous.values().forEach(this::remove);
+            entries = refreshed;
+        }
+
+        private void add(final Entry entry) {
+            byUri.put(entry.getUri(), entry);
+            put(byIdentifier, entry.getIdentifier(), entry);
+            put(byTitle, entry.getTitle(), entry);
+            put(bySummary, entry.getSummary(), entry);
+            if (entry.getTags() != null) {
+                entry.getTags().forEach(tag -> put(byTag, tag, entry));
+            }
+        }
+
+        private void remove(final Entry entry) {
+            byUri.remove(entry.getUri());
+            remove(byIdentifier, entry.getIdentifier(), entry);
+            remove(byTitle, entry.getTitle(), entry);
+            remove(bySummary, entry.getSummary(), entry);
+            if (entry.getTags() != null) {
+                entry.getTags().forEach(tag -> remove(byTag, tag, entry));
+            }
+        }
+
+        private synchronized int size() {
+            return entries.size();
+        }
+
+        private synchronized Collection<Entry> all() {
+            return new ArrayList<>(entries);
+        }
+
+        /**
+         * Returns the same entries as linear scan of the whole listing would, i.e. in order of the listing,
+         * each entry as many times as many restrictions it matches.
+         */
+        private synchronized Collection<Entry> find(final Restriction... restrictions) {
+            final Set<Entry> candidates = new LinkedHashSet<>();
+            for (Restriction restriction : restrictions) {
+                candidates.addAll(mapOf(restriction).getOrDefault(restriction.getValue(), Collections.emptyList()));
+            }
+            final List<Entry> sorted = new ArrayList<>(candidates);
+            sorted.sort(Comparator.comparingInt(entry -> positions.get(entry.getUri())));
+
+            final Collection<Entry> result = new ArrayList<>(sorted.size());
+            for (Entry entry : sorted) {
+                for (Restriction restriction : restrictions) {
+                    if (restriction.getValue().equals(valueOf(restriction).apply(entry))) {
+                        result.add(entry);
+                    }
+                }
+            }
+            return result;
+        }
+
+        private synchronized Collection<Entry> findByTag(final String tag) {
+            final List<Entry> result = new ArrayList<>(byTag.getOrDefault(tag, Collections.emptyList()));
+            result.sort(Comparator.comparingInt(entry -> positions.get(entry.getUri())));
+            return result;
+        }
+
+        private Map<String, List<Entry>> mapOf(final Restriction restriction) {
+            switch (restriction.getType()) {
+                case IDENTIFIER:
+                    return byIdentifier;
+                case TITLE:
+                    return byTitle;
+                case SUMMARY:
+                    return bySummary;
+                default:
+                    throw new IllegalArgumentException("Unsupported restriction " + restriction.getType());
+            }
+        }
+
+        private static Function<Entry, String> valueOf(final Restriction restriction) {
+            switch (restriction.getType()) {
+                case IDENTIFIER:
+                    return Entry::getIdentifier;
+                case TITLE:
+                    return Entry::getTitle;
+                case SUMMARY:
+                    return Entry::getSummary;
+                default:
+                    throw new IllegalArgumentException("Unsupported restriction " + restriction.getType());
+            }
+        }
+
+        private static void put(final Map<String, List<Entry>> map, final String key, final Entry entry) {
+            if (key != null) {
+                map.computeIfAbsent(key, ignored -> new ArrayList<>(1)).add(entry);
+            }
+        }
+
+        private static void remove(final Map<String, List<Entry>> map, final String key, final Entry entry) {
+            if (key == null) {
+                return;
+            }
+            final List<Entry> list = map.get(key);
+            if (list != null) {
+                list.remove(entry);
+                if (list.isEmpty()) {
+                    map.remove(key);
+                }
+            }
+        }
+    }
+}
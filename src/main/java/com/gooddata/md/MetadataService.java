@@ -6,23 +6,38 @@
 package com.gooddata.md;
 
 import com.gooddata.AbstractService;
+import com.gooddata.BoundedExecutor;
 import com.gooddata.GoodDataException;
 import com.gooddata.GoodDataRestException;
 import com.gooddata.GoodDataSettings;
 import com.gooddata.md.report.ReportDefinition;
 import com.gooddata.project.Project;
+import org.joda.time.DateTime;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.util.StringUtils;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 import static com.gooddata.util.Validate.noNullElements;
@@ -35,6 +50,13 @@ import static java.util.Arrays.asList;
 public class MetadataService extends AbstractService {
 
     private static final Set<String> IRREGULAR_PLURAL_WORD_SUFFIXES = new HashSet<>(asList("s", "ch", "sh", "x", "o"));
+    private static final int ATTRIBUTE_ELEMENT_INDEX_PAGE_SIZE = 10000;
+    private static final int SYNC_BATCH_SIZE = 100;
+
+    private volatile ObjCache objCache;
+    private volatile MetadataIndex metadataIndex;
+    private volatile IdentifierUriCache identifierUriCache;
+    private volatile AttributeElementIndexCache attributeElementIndexCache;
 
     public MetadataService(final RestTemplate restTemplate, final GoodDataSettings settings) {
         super(restTemplate, settings);
@@ -48,6 +70,72 @@ public class MetadataService extends AbstractService {
         super(restTemplate);
     }
 
+    /**
+     * Enables caching of the objects got by {@link #getObjByUri(String, Class)} (and the methods using it),
+     * disabled by default. The objects updated or removed using this service are invalidated automatically.
+     * <p>
+     * The objects are cached serialized, every call returns new instance, so the callers can modify it freely.
+     * @param objCache cache to use, null to disable caching
+     */
+    public void setObjCache(final ObjCache objCache) {
+        this.objCache = objCache;
+    }
+
+    /**
+     * @return cache of the metadata objects, null if caching is disabled
+     */
+    public ObjCache getObjCache() {
+        return objCache;
+    }
+
+    /**
+     * Enables in-memory index of the project metadata used by {@link #find(Project, Class, Restriction...)}
+     * and the methods using it, disabled by default.
+     * @param metadataIndex index to use, null to disable indexing
+     */
+    public void setMetadataIndex(final MetadataIndex metadataIndex) {
+        this.metadataIndex = metadataIndex;
+    }
+
+    /**
+     * @return index of the project metadata, null if indexing is disabled
+     */
+    public MetadataIndex getMetadataIndex() {
+        return metadataIndex;
+    }
+
+    /**
+     * Enables caching of the identifier and URI pairs resolved by {@link #identifiersToUris(Project, Collection)},
+     * {@link #urisToIdentifiers(Project, Collection)} and {@link #findUris(Project, Restriction...)},
+     * disabled by default. Only the pairs not cached yet are resolved by request.
+     * @param identifierUriCache cache to use, null to disable caching
+     */
+    public void setIdentifierUriCache(final IdentifierUriCache identifierUriCache) {
+        this.identifierUriCache = identifierUriCache;
+    }
+
+    /**
+     * @return cache of the identifier and URI pairs, null if caching is disabled
+     */
+    public IdentifierUriCache getIdentifierUriCache() {
+        return identifierUriCache;
+    }
+
+    /**
+     * Enables caching of the indexes built by {@link #getAttributeElementIndex(DisplayForm)}, disabled by default.
+     * @param attributeElementIndexCache cache to use, null to disable caching
+     */
+    public void setAttributeElementIndexCache(final AttributeElementIndexCache attributeElementIndexCache) {
+        this.attributeElementIndexCache = attributeElementIndexCache;
+    }
+
+    /**
+     * @return cache of the attribute element indexes, null if caching is disabled
+     */
+    public AttributeElementIndexCache getAttributeElementIndexCache() {
+        return attributeElementIndexCache;
+    }
+
     /**
      * Create metadata object in given project
      *
@@ -77,6 +165,7 @@ public class MetadataService extends AbstractService {
         if (response == null) {
             throw new ObjCreateException("Received empty response from API call.", obj);
         }
+        invalidateIndex(project.getId());
         return response;
     }
 
@@ -94,6 +183,10 @@ public class MetadataService extends AbstractService {
     public <T extends Obj> T getObjByUri(String uri, Class<T> cls) {
         notNull(uri, "uri");
         notNull(cls, "cls");
+        final ObjCache cache = objCache;
+        if (cache != null) {
+            return getCachedObjByUri(cache, uri, cls);
+        }
         try {
             final T result = restTemplate.getForObject(uri, cls);
 
@@ -113,6 +206,48 @@ public class MetadataService extends AbstractService {
         }
     }
 
+    private <T extends Obj> T getCachedObjByUri(final ObjCache cache, final String uri, final Class<T> cls) {
+        final CachedObj cached = cache.get(uri);
+        final boolean usable = cached != null && cached.isInstanceOf(cls);
+        if (usable && cache.isFresh(cached)) {
+            return cached.getObj(cls);
+        }
+
+        final HttpHeaders headers = new HttpHeaders();
+        if (usable && cached.getETag() != null) {
+            headers.setIfNoneMatch(cached.getETag());
+        }
+        if (usable && cached.getLastModified() >= 0) {
+            headers.setIfModifiedSince(cached.getLastModified());
+        }
+
+        final ResponseEntity<T> response;
+        try {
+            response = restTemplate.exchange(uri, HttpMethod.GET, new HttpEntity<>(headers), cls);
+        } catch (GoodDataRestException e) {
+            if (HttpStatus.NOT_FOUND.value() == e.getStatusCode()) {
+                cache.invalidate(uri);
+                throw new ObjNotFoundException(uri, cls, e);
+            } else {
+                throw e;
+            }
+        } catch (RestClientException e) {
+            throw new GoodDataException("Unable to get " + cls.getSimpleName().toLowerCase() + " " + uri, e);
+        }
+
+        final long now = System.currentTimeMillis();
+        if (usable && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            cache.put(cached.revalidated(now));
+            return cached.getObj(cls);
+        }
+        final T result = response.getBody();
+        if (result == null) {
+            throw new GoodDataException("Received empty response from API call.");
+        }
+        cache.put(new CachedObj(uri, result, response.getHeaders().getETag(), response.getHeaders().getLastModified(), now));
+        return result;
+    }
+
     /**
      * Retrieves a collection of objects corresponding to the supplied collection of URIs.
      *
@@ -123,10 +258,14 @@ public class MetadataService extends AbstractService {
     public Collection<Obj> getObjsByUris(Project project, Collection<String> uris) {
         notNull(project, "project");
         notNull(project.getId(), "project.id");
+        return getObjsByUris(project.getId(), uris);
+    }
+
+    Collection<Obj> getObjsByUris(final String projectId, final Collection<String> uris) {
         notNull(uris, "uris");
 
         try {
-            final BulkGet result = restTemplate.postForObject(BulkGet.URI, new BulkGetUris(uris), BulkGet.class, project.getId());
+            final BulkGet result = restTemplate.postForObject(BulkGet.URI, new BulkGetUris(uris), BulkGet.class, projectId);
 
             if (result != null) {
                 return result.getItems();
@@ -138,6 +277,19 @@ public class MetadataService extends AbstractService {
         }
     }
 
+    /**
+     * Creates loader batching the individual lookups of metadata objects by URI into bulk requests, turning
+     * many {@link #getObjByUri(String, Class)} round trips into few {@link #getObjsByUris(Project, Collection)} ones.
+     *
+     * @param maxBatchSize maximum number of objects fetched by single request (i.e. 100)
+     * @param maxDelay     maximum time the lookup waits for other lookups to be batched with
+     * @param unit         unit of {@code maxDelay}
+     * @return new batch loader, it should be closed when not needed anymore
+     */
+    public ObjBatchLoader createObjBatchLoader(final int maxBatchSize, final long maxDelay, final TimeUnit unit) {
+        return new ObjBatchLoader(this, maxBatchSize, maxDelay, unit);
+    }
+
     /**
      * Update given metadata object.
      *
@@ -148,10 +300,8 @@ public class MetadataService extends AbstractService {
      */
     @SuppressWarnings("unchecked")
     public <T extends Updatable> T updateObj(T obj) {
-        notNull(obj, "obj");
-        notNull(obj.getUri(), "obj.uri");
+        putObj(obj);
         try {
-            restTemplate.put(obj.getUri(), obj);
             return getObjByUri(obj.getUri(), (Class<T>) obj.getClass());
         } catch (GoodDataException | RestClientException e) {
             throw new ObjUpdateException(obj, e);
@@ -169,6 +319,7 @@ public class MetadataService extends AbstractService {
     public void removeObj(Obj obj) {
         notNull(obj, "obj");
         notNull(obj.getUri(), "obj.uri");
+        invalidateCaches(obj.getUri());
         try {
             restTemplate.delete(obj.getUri());
         } catch (GoodDataRestException e) {
@@ -192,6 +343,7 @@ public class MetadataService extends AbstractService {
      */
     public void removeObjByUri(String uri) {
         notNull(uri, "uri");
+        invalidateCaches(uri);
         try {
             restTemplate.delete(uri);
         } catch (GoodDataRestException e) {
@@ -205,6 +357,114 @@ public class MetadataService extends AbstractService {
         }
     }
 
+    /**
+     * Create metadata objects in given project, at most {@code parallelism} objects at once. The creation doesn't
+     * stop at the first failure, the failures are collected to the result.
+     *
+     * @param project     project
+     * @param objs        metadata objects to be created
+     * @param parallelism maximum number of concurrent requests, should not exceed
+     *                    {@link GoodDataSettings#getMaxConnections()}
+     * @param <T>         type of the objects to be created
+     * @return report holding the new metadata objects and the failures (i.e. {@link ObjCreateException})
+     *         of the given objects in their order
+     */
+    public <T extends Obj> BulkObjResult<T> createObjs(Project project, Collection<T> objs, int parallelism) {
+        notNull(project, "project");
+        notNull(project.getId(), "project.id");
+        return bulk(objs, parallelism, obj -> createObj(project, obj));
+    }
+
+    /**
+     * Update given metadata objects, at most {@code parallelism} objects at once. The update doesn't stop at the
+     * first failure, the failures are collected to the result.
+     *
+     * @param objs        objects to update
+     * @param reread      true to get the updated objects after the update (as {@link #updateObj(Updatable)} does),
+     *                    false to skip it and return the given objects
+     * @param parallelism maximum number of concurrent requests, should not exceed
+     *                    {@link GoodDataSettings#getMaxConnections()}
+     * @param <T>         type of the updated objects
+     * @return report holding the updated metadata objects and the failures (i.e. {@link ObjUpdateException})
+     *         of the given objects in their order
+     */
+    public <T extends Updatable> BulkObjResult<T> updateObjs(Collection<T> objs, boolean reread, int parallelism) {
+        return bulk(objs, parallelism, obj -> reread ? updateObj(obj) : putObj(obj));
+    }
+
+    /**
+     * Remove metadata objects, at most {@code parallelism} objects at once. The removal doesn't stop at the first
+     * failure, the failures are collected to the result.
+     *
+     * @param objs        metadata objects to remove
+     * @param parallelism maximum number of concurrent requests, should not exceed
+     *                    {@link GoodDataSettings#getMaxConnections()}
+     * @param <T>         type of the removed objects
+     * @return report holding the removed metadata objects and the failures (i.e. {@link ObjNotFoundException})
+     *         of the given objects in their order
+     */
+    public <T extends Obj> BulkObjResult<T> removeObjs(Collection<T> objs, int parallelism) {
+        return bulk(objs, parallelism, obj -> {
+            removeObj(obj);
+            return obj;
+        });
+    }
+
+    /**
+     * Remove metadata objects by URI (format is <code>/gdc/md/{PROJECT_ID}/obj/{OBJECT_ID}</code>), at most
+     * {@code parallelism} objects at once. The removal doesn't stop at the first failure, the failures are
+     * collected to the result.
+     *
+     * @param uris        URIs in format <code>/gdc/md/{PROJECT_ID}/obj/{OBJECT_ID}</code>
+     * @param parallelism maximum number of concurrent requests, should not exceed
+     *                    {@link GoodDataSettings#getMaxConnections()}
+     * @return report holding the URIs of the removed objects and the failures (i.e. {@link ObjNotFoundException})
+     *         of the given URIs in their order
+     */
+    public BulkObjResult<String> removeObjsByUri(Collection<String> uris, int parallelism) {
+        return bulk(uris, parallelism, uri -> {
+            removeObjByUri(uri);
+            return uri;
+        });
+    }
+
+    private <T extends Updatable> T putObj(T obj) {
+        notNull(obj, "obj");
+        notNull(obj.getUri(), "obj.uri");
+        try {
+            restTemplate.put(obj.getUri(), obj);
+            invalidateCaches(obj.getUri());
+            return obj;
+        } catch (GoodDataException | RestClientException e) {
+            throw new ObjUpdateException(obj, e);
+        }
+    }
+
+    private <T> BulkObjResult<T> bulk(final Collection<T> objs, final int parallelism, final UnaryOperator<T> operation) {
+        noNullElements(objs, "objs");
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be greater than zero");
+        }
+        final BoundedExecutor executor = new BoundedExecutor(parallelism);
+        final List<T> items = new ArrayList<>(objs);
+        final List<CompletableFuture<T>> futures = new ArrayList<>(items.size());
+        for (T item : items) {
+            futures.add(CompletableFuture.supplyAsync(() -> operation.apply(item), executor));
+        }
+        final List<BulkObjResult.Outcome<T>> outcomes = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            final T item = items.get(i);
+            try {
+                outcomes.add(new BulkObjResult.Outcome<>(i, item, futures.get(i).join(), null));
+            } catch (CompletionException e) {
+                outcomes.add(new BulkObjResult.Outcome<>(i, item, null, e.getCause() instanceof GoodDataException
+                        ? (GoodDataException) e.getCause()
+                        : new GoodDataException("Unable to process " + item, e.getCause())));
+            }
+        }
+        return new BulkObjResult<>(outcomes);
+    }
+
     /**
      * Get metadata object by id.
      *
@@ -283,11 +543,126 @@ public class MetadataService extends AbstractService {
         notNull(cls, "cls");
 
         final String type = getQueryType(cls);
+        final MetadataIndex index = metadataIndex;
+        if (index != null) {
+            return index.find(project.getId(), type, () -> query(project, type), restrictions);
+        }
+        return filterEntries(query(project, type), restrictions);
+    }
+
+    /**
+     * Find metadata by tag.
+     *
+     * @param project project where to search for the metadata
+     * @param cls     class of searched metadata
+     * @param tag     tag of the metadata
+     * @param <T>     type of the metadata referenced in returned entries
+     * @return the collection of metadata entries
+     * @throws com.gooddata.GoodDataException if unable to query metadata
+     */
+    public <T extends Queryable> Collection<Entry> findByTag(Project project, Class<T> cls, String tag) {
+        notNull(project, "project");
+        notNull(project.getId(), "project.id");
+        notNull(cls, "cls");
+        notNull(tag, "tag");
+
+        final String type = getQueryType(cls);
+        final MetadataIndex index = metadataIndex;
+        if (index != null) {
+            return index.findByTag(project.getId(), type, () -> query(project, type), tag);
+        }
+        return query(project, type).stream()
+                .filter(entry -> entry.getTags() != null && entry.getTags().contains(tag))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Synchronizes the metadata objects of given types against the previous snapshot. Only the metadata listings
+     * are fetched as whole, the objects are fetched only when added or updated since the previous snapshot
+     * (according to {@link Entry#getUpdated()}, or {@link Entry#getCreated()} for the entries never updated),
+     * so the cost of the synchronization scales with the amount of changes instead of the project size.
+     * The entries without any timestamp are considered unchanged once they are in the snapshot.
+     * The listings are always queried from the server, bypassing the {@link MetadataIndex}, which may be stale.
+     * <p>
+     * The snapshot of the returned delta should be persisted and used by the next synchronization
+     * of the same types. Use {@link MetadataSnapshot#empty(Project)} for the first synchronization.
+     *
+     * @param project  project to synchronize metadata of
+     * @param previous snapshot of the previous synchronization
+     * @param types    types of the synchronized metadata
+     * @return delta holding the added and updated objects, the URIs of the removed ones and the new snapshot
+     * @throws com.gooddata.GoodDataException if unable to query or get metadata
+     */
+    @SuppressWarnings("unchecked")
+    public MetadataDelta sync(Project project, MetadataSnapshot previous, Class<? extends Queryable>... types) {
+        notNull(project, "project");
+        notNull(project.getId(), "project.id");
+        notNull(previous, "previous");
+        noNullElements(types, "types");
+        if (!project.getId().equals(previous.getProjectId())) {
+            throw new IllegalArgumentException("Snapshot of project " + previous.getProjectId()
+                    + " can't be synchronized with project " + project.getId());
+        }
+
+        final Map<String, Map<String, Long>> entries = new LinkedHashMap<>(previous.getEntries());
+        final Set<String> added = new LinkedHashSet<>();
+        final Set<String> updated = new LinkedHashSet<>();
+        final List<String> removed = new ArrayList<>();
+        final Map<String, String> typesByUri = new HashMap<>();
+        for (Class<? extends Queryable> type : types) {
+            final String queryType = getQueryType(type);
+            final Map<String, Long> before = previous.getEntries(queryType);
+            final Map<String, Long> current = new LinkedHashMap<>();
+            for (Entry entry : query(project, queryType)) {
+                final DateTime changedAt = entry.getUpdated() != null ? entry.getUpdated() : entry.getCreated();
+                final Long time = changedAt != null ? changedAt.getMillis() : null;
+                current.put(entry.getUri(), time);
+                typesByUri.put(entry.getUri(), queryType);
+                if (!before.containsKey(entry.getUri())) {
+                    added.add(entry.getUri());
+                } else if (time != null && !time.equals(before.get(entry.getUri()))) {
+                    updated.add(entry.getUri());
+                }
+            }
+            before.keySet().stream().filter(uri -> !current.containsKey(uri)).forEach(removed::add);
+            entries.put(queryType, current);
+        }
+
+        final List<String> changed = new ArrayList<>(added);
+        changed.addAll(updated);
+        final Map<String, Obj> objs = new HashMap<>();
+        for (int from = 0; from < changed.size(); from += SYNC_BATCH_SIZE) {
+            final List<String> batch = changed.subList(from, Math.min(from + SYNC_BATCH_SIZE, changed.size()));
+            for (Obj obj : getObjsByUris(project.getId(), batch)) {
+                objs.put(obj.getUri(), obj);
+            }
+        }
+
+        final List<Obj> addedObjs = new ArrayList<>(added.size());
+        final List<Obj> updatedObjs = new ArrayList<>(updated.size());
+        for (String uri : changed) {
+            final Obj obj = objs.get(uri);
+            if (obj == null) {
+                // removed between the listing and the fetch
+                entries.get(typesByUri.get(uri)).remove(uri);
+                if (updated.contains(uri)) {
+                    removed.add(uri);
+                }
+            } else if (added.contains(uri)) {
+                addedObjs.add(obj);
+            } else {
+                updatedObjs.add(obj);
+            }
+        }
+        return new MetadataDelta(addedObjs, updatedObjs, removed, new MetadataSnapshot(project.getId(), entries));
+    }
+
+    private Collection<Entry> query(final Project project, final String type) {
         try {
             final Query queryResult = restTemplate.getForObject(Query.URI, Query.class, project.getId(), type);
 
             if (queryResult != null && queryResult.getEntries() != null) {
-                return filterEntries(queryResult.getEntries(), restrictions);
+                return queryResult.getEntries();
             } else {
                 throw new GoodDataException("Received empty response from API call.");
             }
@@ -377,6 +752,65 @@ public class MetadataService extends AbstractService {
         return usages;
     }
 
+    /**
+     * Builds graph of dependencies between the given objects and the objects using them. The nearest usages
+     * are fetched by batches of given size, at most {@code parallelism} batches at once, the transitive
+     * dependencies are then resolved by the graph in memory.
+     *
+     * @param project     project
+     * @param uris        URIs of the objects to build the graph of (i.e. all the project objects)
+     * @param batchSize   number of objects of single usage request
+     * @param parallelism maximum number of concurrent usage requests, should not exceed
+     *                    {@link GoodDataSettings#getMaxConnections()}
+     * @return dependency graph
+     * @throws com.gooddata.GoodDataException if unable to find usages of some of the objects
+     */
+    @SuppressWarnings("unchecked")
+    public DependencyGraph buildDependencyGraph(Project project, Collection<String> uris, int batchSize, int parallelism) {
+        notNull(project, "project");
+        notNull(project.getId(), "project.id");
+        noNullElements(uris, "uris");
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be greater than zero");
+        }
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be greater than zero");
+        }
+
+        final DependencyGraph.Builder builder = new DependencyGraph.Builder();
+        final List<List<String>> batches = new ArrayList<>();
+        List<String> batch = new ArrayList<>(batchSize);
+        for (String uri : uris) {
+            builder.addObject(uri);
+            batch.add(uri);
+            if (batch.size() == batchSize) {
+                batches.add(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        if (batches.isEmpty()) {
+            return builder.build();
+        }
+
+        final BoundedExecutor executor = new BoundedExecutor(parallelism);
+        final List<CompletableFuture<Void>> futures = new ArrayList<>(batches.size());
+        for (List<String> objects : batches) {
+            futures.add(CompletableFuture.runAsync(() -> {
+                for (Usage usage : usedBy(project, objects, true)) {
+                    for (Entry entry : usage.getUsedBy()) {
+                        builder.addUsedBy(usage.getUri(), entry.getUri());
+                    }
+                }
+            }, executor));
+        }
+        BoundedExecutor.join(CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])),
+                "Unable to find objects.");
+        return builder.build();
+    }
+
     /**
      * Find metadata URIs by restrictions. Identifier is the only supported restriction.
      *
@@ -397,7 +831,10 @@ public class MetadataService extends AbstractService {
             ids.add(restriction.getValue());
         }
 
-        return getUrisForIdentifiers(project, ids).getUris();
+        if (identifierUriCache == null) {
+            return getUrisForIdentifiers(project, ids).getUris();
+        }
+        return new ArrayList<>(identifiersToUris(project, ids).values());
     }
 
     /**
@@ -405,7 +842,8 @@ public class MetadataService extends AbstractService {
      *
      * @param project     project where to search for the metadata
      * @param identifiers query restrictions
-     * @return the map of identifiers as keys and metadata URIs as values
+     * @return the unmodifiable map of identifiers as keys and metadata URIs as values, in order of the given
+     *         identifiers
      * @throws com.gooddata.GoodDataException if unable to query metadata
      * @see #findUris(Project, Restriction...)
      */
@@ -413,7 +851,110 @@ public class MetadataService extends AbstractService {
         notNull(project, "project" );
         noNullElements(identifiers, "identifiers");
 
-        return getUrisForIdentifiers(project, identifiers).asMap();
+        final IdentifierUriCache cache = identifierUriCache;
+        if (cache == null) {
+            return orderedBy(identifiers, getUrisForIdentifiers(project, identifiers).asMap());
+        }
+
+        final Map<String, String> result = new LinkedHashMap<>();
+        final Set<String> unresolved = new LinkedHashSet<>();
+        for (String identifier : identifiers) {
+            final String uri = cache.getUri(project.getId(), identifier);
+            if (uri != null) {
+                result.put(identifier, uri);
+            } else {
+                unresolved.add(identifier);
+            }
+        }
+        if (!unresolved.isEmpty()) {
+            final Map<String, String> resolved = getUrisForIdentifiers(project, unresolved).asMap();
+            resolved.forEach((identifier, uri) -> {
+                result.put(identifier, uri);
+                cache.put(project.getId(), identifier, uri);
+            });
+        }
+        return orderedBy(identifiers, result);
+    }
+
+    /**
+     * Find metadata identifiers for given URIs.
+     *
+     * @param project project where to search for the metadata
+     * @param uris    URIs of the metadata
+     * @return the map of URIs as keys and metadata identifiers as values
+     * @throws com.gooddata.GoodDataException if unable to query metadata
+     * @see #identifiersToUris(Project, Collection)
+     */
+    public Map<String, String> urisToIdentifiers(Project project, Collection<String> uris) {
+        notNull(project, "project");
+        noNullElements(uris, "uris");
+
+        final IdentifierUriCache cache = identifierUriCache;
+        final Map<String, String> result = new LinkedHashMap<>();
+        final Set<String> unresolved = new LinkedHashSet<>();
+        for (String uri : uris) {
+            final String identifier = cache != null ? cache.getIdentifier(project.getId(), uri) : null;
+            if (identifier != null) {
+                result.put(uri, identifier);
+            } else {
+                unresolved.add(uri);
+            }
+        }
+        if (!unresolved.isEmpty()) {
+            final IdentifiersAndUris response;
+            try {
+                response = restTemplate.postForObject(IdentifiersAndUris.URI, new UriToIdentifier(unresolved),
+                        IdentifiersAndUris.class, project.getId());
+            } catch (GoodDataRestException | RestClientException e) {
+                throw new GoodDataException("Unable to get identifiers from URIs.", e);
+            }
+            if (response == null) {
+                throw new GoodDataException("Received empty response from API call.");
+            }
+            response.asMap().forEach((identifier, uri) -> {
+                result.put(uri, identifier);
+                if (cache != null) {
+                    cache.put(project.getId(), identifier, uri);
+                }
+            });
+        }
+        return orderedBy(uris, result);
+    }
+
+    /**
+     * Preloads the {@link #getIdentifierUriCache() identifier cache} with the identifiers and URIs of all
+     * the metadata of given types, so their resolution doesn't need any further request.
+     *
+     * @param project project of the metadata
+     * @param types   types of the metadata to preload
+     * @throws IllegalStateException if the identifier cache is not enabled
+     */
+    @SuppressWarnings("unchecked")
+    public void preloadIdentifierUris(Project project, Class<? extends Queryable>... types) {
+        notNull(project, "project");
+        noNullElements(types, "types");
+        final IdentifierUriCache cache = identifierUriCache;
+        if (cache == null) {
+            throw new IllegalStateException("Identifier cache is not enabled");
+        }
+        for (Class<? extends Queryable> type : types) {
+            for (Entry entry : find(project, type)) {
+                if (entry.getIdentifier() != null && entry.getUri() != null) {
+                    cache.put(project.getId(), entry.getIdentifier(), entry.getUri());
+                }
+            }
+        }
+    }
+
+    private static Map<String, String> orderedBy(final Collection<String> keys, final Map<String, String> values) {
+        final Map<String, String> result = new LinkedHashMap<>();
+        for (String key : keys) {
+            final String value = values.get(key);
+            if (value != null) {
+                result.put(key, value);
+            }
+        }
+        return Collections.unmodifiableMap(result);
     }
 
     /**
@@ -441,15 +982,152 @@ public class MetadataService extends AbstractService {
         if (StringUtils.isEmpty(elementsUri)) {
             return Collections.emptyList();
         }
+        return getAttributeElements(elementsUri, null, null, null);
+    }
+
+    /**
+     * Fetches single page of attribute elements by given display form.
+     *
+     * @param displayForm display form to fetch attributes for
+     * @param offset      offset of the first element
+     * @param limit       maximum number of elements to fetch
+     * @param prefix      prefix of the element titles to filter by, or null to fetch all the elements
+     * @return attribute elements or empty list if there is no link for elements
+     */
+    public List<AttributeElement> getAttributeElements(DisplayForm displayForm, int offset, int limit, String prefix) {
+        notNull(displayForm, "displayForm");
+        if (offset < 0) {
+            throw new IllegalArgumentException("offset must not be negative");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be greater than zero");
+        }
+
+        final String elementsUri = displayForm.getElementsUri();
+        if (StringUtils.isEmpty(elementsUri)) {
+            return Collections.emptyList();
+        }
+        return getAttributeElements(elementsUri, offset, limit, prefix);
+    }
+
+    /**
+     * Iterates over attribute elements by given display form, fetching them page by page. The next page is
+     * fetched in the background while the current one is consumed. The iterator should be closed when
+     * not iterated to the end.
+     *
+     * @param displayForm display form to iterate attributes of
+     * @param prefix      prefix of the element titles to filter by, or null to iterate all the elements
+     * @param pageSize    number of elements fetched by single request
+     * @return iterator of attribute elements, empty if there is no link for elements
+     */
+    public AttributeElementIterator iterateAttributeElements(DisplayForm displayForm, String prefix, int pageSize) {
+        notNull(displayForm, "displayForm");
+
+        final String elementsUri = displayForm.getElementsUri();
+        if (StringUtils.isEmpty(elementsUri)) {
+            return new AttributeElementIterator(
+                    (offset, limit) -> new AttributeElements(Collections.emptyList()), 0, pageSize);
+        }
+        return new AttributeElementIterator(
+                (offset, limit) -> getAttributeElementsPage(elementsUri, offset, limit, prefix), 0, pageSize);
+    }
 
+    /**
+     * Gets index of the attribute elements of given display form, mapping the element titles to the element URIs.
+     * The index is built from all the elements fetched page by page until the total number of the elements
+     * reported by the server is reached, even when the server returns fewer elements per page than requested.
+     * When the caching is enabled by {@link #setAttributeElementIndexCache(AttributeElementIndexCache)}, the index
+     * is built on the first call only and concurrent calls for the same display form wait for the single index being built.
+     * Use {@link #invalidateAttributeElementIndex(DisplayForm)} when the elements change (i.e. after data load).
+     *
+     * @param displayForm display form to index elements of
+     * @return index of the attribute elements, empty if there is no link for elements
+     * @throws com.gooddata.GoodDataException if unable to get the attribute elements
+     */
+    public AttributeElementIndex getAttributeElementIndex(DisplayForm displayForm) {
+        notNull(displayForm, "displayForm");
+        final AttributeElementIndexCache cache = attributeElementIndexCache;
+        if (cache == null) {
+            return buildAttributeElementIndex(displayForm);
+        }
+        return cache.get(notNull(displayForm.getUri(), "displayForm.uri"), () -> buildAttributeElementIndex(displayForm));
+    }
+
+    /**
+     * Removes the cached index of the attribute elements of given display form, so it's built again on next
+     * {@link #getAttributeElementIndex(DisplayForm)} call. Does nothing when the caching is disabled.
+     *
+     * @param displayForm display form to invalidate index of
+     */
+    public void invalidateAttributeElementIndex(DisplayForm displayForm) {
+        notNull(displayForm, "displayForm");
+        final AttributeElementIndexCache cache = attributeElementIndexCache;
+        if (cache != null) {
+            cache.invalidate(displayForm);
+        }
+    }
+
+    private AttributeElementIndex buildAttributeElementIndex(final DisplayForm displayForm) {
+        try (AttributeElementIterator elements = iterateAttributeElements(displayForm, null,
+                ATTRIBUTE_ELEMENT_INDEX_PAGE_SIZE)) {
+            return AttributeElementIndex.of(elements);
+        }
+    }
+
+    /**
+     * Fetches the attribute elements of given elements link, the null parameters are not sent.
+     */
+    private List<AttributeElement> getAttributeElements(String elementsUri, Integer offset, Integer limit,
+                                                        String prefix) {
+        return getAttributeElementsPage(elementsUri, offset, limit, prefix).getElements();
+    }
+
+    /**
+     * Fetches the page of attribute elements of given elements link including its paging, the null parameters
+     * are not sent.
+     */
+    private AttributeElements getAttributeElementsPage(String elementsUri, Integer offset, Integer limit,
+                                                       String prefix) {
+        final UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(elementsUri);
+        if (offset != null) {
+            builder.replaceQueryParam("offset", offset);
+        }
+        if (limit != null) {
+            builder.replaceQueryParam("limit", limit);
+        }
+        if (prefix != null) {
+            builder.replaceQueryParam("filter", prefix);
+        }
+        final URI uri = builder.build().encode().toUri();
         try {
-            final AttributeElements attributeElements = restTemplate.getForObject(elementsUri, AttributeElements.class);
-            return attributeElements.getElements();
+            return restTemplate.getForObject(uri, AttributeElements.class);
         } catch (GoodDataRestException | RestClientException e) {
             throw new GoodDataException("Unable to get attribute elements from " + elementsUri + ".", e);
         }
     }
 
+    private void invalidateCaches(final String uri) {
+        final ObjCache cache = objCache;
+        if (cache != null) {
+            cache.invalidate(uri);
+        }
+        final String projectId = Obj.OBJ_TEMPLATE.match(uri).get("projectId");
+        if (projectId != null) {
+            invalidateIndex(projectId);
+            final IdentifierUriCache identifiers = identifierUriCache;
+            if (identifiers != null) {
+                identifiers.removeUri(projectId, uri);
+            }
+        }
+    }
+
+    private void invalidateIndex(final String projectId) {
+        final MetadataIndex index = metadataIndex;
+        if (index != null) {
+            index.invalidate(projectId);
+        }
+    }
+
     private Collection<Entry> filterEntries(Collection<Entry> entries, Restriction... restrictions) {
         if (restrictions == null || restrictions.length == 0) {
             return entries;
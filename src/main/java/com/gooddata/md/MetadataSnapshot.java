@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2004-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.md;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import com.gooddata.project.Project;
+import com.gooddata.util.GoodDataToStringBuilder;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.gooddata.util.Validate.notNull;
+
+/**
+ * Snapshot of the project metadata - the URIs of the metadata objects of the synchronized types with the time
+ * of their last update. The snapshot is serializable to JSON so it can be persisted between the synchronizations,
+ * see {@link MetadataService#sync(Project, MetadataSnapshot, Class[])}.
+ */
+@JsonTypeName("metadataSnapshot")
+@JsonTypeInfo(include = JsonTypeInfo.As.WRAPPER_OBJECT, use = JsonTypeInfo.Id.NAME)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public final class MetadataSnapshot {
+
+    private final String projectId;
+    private final Map<String, Map<String, Long>> entries;
+
+    @JsonCreator
+    MetadataSnapshot(@JsonProperty("projectId") final String projectId,
+                     @JsonProperty("entries") final Map<String, Map<String, Long>> entries) {
+        this.projectId = notNull(projectId, "projectId");
+        this.entries = entries != null ? entries : Collections.emptyMap();
+    }
+
+    /**
+     * @return id of the project of the snapshot
+     */
+    public String getProjectId() {
+        return projectId;
+    }
+
+    /**
+     * @return time of the last update or creation (in milliseconds) of the metadata objects by their URIs by the metadata
+     *         type (i.e. <code>metrics</code>), null time when unknown
+     */
+    public Map<String, Map<String, Long>> getEntries() {
+        return entries;
+    }
+
+    /**
+     * @return number of the metadata objects in the snapshot
+     */
+    @JsonIgnore
+    public int size() {
+        return entries.values().stream().mapToInt(Map::size).sum();
+    }
+
+    /**
+     * @param type metadata type
+     * @return time of the last update of the metadata objects of given type by their URIs
+     */
+    Map<String, Long> getEntries(final String type) {
+        return entries.getOrDefault(type, Collections.emptyMap());
+    }
+
+    /**
+     * @param project project
+     * @return empty snapshot of given project, synchronization against it fetches all the metadata objects
+     */
+    public static MetadataSnapshot empty(final Project project) {
+        notNull(project, "project");
+        return new MetadataSnapshot(notNull(project.getId(), "project.id"), new LinkedHashMap<>());
+    }
+
+    @Override
+    public String toString() {
+        return GoodDataToStringBuilder.defaultToString(this, "entries");
+    }
+}
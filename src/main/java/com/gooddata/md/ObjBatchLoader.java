@@ -0,0 +1,205 @@
+/*
+ * Copyright (C) 2004-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.md;
+
+import com.gooddata.BoundedExecutor;
+import com.gooddata.GoodDataException;
+import com.gooddata.util.GoodDataToStringBuilder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static com.gooddata.util.Validate.notNull;
+
+/**
+ * Batches individual lookups of metadata objects by URI into bulk requests. The lookups of single project arriving
+ * within given time window are collected and fetched by single {@code BulkGet} request once the window elapses
+ * or the batch reaches its maximum size.
+ * <p>
+ * Every lookup gets its own instance of the object, even when the same URI is looked up several times within
+ * the batch. When {@link MetadataService#getObjCache() object cache} is enabled, the fresh cached objects are returned
+ * immediately and the fetched objects are cached.
+ * <p>
+ * The batch windows of all the loaders are timed by single shared thread, the batches are fetched on the shared
+ * {@link BoundedExecutor}, at most two batches of the loader at once.
+ * <p>
+ * Use {@link MetadataService#createObjBatchLoader(int, long, TimeUnit)} to obtain an instance. Closing the loader
+ * fetches the pending batches immediately.
+ */
+public class ObjBatchLoader implements AutoCloseable {
+
+    private static final ScheduledThreadPoolExecutor TIMER = createTimer();
+
+    private final MetadataService service;
+    private final int maxBatchSize;
+    private final long maxDelay;
+    private final BoundedExecutor executor = new BoundedExecutor(2);
+    private final Map<String, Batch> batches = new HashMap<>();
+    private boolean closed;
+
+    ObjBatchLoader(final MetadataService service, final int maxBatchSize, final long maxDelay, final TimeUnit unit) {
+        this.service = notNull(service, "service");
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be greater than zero");
+        }
+        if (maxDelay < 0) {
+            throw new IllegalArgumentException("maxDelay must not be negative");
+        }
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelay = notNull(unit, "unit").toMillis(maxDelay);
+    }
+
+    private static ScheduledThreadPoolExecutor createTimer() {
+        final ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            final Thread thread = new Thread(runnable, "gooddata-obj-batch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    /**
+     * Get metadata object by URI (format is <code>/gdc/md/{PROJECT_ID}/obj/{OBJECT_ID}</code>) within next batch.
+     *
+     * @param uri URI in format <code>/gdc/md/{PROJECT_ID}/obj/{OBJECT_ID}</code>
+     * @param cls class of the resulting object
+     * @param <T> type of the object to be returned
+     * @return future of the metadata object, completed exceptionally with {@link ObjNotFoundException} if
+     *         metadata object not found
+     */
+    public <T extends Obj> CompletableFuture<T> load(final String uri, final Class<T> cls) {
+        notNull(uri, "uri");
+        notNull(cls, "cls");
+        final String projectId = Obj.OBJ_TEMPLATE.match(uri).get("projectId");
+        if (projectId == null) {
+            throw new IllegalArgumentException("Not a metadata object URI: " + uri);
+        }
+
+        final ObjCache cache = service.getObjCache();
+        if (cache != null) {
+            final CachedObj cached = cache.get(uri);
+            if (cached != null && cached.isInstanceOf(cls) && cache.isFresh(cached)) {
+                return CompletableFuture.completedFuture(cached.getObj(cls));
+            }
+        }
+
+        final CompletableFuture<CachedObj> future;
+        Batch full = null;
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Loader is closed");
+            }
+            final Batch batch = batches.computeIfAbsent(projectId, this::newBatch);
+            future = batch.futures.computeIfAbsent(uri, ignored -> new CompletableFuture<>());
+            if (batch.futures.size() >= maxBatchSize) {
+                batches.remove(projectId);
+                full = batch;
+            }
+        }
+        if (full != null) {
+            dispatch(full);
+        }
+        // the fetched object is shared by the lookups of the same URI, so each one gets its own copy
+        return future.thenApply(obj -> {
+            if (!obj.isInstanceOf(cls)) {
+                throw new GoodDataException("Object " + uri + " is " + obj.getType().getSimpleName()
+                        + ", not " + cls.getSimpleName());
+            }
+            return obj.getObj(cls);
+        });
+    }
+
+    /**
+     * Fetches all the pending batches immediately.
+     */
+    @Override
+    public void close() {
+        final List<Batch> pending;
+        synchronized (this) {
+            closed = true;
+            pending = new ArrayList<>(batches.values());
+            batches.clear();
+        }
+        pending.forEach(this::dispatch);
+    }
+
+    private Batch newBatch(final String projectId) {
+        final Batch batch = new Batch(projectId);
+        batch.timer = TIMER.schedule(() -> {
+            synchronized (this) {
+                if (batches.get(projectId) != batch) {
+                    return;
+                }
+                batches.remove(projectId);
+            }
+            executor.execute(() -> fetch(batch));
+        }, maxDelay, TimeUnit.MILLISECONDS);
+        return batch;
+    }
+
+    private void dispatch(final Batch batch) {
+        batch.timer.cancel(false);
+        executor.execute(() -> fetch(batch));
+    }
+
+    private void fetch(final Batch batch) {
+        final Map<String, Obj> objs = new HashMap<>();
+        try {
+            final Collection<Obj> items = service.getObjsByUris(batch.projectId, batch.futures.keySet());
+            for (Obj obj : items) {
+                objs.put(obj.getUri(), obj);
+            }
+        } catch (RuntimeException e) {
+            batch.futures.values().forEach(future -> future.completeExceptionally(e));
+            return;
+        }
+
+        final ObjCache cache = service.getObjCache();
+        final long now = System.currentTimeMillis();
+        batch.futures.forEach((uri, future) -> {
+            final Obj obj = objs.get(uri);
+            if (obj == null) {
+                future.completeExceptionally(new ObjNotFoundException(uri));
+                return;
+            }
+            final CachedObj cached;
+            try {
+                cached = new CachedObj(uri, obj, null, -1, now);
+            } catch (GoodDataException e) {
+                future.completeExceptionally(e);
+                return;
+            }
+            if (cache != null) {
+                cache.put(cached);
+            }
+            future.complete(cached);
+        });
+    }
+
+    @Override
+    public String toString() {
+        return GoodDataToStringBuilder.defaultToString(this, "service", "executor", "batches");
+    }
+
+    private static class Batch {
+        private final String projectId;
+        private final Map<String, CompletableFuture<CachedObj>> futures = new LinkedHashMap<>();
+        private Future<?> timer;
+
+        private Batch(final String projectId) {
+            this.projectId = projectId;
+        }
+    }
+}
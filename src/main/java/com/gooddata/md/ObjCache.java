@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2004-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.md;
+
+/**
+ * Cache of metadata objects used by {@link MetadataService#getObjByUri(String, Class)},
+ * see {@link MetadataService#setObjCache(ObjCache)}.
+ * <p>
+ * Implementations must be thread safe. {@link LruObjCache} is the default implementation.
+ */
+public interface ObjCache {
+
+    /**
+     * @param uri URI of the object
+     * @return cached object of given URI, null if there is no such object cached
+     */
+    CachedObj get(String uri);
+
+    /**
+     * Caches given object, replacing the object of the same URI
+     * @param cached object to cache
+     */
+    void put(CachedObj cached);
+
+    /**
+     * Decides whether the cached object can be returned without revalidation against the server.
+     * @param cached cached object
+     * @return true if the object can be used as it is, false if it should be revalidated
+     */
+    boolean isFresh(CachedObj cached);
+
+    /**
+     * Removes the object of given URI
+     * @param uri URI of the object
+     */
+    void invalidate(String uri);
+
+    /**
+     * Removes all the objects
+     */
+    void invalidateAll();
+}
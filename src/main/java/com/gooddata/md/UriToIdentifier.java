@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2004-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.md;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.gooddata.util.GoodDataToStringBuilder;
+
+import java.util.Collection;
+
+import static com.gooddata.util.Validate.notNull;
+
+/**
+ * Structure with list of URIs to be translated to list of symbolic names (identifiers).
+ * Serialization only.
+ */
+class UriToIdentifier {
+
+    private final Collection<String> uris;
+
+    UriToIdentifier(final Collection<String> uris) {
+        notNull(uris, "uris");
+        this.uris = uris;
+    }
+
+    @JsonProperty("uriToIdentifier")
+    public Collection<String> getUris() {
+        return uris;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        UriToIdentifier that = (UriToIdentifier) o;
+
+        return uris.equals(that.uris);
+    }
+
+    @Override
+    public int hashCode() {
+        return uris.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return GoodDataToStringBuilder.defaultToString(this);
+    }
+}
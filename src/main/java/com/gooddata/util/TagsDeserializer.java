@@ -6,6 +6,7 @@
 package com.gooddata.util;
 
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
 import com.fasterxml.jackson.databind.JsonMappingException;
@@ -13,8 +14,8 @@ import com.fasterxml.jackson.databind.JsonNode;
 
 import java.io.IOException;
 import java.util.HashSet;
-import java.util.Scanner;
 import java.util.Set;
+import java.util.function.Consumer;
 
 import static com.gooddata.util.Validate.notNull;
 
@@ -25,19 +26,40 @@ public class TagsDeserializer extends JsonDeserializer<Set<String>> {
 
     @Override
     public Set<String> deserialize(JsonParser jp, DeserializationContext ctx) throws IOException {
-        final JsonNode root = jp.readValueAsTree();
-        notNull(root, "jsonNode");
-        if (root.isTextual()) {
+        if (jp.getCurrentToken() == JsonToken.VALUE_STRING) {
             final HashSet<String> tags = new HashSet<>();
-            try (final Scanner scanner = new Scanner(root.textValue())) {
-                while (scanner.hasNext()) {
-                    tags.add(scanner.next());
-                }
-            }
+            forEachTag(jp.getText(), tags::add);
             return tags;
         } else {
+            final JsonNode root = jp.readValueAsTree();
+            notNull(root, "jsonNode");
             throw new JsonMappingException(jp, "Unknown value of type: " + root.getNodeType(), jp.getCurrentLocation());
         }
     }
 
+    /**
+     * Splits the whitespace separated tags, passing each of them (including the duplicate ones) to given action.
+     *
+     * @param value  whitespace separated tags
+     * @param action action called for every tag
+     */
+    public static void forEachTag(final String value, final Consumer<String> action) {
+        notNull(value, "value");
+        notNull(action, "action");
+        final int length = value.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && Character.isWhitespace(value.charAt(i))) {
+                i++;
+            }
+            final int start = i;
+            while (i < length && !Character.isWhitespace(value.charAt(i))) {
+                i++;
+            }
+            if (start < i) {
+                action.accept(value.substring(start, i));
+            }
+        }
+    }
+
 }
\ No newline at end of file
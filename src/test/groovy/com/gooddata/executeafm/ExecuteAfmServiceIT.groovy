@@ -7,6 +7,8 @@ package com.gooddata.executeafm
 
 import com.gooddata.GoodDataException
 import com.gooddata.GoodDataITBase
+import com.gooddata.GoodDataSettings
+import com.gooddata.PollIntervalStrategy
 import com.gooddata.executeafm.afm.Afm
 import com.gooddata.executeafm.afm.AttributeItem
 import com.gooddata.executeafm.afm.MeasureItem
@@ -18,6 +20,8 @@ import com.gooddata.project.Project
 import spock.lang.Shared
 import spock.lang.Unroll
 
+import java.util.concurrent.TimeUnit
+
 import static com.gooddata.util.ResourceUtils.OBJECT_MAPPER
 import static com.gooddata.util.ResourceUtils.readObjectFromResource
 import static net.jadler.Jadler.onRequest
@@ -38,6 +42,8 @@ class ExecuteAfmServiceIT extends GoodDataITBase<ExecuteAfmService> {
     private static final String RESULT_QUERY = "$RESULT_QUERY_BASE$RESULT_PAGE"
     private static final String RESULT_URI = "$RESULT_PATH?$RESULT_QUERY"
 
+    GoodDataSettings settings
+
     @Shared
     Project project = readObjectFromResource('/project/project.json', Project)
 
@@ -73,6 +79,61 @@ class ExecuteAfmServiceIT extends GoodDataITBase<ExecuteAfmService> {
         executed?.executionResultUri == RESULT_URI
     }
 
+    def "should use cached AFM execution and result"() {
+        given:
+        service.executionCache = new ExecutionCache(10, 1, TimeUnit.MINUTES)
+        onRequest()
+                .havingMethodEqualTo('POST')
+                .havingPathEqualTo('/gdc/app/projects/PROJECT_ID/executeAfm')
+        .respond()
+                .withBody(OBJECT_MAPPER.writeValueAsString(response))
+                .withStatus(200)
+        onRequest()
+                .havingMethodEqualTo('GET')
+                .havingPathEqualTo(RESULT_PATH)
+        .respond()
+                .withBody(OBJECT_MAPPER.writeValueAsString(new ExecutionResult(new String[0], new Paging([0], [0], [0]))))
+                .withStatus(200)
+
+        when:
+        2.times {
+            service.getResult(service.executeAfm(project, afmExecution)).get()
+        }
+
+        then:
+        verifyThatRequest()
+                .havingMethodEqualTo('POST')
+                .havingPathEqualTo('/gdc/app/projects/PROJECT_ID/executeAfm')
+                .receivedOnce()
+        verifyThatRequest()
+                .havingMethodEqualTo('GET')
+                .havingPathEqualTo(RESULT_PATH)
+                .receivedOnce()
+
+        cleanup:
+        service.executionCache = null
+    }
+
+    def "should use poll interval strategy set after service creation"() {
+        given:
+        def strategy = Mock(PollIntervalStrategy)
+        settings.pollIntervalStrategy = strategy
+        onRequest()
+                .havingMethodEqualTo('GET')
+                .havingPathEqualTo(RESULT_PATH)
+        .respond()
+                .withStatus(202)
+        .thenRespond()
+                .withBody(OBJECT_MAPPER.writeValueAsString(new ExecutionResult(new String[0], new Paging([0], [0], [0]))))
+                .withStatus(200)
+
+        when:
+        service.getResult(response).get()
+
+        then:
+        1 * strategy.nextInterval(1) >> 0
+    }
+
     def "should handle failed AFM execution request"() {
         given:
         onRequest()
@@ -179,6 +240,12 @@ class ExecuteAfmServiceIT extends GoodDataITBase<ExecuteAfmService> {
         ex.message == 'Unable to execute visualization'
     }
 
+    @Override
+    protected GoodDataSettings createGoodDataSettings() {
+        settings = super.createGoodDataSettings()
+        return settings
+    }
+
     @Override
     protected ExecuteAfmService getService() {
         return gd.executeAfmService
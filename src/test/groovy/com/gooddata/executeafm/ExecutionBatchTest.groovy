@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2007-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.executeafm
+
+import com.gooddata.GoodDataException
+import com.gooddata.executeafm.afm.Afm
+import com.gooddata.executeafm.result.ExecutionResult
+import com.gooddata.executeafm.result.Paging
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.function.Function
+
+import static java.util.concurrent.CompletableFuture.completedFuture
+
+class ExecutionBatchTest extends Specification {
+
+    def "should return results in order of completion"() {
+        given:
+        def slowStarted = new CountDownLatch(1)
+        def fastDone = new CountDownLatch(1)
+        def executions = [slow: execution(), fast: execution()]
+        def runner = { Execution execution ->
+            if (execution.is(executions.slow)) {
+                slowStarted.countDown()
+                fastDone.await(5, TimeUnit.SECONDS)
+                return completedFuture(result('slow'))
+            }
+            slowStarted.await(5, TimeUnit.SECONDS)
+            return completedFuture(result('fast'))
+        }
+
+        when:
+        def batch = new ExecutionBatch(executions, runner as Function, 2)
+        def first = batch.next()
+        fastDone.countDown()
+        def second = batch.next()
+
+        then:
+        batch.size() == 2
+        first.key == 'fast'
+        first.result.data[0].textValue() == 'fast'
+        second.key == 'slow'
+        !batch.hasNext()
+    }
+
+    def "should bound concurrency"() {
+        given:
+        def running = new AtomicInteger()
+        def maxRunning = new AtomicInteger()
+        def runner = { Execution execution ->
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math.&max)
+            Thread.sleep(20)
+            running.decrementAndGet()
+            return completedFuture(result('x'))
+        }
+        def executions = (1..6).collectEntries { [(it): execution()] }
+
+        when:
+        def results = new ExecutionBatch(executions, runner as Function, 2).collect()
+
+        then:
+        results*.key.sort() == (1..6).toList()
+        maxRunning.get() <= 2
+    }
+
+    def "should report failed execution"() {
+        given:
+        def runner = { Execution execution -> throw new GoodDataException('failed') }
+
+        when:
+        def result = new ExecutionBatch([a: execution()], runner as Function, 1).next()
+
+        then:
+        !result.success
+        result.exception.message == 'failed'
+
+        when:
+        result.result
+
+        then:
+        thrown(GoodDataException)
+    }
+
+    def "should report failure of each item separately"() {
+        given:
+        def ok = result('ok')
+        def runner = { String item ->
+            switch (item) {
+                case 'ok':
+                    return completedFuture(ok)
+                case 'failed':
+                    throw new IllegalArgumentException('Unable to convert')
+                default:
+                    throw new AssertionError('runner error')
+            }
+        }
+
+        when:
+        def outcomes = new ExecutionBatch([ok: 'ok', failed: 'failed', error: 'error'], runner as Function, 2)
+                .collectEntries { [(it.key): it] }
+
+        then:
+        outcomes.ok.result.is(ok)
+        !outcomes.failed.success
+        outcomes.failed.exception.cause instanceof IllegalArgumentException
+        outcomes.error.exception instanceof GoodDataException
+        outcomes.error.exception.cause instanceof AssertionError
+    }
+
+    def "should report execution completed exceptionally"() {
+        given:
+        def failed = new CompletableFuture()
+        failed.completeExceptionally(new GoodDataException('polling failed'))
+
+        when:
+        def result = new ExecutionBatch([a: execution()], { failed } as Function, 1).next()
+
+        then:
+        !result.success
+        result.exception.message == 'polling failed'
+    }
+
+    def "should fail on invalid parallelism"() {
+        when:
+        new ExecutionBatch([:], { it } as Function, 0)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    private static Execution execution() {
+        new Execution(new Afm())
+    }
+
+    private static ExecutionResult result(String value) {
+        new ExecutionResult([value] as String[], new Paging([1], [0], [1]))
+    }
+}
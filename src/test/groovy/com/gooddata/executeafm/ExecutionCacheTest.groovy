@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2007-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.executeafm
+
+import com.gooddata.executeafm.afm.Afm
+import com.gooddata.executeafm.afm.AttributeItem
+import com.gooddata.executeafm.response.ExecutionResponse
+import com.gooddata.executeafm.result.ExecutionResult
+import com.gooddata.executeafm.result.Paging
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+class ExecutionCacheTest extends Specification {
+
+    private static final String RESULT_URI = '/gdc/app/projects/PROJECT_ID/executionResults/123?q=1'
+
+    ExecutionCache cache = new ExecutionCache(3, 1, TimeUnit.HOURS)
+
+    def "should cache response by canonical execution"() {
+        given:
+        def response = new ExecutionResponse([], RESULT_URI)
+        cache.putResponse('PROJECT_ID', execution('a1'), response)
+
+        expect:
+        cache.getResponse('PROJECT_ID', execution('a1')).is(response)
+        cache.getResponse('PROJECT_ID', execution('a2')) == null
+        cache.getResponse('OTHER_PROJECT', execution('a1')) == null
+    }
+
+    def "should cache result by uri and class"() {
+        given:
+        def result = new ExecutionResult([] as String[], new Paging([0], [0], [0]))
+        cache.putResult(RESULT_URI, result)
+
+        expect:
+        cache.getResult(RESULT_URI, ExecutionResult).is(result)
+        cache.getResult("$RESULT_URI&offset=1" as String, ExecutionResult) == null
+    }
+
+    def "should evict least recently used"() {
+        given:
+        (1..3).each { cache.putResponse('PROJECT_ID', execution("a$it"), new ExecutionResponse([], RESULT_URI)) }
+        cache.getResponse('PROJECT_ID', execution('a1'))
+
+        when:
+        cache.putResponse('PROJECT_ID', execution('a4'), new ExecutionResponse([], RESULT_URI))
+
+        then:
+        cache.size() == 3
+        cache.getResponse('PROJECT_ID', execution('a1')) != null
+        cache.getResponse('PROJECT_ID', execution('a2')) == null
+    }
+
+    def "should invalidate project"() {
+        given:
+        cache.putResponse('PROJECT_ID', execution('a1'), new ExecutionResponse([], RESULT_URI))
+        cache.putResponse('OTHER_PROJECT', execution('a1'), new ExecutionResponse([], RESULT_URI))
+        cache.putResult(RESULT_URI, new ExecutionResult([] as String[], new Paging([0], [0], [0])))
+
+        when:
+        cache.invalidate('PROJECT_ID')
+
+        then:
+        cache.size() == 1
+        cache.getResponse('OTHER_PROJECT', execution('a1')) != null
+    }
+
+    def "should expire entries"() {
+        given:
+        def expiring = new ExecutionCache(3, 1, TimeUnit.MILLISECONDS)
+        expiring.putResponse('PROJECT_ID', execution('a1'), new ExecutionResponse([], RESULT_URI))
+
+        when:
+        sleep(10)
+
+        then:
+        expiring.getResponse('PROJECT_ID', execution('a1')) == null
+    }
+
+    private static Execution execution(String attributeId) {
+        new Execution(new Afm().addAttribute(new AttributeItem(new UriObjQualifier('/gdc/md/PROJECT_ID/obj/1'), attributeId)))
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2007-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.executeafm
+
+import com.gooddata.CompletableFutureResult
+import com.gooddata.FutureResult
+import com.gooddata.executeafm.result.AttributeHeaderItem
+import com.gooddata.executeafm.result.ExecutionResult
+import com.gooddata.executeafm.result.Paging
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.function.Function
+import java.util.function.Supplier
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS
+import static java.util.concurrent.TimeUnit.SECONDS
+
+class ResultRowIteratorTest extends Specification {
+
+    private static final List<List<String>> GRID = [['a', 'b', 'c'], ['d', 'e', 'f'], ['g', 'h', 'i']]
+
+    List<ResultPage> requested = Collections.synchronizedList([])
+
+    def "should iterate two-dimensional result by pages"() {
+        given:
+        def loader = { ResultPage page -> requested << page; future(tile(page)) }
+
+        when:
+        def rows = new ResultRowIterator(loader as Function, 2, 2, 2, 1, 2).collect { it.data.asList()*.textValue() }
+
+        then:
+        rows == GRID
+        requested*.offsets as Set == [[0, 0], [0, 2], [2, 0], [2, 2]] as Set
+    }
+
+    def "should iterate one-dimensional result without prefetch"() {
+        given:
+        def loader = { ResultPage page -> requested << page; column(page) }
+
+        when:
+        def rows = new ResultRowIterator(loader as Function, 1, 2, 2, 0, 1).collect { it.data.textValue() }
+
+        then:
+        rows == ['a', 'd', 'g']
+        requested*.offsets == [[0], [2]]
+    }
+
+    def "should return header items of the first dimension with each row"() {
+        given:
+        def loader = { ResultPage page -> future(tile(page)) }
+
+        when:
+        def headers = new ResultRowIterator(loader as Function, 2, 2, 2, 1, 2).collect { it.headerItems*.name }
+
+        then:
+        headers == [['row0'], ['row1'], ['row2']]
+    }
+
+    def "should fetch at most parallelism tiles at once"() {
+        given:
+        def pending = new LinkedBlockingQueue<List>()
+        def loader = { ResultPage page ->
+            if (page.offsets == [0, 0]) {
+                return future(tile(page))
+            }
+            def tile = new CompletableFuture<ExecutionResult>()
+            pending << [page, tile]
+            new CompletableFutureResult<>(tile, { null } as Supplier)
+        }
+
+        when:
+        def iterator = new ResultRowIterator(loader as Function, 2, 3, 1, 0, 1)
+        def first = pending.poll(5, SECONDS)
+
+        then:
+        first[0].offsets == [0, 1]
+        pending.poll(100, MILLISECONDS) == null
+
+        when:
+        first[1].complete(tile(first[0]))
+        def second = pending.poll(5, SECONDS)
+        second[1].complete(tile(second[0]))
+
+        then:
+        second[0].offsets == [0, 2]
+        iterator.collect { it.data.asList()*.textValue() } == GRID
+    }
+
+    def "should fail on unsupported dimensions"() {
+        when:
+        new ResultRowIterator({ null } as Function, 3, 2, 2, 1, 1)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    private static ExecutionResult tile(ResultPage page) {
+        int row = page.offsets[0], col = page.offsets[1]
+        int rows = Math.min(page.limits[0], GRID.size() - row), cols = Math.min(page.limits[1], GRID.size() - col)
+        String[][] data = (row..<row + rows).collect { i -> GRID[i].subList(col, col + cols) as String[] } as String[][]
+        def result = new ExecutionResult(data, new Paging([rows, cols], [row, col], [GRID.size(), GRID.size()]))
+        result.addHeaderItems([(row..<row + rows).collect { i -> new AttributeHeaderItem("row$i", "/uri/$i") }])
+        result.addHeaderItems([])
+        return result
+    }
+
+    private FutureResult<ExecutionResult> column(ResultPage page) {
+        int row = page.offsets[0]
+        int rows = Math.min(page.limits[0], GRID.size() - row)
+        String[] data = (row..<row + rows).collect { i -> GRID[i][0] } as String[]
+        return future(new ExecutionResult(data, new Paging([rows], [row], [GRID.size()])))
+    }
+
+    private static FutureResult<ExecutionResult> future(ExecutionResult result) {
+        new CompletableFutureResult<>(CompletableFuture.completedFuture(result), { null } as Supplier)
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2007-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.executeafm
+
+import com.gooddata.CompletableFutureResult
+import com.gooddata.FutureResult
+import com.gooddata.GoodDataException
+import com.gooddata.executeafm.result.AttributeHeaderItem
+import com.gooddata.executeafm.result.ExecutionResult
+import com.gooddata.executeafm.result.Paging
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.function.Function
+import java.util.function.Supplier
+
+class ResultTileFetcherTest extends Specification {
+
+    private static final int ROWS = 5
+    private static final int COLUMNS = 3
+
+    Queue<ResultPage> requested = new ConcurrentLinkedQueue<>()
+
+    def "should fetch and assemble tiles"() {
+        given:
+        def loader = { ResultPage page -> requested << page; tile(page) }
+
+        when:
+        ExecutionResult result = new ResultTileFetcher(loader as Function, 2, 2, 3).fetch()
+
+        then:
+        requested.size() == 6
+        result.paging.total == [ROWS, COLUMNS]
+        result.paging.count == [ROWS, COLUMNS]
+        result.data.collect { it.asList()*.textValue() } == (0..<ROWS).collect { r -> (0..<COLUMNS).collect { c -> "$r-$c" as String } }
+        result.headerItems[0][0]*.name == (0..<ROWS).collect { "row$it" as String }
+        result.headerItems[1][0]*.name == (0..<COLUMNS).collect { "col$it" as String }
+    }
+
+    def "should propagate tile failure"() {
+        given:
+        def loader = { ResultPage page ->
+            if (page.offsets == [4, 2]) {
+                def failed = new CompletableFuture<ExecutionResult>()
+                failed.completeExceptionally(new GoodDataException('failed tile'))
+                new CompletableFutureResult<>(failed, { null } as Supplier)
+            } else {
+                tile(page)
+            }
+        }
+
+        when:
+        new ResultTileFetcher(loader as Function, 2, 2, 2).fetch()
+
+        then:
+        def ex = thrown(GoodDataException)
+        ex.message == 'failed tile'
+    }
+
+    private FutureResult<ExecutionResult> tile(ResultPage page) {
+        int row = page.offsets[0], col = page.offsets[1]
+        def rows = (row..<Math.min(ROWS, row + page.limits[0]))
+        def cols = (col..<Math.min(COLUMNS, col + page.limits[1]))
+        String[][] data = rows.collect { r -> cols.collect { c -> "$r-$c" as String } as String[] } as String[][]
+        def result = new ExecutionResult(data, new Paging([rows.size(), cols.size()], [row, col], [ROWS, COLUMNS]))
+        result.addHeaderItems([rows.collect { new AttributeHeaderItem("row$it", "/row/$it") }])
+        result.addHeaderItems([cols.collect { new AttributeHeaderItem("col$it", "/col/$it") }])
+        // tiles are requested from the worker threads, so completed results are used instead of Spock stubs
+        new CompletableFutureResult<>(CompletableFuture.completedFuture(result), { null } as Supplier)
+    }
+}
@@ -5,6 +5,8 @@
  */
 package com.gooddata.executeafm.result
 
+import com.fasterxml.jackson.databind.ObjectMapper
+import nl.jqno.equalsverifier.EqualsVerifier
 import spock.lang.Specification
 
 import static com.gooddata.util.ResourceUtils.readObjectFromResource
@@ -31,4 +33,41 @@ class AttributeHeaderItemTest extends Specification {
         item.name == 'Cost of Goods Sold'
         item.uri == '/gdc/md/FoodMartDemo/obj/124/elements?id=3200'
     }
+
+    def "should intern equal items of single result"() {
+        given:
+        def item = '{"attributeHeaderItem": {"name": "Salaries", "uri": "/gdc/md/FoodMartDemo/obj/124/elements?id=6000"}}'
+        def json = """{"executionResult": {
+            "data": [],
+            "paging": {"count": [0], "offset": [0], "total": [0]},
+            "headerItems": [[[$item, $item]], [[$item]]]
+        }}"""
+
+        when:
+        ExecutionResult result = new ObjectMapper().readValue(json, ExecutionResult)
+
+        then:
+        result.headerItems[0][0][0].is(result.headerItems[0][0][1])
+        result.headerItems[0][0][0].is(result.headerItems[1][0][0])
+        result.headerItems[0][0][0].name == 'Salaries'
+    }
+
+    def "should not share items of different results"() {
+        given:
+        def json = '{"attributeHeaderItem": {"name": "Salaries", "uri": "/gdc/md/FoodMartDemo/obj/124/elements?id=6000"}}'
+        def mapper = new ObjectMapper()
+
+        when:
+        def first = mapper.readValue(json, AttributeHeaderItem)
+        def second = mapper.readValue(json, AttributeHeaderItem)
+
+        then:
+        first == second
+        !first.is(second)
+    }
+
+    def "should verify equals"() {
+        expect:
+        EqualsVerifier.forClass(AttributeHeaderItem).usingGetClass().verify()
+    }
 }
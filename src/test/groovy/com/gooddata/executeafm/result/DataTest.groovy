@@ -5,8 +5,10 @@
  */
 package com.gooddata.executeafm.result
 
+import com.fasterxml.jackson.databind.JsonMappingException
 import spock.lang.Specification
 
+import static com.gooddata.util.ResourceUtils.OBJECT_MAPPER
 
 class DataTest extends Specification {
 
@@ -22,4 +24,23 @@ class DataTest extends Specification {
         data
     }
 
+    def "should deserialize deeply nested"() {
+        when:
+        Data data = OBJECT_MAPPER.readValue('[[["a",null],[]],["b"]]', Data)
+
+        then:
+        data.isList()
+        data.asList()[0].asList()[0].asList() == [new DataValue('a'), Data.NULL]
+        data.asList()[0].asList()[1].asList().isEmpty()
+        data.asList()[1].asList() == [new DataValue('b')]
+    }
+
+    def "should fail on unknown value"() {
+        when:
+        OBJECT_MAPPER.readValue('["a",1]', Data)
+
+        then:
+        def ex = thrown(JsonMappingException)
+        ex.message.contains('Unknown value of type')
+    }
 }
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2007-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.executeafm.result
+
+import spock.lang.Specification
+
+import static com.gooddata.executeafm.result.HeaderItemDictionary.NO_REFERENCE
+
+class HeaderItemDictionaryTest extends Specification {
+
+    private static final String URI = '/gdc/md/FoodMartDemo/obj/124/elements?id='
+
+    HeaderItemDictionary dictionary = new HeaderItemDictionary()
+
+    def "should assign references to distinct items"() {
+        when:
+        def first = dictionary.referenceOf(new AttributeHeaderItem('Salaries', URI + 1))
+        def second = dictionary.referenceOf(new AttributeHeaderItem('Taxes', URI + 2))
+        def again = dictionary.referenceOf(new AttributeHeaderItem('Salaries', URI + 1))
+
+        then:
+        first == 0
+        second == 1
+        again == first
+        dictionary.size() == 2
+        dictionary.get(second).name == 'Taxes'
+    }
+
+    def "should intern to canonical instance"() {
+        given:
+        def canonical = dictionary.intern('Salaries', URI + 1)
+
+        expect:
+        dictionary.intern(new AttributeHeaderItem('Salaries', URI + 1)).is(canonical)
+        !dictionary.intern(new AttributeHeaderItem('Salaries', URI + 2)).is(canonical)
+    }
+
+    def "should encode header"() {
+        when:
+        def references = dictionary.encode([
+                new AttributeHeaderItem('Salaries', URI + 1),
+                new ResultMeasureHeaderItem('Amount', 0),
+                new AttributeHeaderItem('Salaries', URI + 1)
+        ])
+
+        then:
+        references == [0, NO_REFERENCE, 0] as int[]
+    }
+
+    def "should intern items of results"() {
+        given:
+        def first = new ExecutionResult(['1'] as String[], new Paging([1], [0], [2]))
+        first.addHeaderItems([[new AttributeHeaderItem('Salaries', URI + 1)]])
+        def second = new ExecutionResult(['2'] as String[], new Paging([1], [1], [2]))
+        second.addHeaderItems([[new AttributeHeaderItem('Salaries', URI + 1), new ResultTotalHeaderItem('sum')]])
+
+        when:
+        dictionary.intern(first)
+        dictionary.intern(second)
+
+        then:
+        first.headerItems[0][0][0].is(second.headerItems[0][0][0])
+        second.headerItems[0][0][1] instanceof ResultTotalHeaderItem
+        dictionary.size() == 1
+    }
+
+    def "should ignore result without header items"() {
+        given:
+        def result = new ExecutionResult(['1'] as String[], new Paging([1], [0], [1]))
+
+        expect:
+        dictionary.intern(result).headerItems == null
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2007-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.executeafm.result
+
+import com.fasterxml.jackson.databind.JsonMappingException
+import spock.lang.Specification
+
+import static com.gooddata.util.ResourceUtils.OBJECT_MAPPER
+import static com.gooddata.util.ResourceUtils.readObjectFromResource
+
+class NumericDataMatrixTest extends Specification {
+
+    def "should deserialize execution result"() {
+        when:
+        NumericExecutionResult result = readObjectFromResource('/executeafm/result/executionResult.json', NumericExecutionResult)
+
+        then:
+        result.paging.total == [2, 4]
+        result.data.rowCount == 2
+        result.data.columnCount == 4
+        result.data.getDouble(0, 1) == 25315434.8199999d
+        result.data.textValue(1, 3) == '9999'
+        result.data.sumColumn(0) == -12958511.8099999d + 1234
+    }
+
+    def "should deserialize nested with nulls"() {
+        when:
+        NumericDataMatrix data = OBJECT_MAPPER.readValue('[["1.5",null],["3","4"]]', NumericDataMatrix)
+
+        then:
+        !data.oneDimensional
+        data.isNull(0, 1)
+        data.textValue(0, 1) == null
+        Double.isNaN(data.getDouble(0, 1))
+        data.getRow(1) == [3d, 4d] as double[]
+        data.getColumn(0) == [1.5d, 3d] as double[]
+        data.sumColumn(1) == 4d
+    }
+
+    def "should deserialize simple"() {
+        when:
+        NumericDataMatrix data = OBJECT_MAPPER.readValue('["1", null, 2.5]', NumericDataMatrix)
+
+        then:
+        data.oneDimensional
+        data.rowCount == 3
+        data.columnCount == 1
+        data.asList() == [new DataValue('1'), Data.NULL, new DataValue('2.5')]
+    }
+
+    def "should serialize lazily rendered values"() {
+        expect:
+        OBJECT_MAPPER.writeValueAsString(OBJECT_MAPPER.readValue('[["1.50",null],["3","4"]]', NumericDataMatrix)) ==
+                '[["1.5",null],["3","4"]]'
+    }
+
+    def "should fail on rows of different size"() {
+        when:
+        OBJECT_MAPPER.readValue('[["1","2"],["3"]]', NumericDataMatrix)
+
+        then:
+        thrown(JsonMappingException)
+    }
+
+    def "should fail on non-numeric value"() {
+        when:
+        OBJECT_MAPPER.readValue('["a"]', NumericDataMatrix)
+
+        then:
+        thrown(JsonMappingException)
+    }
+}
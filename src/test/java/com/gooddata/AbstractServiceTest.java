@@ -7,6 +7,7 @@ package com.gooddata;
 
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.client.ClientHttpResponse;
@@ -16,8 +17,11 @@ import org.springframework.web.client.RestTemplate;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
@@ -54,4 +58,39 @@ public class AbstractServiceTest {
         PollHandler<?, ?> handler = mock(PollHandler.class);
         service.poll(handler, 5, TimeUnit.SECONDS);
     }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void pollAsyncShouldCompleteWithResult() throws Exception {
+        final PollHandler<?, String> handler = mock(PollHandler.class);
+        when(handler.isDone()).thenReturn(false, false, true);
+        when(handler.getResult()).thenReturn("result");
+
+        final CompletableFuture<String> future = service.pollAsync(handler, 5, TimeUnit.SECONDS);
+
+        assertThat(future.get(5, TimeUnit.SECONDS), is("result"));
+    }
+
+    @Test
+    public void shouldParseRetryAfterSeconds() throws Exception {
+        final HttpHeaders headers = new HttpHeaders();
+        headers.set("Retry-After", "3");
+        assertThat(AbstractService.getRetryAfter(headers), is(3000L));
+    }
+
+    @Test
+    public void shouldIgnoreInvalidRetryAfter() throws Exception {
+        final HttpHeaders headers = new HttpHeaders();
+        headers.set("Retry-After", "foo");
+        assertThat(AbstractService.getRetryAfter(headers), is(0L));
+        assertThat(AbstractService.getRetryAfter(new HttpHeaders()), is(0L));
+    }
+
+    @Test(expectedExceptions = GoodDataException.class, expectedExceptionsMessageRegExp = "foo")
+    public void pollShouldRethrowHandlerException() throws Exception {
+        final PollHandler<?, ?> handler = mock(PollHandler.class);
+        when(handler.isFinished(any(ClientHttpResponse.class))).thenThrow(new GoodDataException("foo"));
+
+        service.poll(handler, 5, TimeUnit.SECONDS);
+    }
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2004-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata;
+
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.testng.Assert.fail;
+
+public class BoundedExecutorTest {
+
+    @Test
+    public void shouldRunAtMostParallelismTasks() throws Exception {
+        final BoundedExecutor executor = new BoundedExecutor(2);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(2);
+        final AtomicInteger running = new AtomicInteger();
+
+        final CompletableFuture<?>[] futures = new CompletableFuture<?>[4];
+        for (int i = 0; i < futures.length; i++) {
+            futures[i] = CompletableFuture.runAsync(() -> {
+                running.incrementAndGet();
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, executor);
+        }
+        assertThat(started.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(running.get(), is(2));
+
+        release.countDown();
+        CompletableFuture.allOf(futures).get(5, TimeUnit.SECONDS);
+        assertThat(running.get(), is(4));
+    }
+
+    @Test
+    public void shouldHoldSlotUntilSubmittedStageCompletes() throws Exception {
+        final BoundedExecutor executor = new BoundedExecutor(1);
+        final CompletableFuture<String> first = new CompletableFuture<>();
+
+        final CompletableFuture<String> firstResult = executor.submit(() -> first);
+        final CompletableFuture<String> secondResult = executor.submit(() -> CompletableFuture.completedFuture("second"));
+        assertThat(secondResult.isDone(), is(false));
+
+        first.complete("first");
+        assertThat(firstResult.get(5, TimeUnit.SECONDS), is("first"));
+        assertThat(secondResult.get(5, TimeUnit.SECONDS), is("second"));
+    }
+
+    @Test
+    public void shouldCompleteSubmittedTaskThrowingError() throws Exception {
+        final BoundedExecutor executor = new BoundedExecutor(1);
+
+        final CompletableFuture<String> failed = executor.submit(() -> {
+            throw new AssertionError("failed");
+        });
+        try {
+            BoundedExecutor.join(failed, "failed");
+            fail("AssertionError expected");
+        } catch (AssertionError e) {
+            assertThat(e.getMessage(), is("failed"));
+        }
+        assertThat(executor.submit(() -> CompletableFuture.completedFuture("next")).get(5, TimeUnit.SECONDS), is("next"));
+    }
+
+    @Test
+    public void shouldCancelRunningStage() throws Exception {
+        final BoundedExecutor executor = new BoundedExecutor(1);
+        final CompletableFuture<String> stage = new CompletableFuture<>();
+        final CountDownLatch started = new CountDownLatch(1);
+
+        final CompletableFuture<String> result = executor.submit(() -> {
+            started.countDown();
+            return stage;
+        });
+        final CountDownLatch cancelled = new CountDownLatch(1);
+        stage.whenComplete((value, e) -> cancelled.countDown());
+        assertThat(started.await(5, TimeUnit.SECONDS), is(true));
+        result.cancel(false);
+
+        assertThat(cancelled.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(stage.isCancelled(), is(true));
+        assertThat(executor.submit(() -> CompletableFuture.completedFuture("next")).get(5, TimeUnit.SECONDS), is("next"));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldFailOnZeroParallelism() throws Exception {
+        new BoundedExecutor(0);
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2004-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata;
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+import org.testng.annotations.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class ExponentialBackoffPollIntervalStrategyTest {
+
+    @Test
+    public void shouldGrowExponentiallyUpToMax() throws Exception {
+        final PollIntervalStrategy strategy = new ExponentialBackoffPollIntervalStrategy(100, 2, 1000);
+
+        assertThat(strategy.nextInterval(1), is(100L));
+        assertThat(strategy.nextInterval(2), is(200L));
+        assertThat(strategy.nextInterval(4), is(800L));
+        assertThat(strategy.nextInterval(5), is(1000L));
+        assertThat(strategy.nextInterval(100), is(1000L));
+    }
+
+    @Test
+    public void shouldApplyJitter() throws Exception {
+        final PollIntervalStrategy strategy = new ExponentialBackoffPollIntervalStrategy(1000, 2, 10000, 0.5);
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(strategy.nextInterval(1), is(allOf(greaterThanOrEqualTo(500L), lessThanOrEqualTo(1500L))));
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldFailOnMaxLowerThanInitial() throws Exception {
+        new ExponentialBackoffPollIntervalStrategy(100, 2, 10);
+    }
+
+    @Test
+    public void shouldVerifyEquals() throws Exception {
+        EqualsVerifier.forClass(ExponentialBackoffPollIntervalStrategy.class).verify();
+    }
+}
@@ -12,6 +12,7 @@ import org.testng.annotations.Test;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertTrue;
@@ -33,6 +34,7 @@ public class GoodDataSettingsTest {
         assertTrue(settings.getSocketTimeout() >= 0);
         assertTrue(settings.getPollSleep() >= 0);
         assertThat(settings.getUserAgent(), is(nullValue()));
+        assertThat(settings.isRequestCoalescing(), is(false));
     }
 
     @Test
@@ -73,6 +75,24 @@ public class GoodDataSettingsTest {
         settings.setMaxConnections(0);
     }
 
+    @Test
+    public void pollIntervalStrategyDefaultsToPollSleep() throws Exception {
+        settings.setPollSleep(42);
+        assertThat(settings.getPollIntervalStrategy(), is((PollIntervalStrategy) new FixedPollIntervalStrategy(42)));
+        assertThat(settings.getPollIntervalStrategy(), is(sameInstance(settings.getPollIntervalStrategy())));
+        assertThat(settings.isPollIntervalStrategySet(), is(false));
+
+        final PollIntervalStrategy strategy = new ExponentialBackoffPollIntervalStrategy(10, 2, 100);
+        settings.setPollIntervalStrategy(strategy);
+        settings.setPollSleep(10);
+        assertThat(settings.getPollIntervalStrategy(), is(strategy));
+        assertThat(settings.isPollIntervalStrategySet(), is(true));
+
+        settings.setPollIntervalStrategy(null);
+        assertThat(settings.getPollIntervalStrategy(), is((PollIntervalStrategy) new FixedPollIntervalStrategy(10)));
+        assertThat(settings.isPollIntervalStrategySet(), is(false));
+    }
+
     @Test
     public void customUserAgentShouldBePrefixOfDefault() {
         GoodDataSettings goodDataSettings = new GoodDataSettings();
@@ -84,6 +104,7 @@ public class GoodDataSettingsTest {
     public void shouldVerifyEquals() throws Exception {
         EqualsVerifier.forClass(GoodDataSettings.class)
                 .usingGetClass()
+                .withPrefabValues(PollIntervalStrategy.class, new FixedPollIntervalStrategy(1), new FixedPollIntervalStrategy(2))
                 .suppress(Warning.NONFINAL_FIELDS)
                 .verify();
     }
@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2004-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata;
+
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.testng.Assert.fail;
+
+public class PollSchedulerTest {
+
+    private final PollScheduler scheduler = new PollScheduler(BoundedExecutor.workers());
+
+    @Test
+    public void shouldPollUntilDone() throws Exception {
+        final AtomicInteger polls = new AtomicInteger();
+
+        final CompletableFuture<String> result = scheduler.schedule(() -> polls.incrementAndGet() == 3,
+                () -> "done", attempt -> 1, 0, null);
+
+        assertThat(result.get(5, TimeUnit.SECONDS), is("done"));
+        assertThat(polls.get(), is(3));
+    }
+
+    @Test
+    public void shouldNotBlockPollsByStalledPollRequest() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CompletableFuture<?>[] stalled = new CompletableFuture<?>[8];
+        for (int i = 0; i < stalled.length; i++) {
+            stalled[i] = scheduler.schedule(() -> {
+                try {
+                    return release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return true;
+                }
+            }, () -> null, attempt -> 1, 0, null);
+        }
+
+        try {
+            assertThat(scheduler.schedule(() -> true, () -> "done", attempt -> 1, 0, null).get(1, TimeUnit.SECONDS),
+                    is("done"));
+        } finally {
+            release.countDown();
+        }
+        CompletableFuture.allOf(stalled).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void shouldFailOnTimeout() throws Exception {
+        final CompletableFuture<String> result = scheduler.schedule(() -> false, () -> "done", attempt -> 10,
+                1, TimeUnit.MILLISECONDS);
+
+        try {
+            result.get(5, TimeUnit.SECONDS);
+            fail("timeout expected");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause().getMessage(), is("timeout"));
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2004-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.StreamUtils;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SingleFlightRequestInterceptorTest {
+
+    private static final URI URI = java.net.URI.create("/gdc");
+    private static final byte[] BODY = "{\"about\":{}}".getBytes(StandardCharsets.UTF_8);
+
+    private SingleFlightRequestInterceptor interceptor;
+    private ClientHttpRequestExecution execution;
+    private CountDownLatch executing;
+    private CountDownLatch release;
+    private CountDownLatch joined;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        joined = new CountDownLatch(1);
+        interceptor = new SingleFlightRequestInterceptor(joined::countDown);
+        execution = mock(ClientHttpRequestExecution.class);
+        executing = new CountDownLatch(1);
+        release = new CountDownLatch(1);
+    }
+
+    @Test
+    public void shouldShareJsonResponseOfConcurrentIdenticalRequests() throws Exception {
+        when(execution.execute(any(HttpRequest.class), any(byte[].class))).thenAnswer(invocation -> {
+            executing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return response(MediaType.APPLICATION_JSON);
+        });
+
+        final CompletableFuture<ClientHttpResponse> first = CompletableFuture.supplyAsync(this::get);
+        executing.await(5, TimeUnit.SECONDS);
+        final CompletableFuture<ClientHttpResponse> second = CompletableFuture.supplyAsync(this::get);
+        assertThat(joined.await(5, TimeUnit.SECONDS), is(true));
+        release.countDown();
+
+        assertThat(StreamUtils.copyToByteArray(first.get().getBody()), is(BODY));
+        assertThat(StreamUtils.copyToByteArray(second.get().getBody()), is(BODY));
+        assertThat(first.get(), is(not(sameInstance(second.get()))));
+        verify(execution, times(1)).execute(any(HttpRequest.class), any(byte[].class));
+        assertThat(interceptor.size(), is(0));
+    }
+
+    @Test
+    public void shouldNotShareNonJsonResponse() throws Exception {
+        when(execution.execute(any(HttpRequest.class), any(byte[].class))).thenAnswer(invocation -> {
+            executing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return response(MediaType.APPLICATION_OCTET_STREAM);
+        });
+
+        final CompletableFuture<ClientHttpResponse> first = CompletableFuture.supplyAsync(this::get);
+        executing.await(5, TimeUnit.SECONDS);
+        final CompletableFuture<ClientHttpResponse> second = CompletableFuture.supplyAsync(this::get);
+        assertThat(joined.await(5, TimeUnit.SECONDS), is(true));
+        release.countDown();
+
+        first.get();
+        second.get();
+        verify(execution, times(2)).execute(any(HttpRequest.class), any(byte[].class));
+    }
+
+    @Test
+    public void shouldNotBufferResponseWithoutWaiters() throws Exception {
+        final ClientHttpResponse response = response(MediaType.APPLICATION_JSON);
+        when(execution.execute(any(HttpRequest.class), any(byte[].class))).thenReturn(response);
+
+        assertThat(interceptor.intercept(request(HttpMethod.GET), new byte[0], execution), is(sameInstance(response)));
+        verify(response, never()).getBody();
+        assertThat(interceptor.size(), is(0));
+    }
+
+    @Test
+    public void shouldNotMergeOtherThanGet() throws Exception {
+        final ClientHttpResponse response = response(MediaType.APPLICATION_JSON);
+        when(execution.execute(any(HttpRequest.class), any(byte[].class))).thenReturn(response);
+
+        assertThat(interceptor.intercept(request(HttpMethod.POST), BODY, execution), is(sameInstance(response)));
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void shouldPropagateFailure() throws Exception {
+        when(execution.execute(any(HttpRequest.class), any(byte[].class))).thenThrow(new IOException("failed"));
+
+        interceptor.intercept(request(HttpMethod.GET), new byte[0], execution);
+    }
+
+    private ClientHttpResponse get() {
+        try {
+            return interceptor.intercept(request(HttpMethod.GET), new byte[0], execution);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static HttpRequest request(final HttpMethod method) {
+        final HttpRequest request = mock(HttpRequest.class);
+        when(request.getMethod()).thenReturn(method);
+        when(request.getURI()).thenReturn(URI);
+        when(request.getHeaders()).thenReturn(new HttpHeaders());
+        return request;
+    }
+
+    private static ClientHttpResponse response(final MediaType contentType) throws IOException {
+        final HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(contentType);
+        final ClientHttpResponse response = mock(ClientHttpResponse.class);
+        when(response.getRawStatusCode()).thenReturn(200);
+        when(response.getStatusText()).thenReturn("OK");
+        when(response.getHeaders()).thenReturn(headers);
+        when(response.getBody()).thenReturn(new ByteArrayInputStream(BODY));
+        return response;
+    }
+}
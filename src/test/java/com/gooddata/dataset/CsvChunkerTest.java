@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2004-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.dataset;
+
+import org.apache.commons.io.IOUtils;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+public class CsvChunkerTest {
+
+    private static final String CSV = "id,name\n1,foo\n2,bar\n3,baz\n";
+
+    @Test
+    public void shouldSplitAtRowBoundaries() throws Exception {
+        assertThat(chunks(CSV, 16, 0), contains("id,name\n1,foo\n", "id,name\n2,bar\n", "id,name\n3,baz\n"));
+    }
+
+    @Test
+    public void shouldKeepWholeCsvInSingleChunk() throws Exception {
+        assertThat(chunks(CSV, 1024, 0), contains(CSV));
+    }
+
+    @Test
+    public void shouldNotSplitQuotedLineBreak() throws Exception {
+        assertThat(chunks("id,name\n1,\"f\no\"\n2,bar\n", 20, 0),
+                contains("id,name\n1,\"f\no\"\n", "id,name\n2,bar\n"));
+    }
+
+    @Test
+    public void shouldGrowForLongRow() throws Exception {
+        assertThat(chunks("id,name\n1,foooooooooooooo\n2,bar\n", 10, 0),
+                contains("id,name\n1,foooooooooooooo\n2,bar\n"));
+    }
+
+    @Test
+    public void shouldIncludeLastRowWithoutLineBreak() throws Exception {
+        assertThat(chunks("id,name\n1,foo\n2,bar", 16, 0), contains("id,name\n1,foo\n", "id,name\n2,bar"));
+    }
+
+    @Test
+    public void shouldReturnHeaderOfEmptyCsv() throws Exception {
+        assertThat(chunks("id,name\n", 16, 0), contains("id,name\n"));
+    }
+
+    @Test
+    public void shouldCopyChunks() throws Exception {
+        final CsvChunker chunker = new CsvChunker(new ByteArrayInputStream(CSV.getBytes(UTF_8)), 16, 0);
+        final byte[] first = chunker.nextCopy();
+        final byte[] second = chunker.nextCopy();
+        assertThat(new String(first, UTF_8), is("id,name\n1,foo\n"));
+        assertThat(new String(second, UTF_8), is("id,name\n2,bar\n"));
+    }
+
+    @Test
+    public void shouldResumeBehindOffset() throws Exception {
+        final CsvChunker chunker = new CsvChunker(new ByteArrayInputStream(CSV.getBytes(UTF_8)), 16, 0);
+        chunker.next();
+        final long offset = chunker.getOffset();
+        assertThat(offset, is(14L));
+
+        assertThat(chunks(CSV, 16, offset), contains("id,name\n2,bar\n", "id,name\n3,baz\n"));
+    }
+
+    @Test
+    public void shouldComputeSameChecksumWhenResumed() throws Exception {
+        final CsvChunker chunker = new CsvChunker(new ByteArrayInputStream(CSV.getBytes(UTF_8)), 16, 0);
+        chunker.next();
+        final CsvChunker resumed = new CsvChunker(new ByteArrayInputStream(CSV.getBytes(UTF_8)), 16, chunker.getOffset());
+        final CsvChunker changed = new CsvChunker(new ByteArrayInputStream(CSV.replace("foo", "fob").getBytes(UTF_8)),
+                16, chunker.getOffset());
+
+        assertThat(resumed.getChecksum(), is(chunker.getChecksum()));
+        assertThat(changed.getChecksum(), is(not(chunker.getChecksum())));
+    }
+
+    @Test
+    public void shouldReturnNothingWhenResumedAtEnd() throws Exception {
+        assertThat(chunks(CSV, 16, CSV.length()).isEmpty(), is(true));
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void shouldFailWhenResumedBehindEnd() throws Exception {
+        chunks(CSV, 16, CSV.length() + 1);
+    }
+
+    private static List<String> chunks(final String csv, final int chunkSize, final long offset) throws IOException {
+        final List<String> chunks = new ArrayList<>();
+        try (CsvChunker chunker = new CsvChunker(new ByteArrayInputStream(csv.getBytes(UTF_8)), chunkSize, offset)) {
+            ByteArrayInputStream chunk;
+            while ((chunk = chunker.next()) != null) {
+                chunks.add(IOUtils.toString(chunk, UTF_8));
+            }
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2004-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.dataset;
+
+import org.apache.commons.io.IOUtils;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.testng.Assert.fail;
+
+public class CsvValidatingInputStreamTest {
+
+    private static final DatasetManifest MANIFEST = new DatasetManifest("dataset.person", "person.csv", asList(
+            part("id"), part("name")));
+
+    @DataProvider
+    public Object[][] validCsv() {
+        return new Object[][]{
+                {"id,name\n1,foo\n2,bar\n"},
+                {"name,id\n1,foo\n"},
+                {"id,name\r\n1,foo\r\n2,bar"},
+                {"id,name\n1,\"f,o\no\"\n2,\"say \"\"hi\"\"\"\n"},
+                {"id,name\n1,\n2,\"\"\n"},
+                {"\"id\",\"name\"\n1,příliš žluťoučký 😀\n"},
+                {"id,name\n"},
+                {"\uFEFFid,name\n1,foo\n"},
+                {"\uFEFF\"id\",\"name\"\n1,foo\n"},
+                {"id,name\n1,foo\n\n"},
+                {"id,name\r\n1,foo\r\n\r\n"},
+        };
+    }
+
+    @Test(dataProvider = "validCsv")
+    public void shouldPassValidCsv(final String csv) throws Exception {
+        assertThat(read(csv.getBytes(UTF_8), MANIFEST), is(csv));
+    }
+
+    @DataProvider
+    public Object[][] invalidCsv() {
+        return new Object[][]{
+                {"id,name\n1,foo\n2\n", "row 3: expected 2 values but got 1"},
+                {"id,name\n1,foo,bar\n", "row 2: expected 2 values but got 3"},
+                {"id,title\n1,foo\n", "row 1: header doesn't match the manifest, missing columns [name], unexpected columns [title]"},
+                {"id,name,id\n", "row 1: duplicate column id"},
+                {"id,name\n1,fo\"o\n", "row 2: unexpected quote in unquoted value"},
+                {"id,name\n1,\"foo\"bar\n", "row 2: unexpected character behind closing quote"},
+                {"id,name\n1,\"foo\n", "row 2: unterminated quoted value"},
+                {"", "row 1: missing header"},
+                {"id,name\n\n1,foo\n", "row 2: empty row"},
+        };
+    }
+
+    @Test(dataProvider = "invalidCsv")
+    public void shouldFailInvalidCsv(final String csv, final String message) throws Exception {
+        try {
+            read(csv.getBytes(UTF_8), MANIFEST);
+            fail("CsvValidationException expected");
+        } catch (CsvValidationException e) {
+            assertThat(e.getMessage(), containsString(message));
+        }
+    }
+
+    @Test
+    public void shouldFailInvalidEncoding() throws Exception {
+        final byte[] csv = {'i', 'd', ',', 'n', 'a', 'm', 'e', '\n', '1', ',', (byte) 0xC3, '\n'};
+        try {
+            read(csv, MANIFEST);
+            fail("CsvValidationException expected");
+        } catch (CsvValidationException e) {
+            assertThat(e.getRow(), is(2L));
+            assertThat(e.getMessage(), containsString("invalid UTF-8 sequence"));
+        }
+    }
+
+    @Test(expectedExceptions = CsvValidationException.class)
+    public void shouldFailEncodedSurrogate() throws Exception {
+        read(new byte[]{'i', 'd', '\n', (byte) 0xED, (byte) 0xA0, (byte) 0x80, '\n'}, new DatasetManifest("dataset"));
+    }
+
+    @Test
+    public void shouldNotCheckHeaderWithoutParts() throws Exception {
+        final String csv = "a,b,c\n1,2,3\n";
+        assertThat(read(csv.getBytes(UTF_8), new DatasetManifest("dataset")), is(csv));
+    }
+
+    @Test
+    public void shouldValidateReadByteByByte() throws Exception {
+        final CsvValidatingInputStream stream = new CsvValidatingInputStream(
+                new ByteArrayInputStream("id,name\n1\n".getBytes(UTF_8)), MANIFEST);
+        try {
+            while (stream.read() != -1) {
+                // read all
+            }
+            fail("CsvValidationException expected");
+        } catch (CsvValidationException e) {
+            assertThat(e.getRow(), is(2L));
+        }
+    }
+
+    private static String read(final byte[] csv, final DatasetManifest manifest) throws IOException {
+        try (CsvValidatingInputStream stream = new CsvValidatingInputStream(new ByteArrayInputStream(csv), manifest)) {
+            return IOUtils.toString(stream, UTF_8);
+        }
+    }
+
+    private static DatasetManifest.Part part(final String columnName) {
+        final List<String> populates = singletonList("label.person." + columnName);
+        return new DatasetManifest.Part("FULL", columnName, populates, null, null);
+    }
+}
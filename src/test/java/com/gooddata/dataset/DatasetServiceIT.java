@@ -6,23 +6,34 @@
 package com.gooddata.dataset;
 
 import com.gooddata.AbstractGoodDataIT;
+import com.gooddata.FutureResult;
 import com.gooddata.GoodDataException;
 import com.gooddata.gdc.AboutLinks.Link;
 import com.gooddata.gdc.TaskStatus;
 import com.gooddata.project.Project;
+import net.jadler.Request;
+import org.apache.commons.io.IOUtils;
+import org.hamcrest.Description;
+import org.hamcrest.Matcher;
+import org.hamcrest.TypeSafeMatcher;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.zip.GZIPInputStream;
 
 import static com.gooddata.util.ResourceUtils.OBJECT_MAPPER;
 import static com.gooddata.util.ResourceUtils.readFromResource;
 import static com.gooddata.util.ResourceUtils.readObjectFromResource;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static net.jadler.Jadler.onRequest;
+import static net.jadler.Jadler.verifyThatRequest;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.testng.Assert.fail;
@@ -99,6 +110,202 @@ public class DatasetServiceIT extends AbstractGoodDataIT {
 
     }
 
+    @Test
+    public void shouldLoadDatasetInPartsByPullPerPart() throws Exception {
+        onRequest()
+                .havingPathEqualTo("/gdc/md/PROJECT/tasks/task/ID/status")
+            .respond()
+                .withStatus(200)
+                .withBody(readFromResource("/dataset/pullTaskStatusOk.json"));
+
+        final DatasetManifest manifest = readObjectFromResource("/dataset/datasetManifest.json", DatasetManifest.class);
+        manifest.setUploadMode(UploadMode.INCREMENTAL);
+        final InputStream source = new ByteArrayInputStream("a,b\n1,2\n3,4\n".getBytes(UTF_8));
+
+        gd.getDatasetService().loadDatasetInParts(project, manifest, source, 8, 2).get();
+
+        verifyThatRequest()
+                .havingMethodEqualTo("PUT")
+                .havingPath(endsWith("/part00000/upload_info.json"))
+                .havingBody(allOf(containsString("\"mode\":\"INCREMENTAL\""), not(containsString("\"mode\":\"FULL\""))))
+            .receivedOnce();
+        verifyThatRequest()
+                .havingMethodEqualTo("PUT")
+                .havingPath(endsWith("/part00001/upload_info.json"))
+                .havingBody(allOf(containsString("\"mode\":\"INCREMENTAL\""), not(containsString("\"mode\":\"FULL\""))))
+            .receivedOnce();
+        verifyThatRequest()
+                .havingMethodEqualTo("POST")
+                .havingPathEqualTo("/gdc/md/PROJECT_ID/etl/pull2")
+            .receivedTimes(2);
+    }
+
+    @Test
+    public void shouldDeleteCheckpointWhenChunksLoaded() throws Exception {
+        onRequest()
+                .havingPathEqualTo("/gdc/md/PROJECT/tasks/task/ID/status")
+            .respond()
+                .withStatus(200)
+                .withBody(readFromResource("/dataset/pullTaskStatusOk.json"));
+        final File checkpoint = File.createTempFile("dataset", ".checkpoint");
+        checkpoint.deleteOnExit();
+        assertThat(checkpoint.delete(), is(true));
+
+        final DatasetManifest manifest = readObjectFromResource("/dataset/datasetManifest.json", DatasetManifest.class);
+        manifest.setUploadMode(UploadMode.INCREMENTAL);
+        manifest.setSource(new ByteArrayInputStream("a,b\n1,2\n3,4\n".getBytes(UTF_8)));
+
+        gd.getDatasetService().loadDatasetChunked(project, manifest, 8, checkpoint).get();
+
+        assertThat(checkpoint.exists(), is(false));
+    }
+
+    @Test
+    public void shouldKeepCheckpointWhenChunkLoadFails() throws Exception {
+        onRequest()
+                .havingPathEqualTo("/gdc/md/PROJECT/tasks/task/ID/status")
+            .respond()
+                .withStatus(200)
+                .withBody(readFromResource("/dataset/pullTaskStatusError.json"));
+        final File checkpoint = File.createTempFile("dataset", ".checkpoint");
+        checkpoint.deleteOnExit();
+        assertThat(checkpoint.delete(), is(true));
+
+        final DatasetManifest manifest = readObjectFromResource("/dataset/datasetManifest.json", DatasetManifest.class);
+        manifest.setUploadMode(UploadMode.INCREMENTAL);
+        manifest.setSource(new ByteArrayInputStream("a,b\n1,2\n3,4\n".getBytes(UTF_8)));
+
+        final FutureResult<Void> result = gd.getDatasetService().loadDatasetChunked(project, manifest, 8, checkpoint);
+        try {
+            result.get();
+            fail("DatasetException expected");
+        } catch (DatasetException ignored) {
+            // the ETL pull fails
+        }
+        assertThat(checkpoint.exists(), is(true));
+    }
+
+    @Test
+    public void shouldResumeLoadOfFailedParts() throws Exception {
+        onRequest()
+                .havingPathEqualTo("/gdc/md/PROJECT/tasks/task/ID/status")
+            .respond()
+                .withStatus(200)
+                .withBody(readFromResource("/dataset/pullTaskStatusError.json"))
+            .thenRespond()
+                .withStatus(200)
+                .withBody(readFromResource("/dataset/pullTaskStatusOk.json"));
+
+        final DatasetManifest manifest = readObjectFromResource("/dataset/datasetManifest.json", DatasetManifest.class);
+        manifest.setUploadMode(UploadMode.INCREMENTAL);
+        final InputStream source = new ByteArrayInputStream("a,b\n1,2\n3,4\n".getBytes(UTF_8));
+        final DatasetService service = gd.getDatasetService();
+
+        DatasetPartsException failure = null;
+        try {
+            service.loadDatasetInParts(project, manifest, source, 8, 1).get();
+            fail("DatasetPartsException expected");
+        } catch (DatasetPartsException e) {
+            failure = e;
+        }
+        assertThat(failure.getParts(), contains(0));
+        verifyThatRequest()
+                .havingMethodEqualTo("DELETE")
+                .havingPath(endsWith("/part00000/"))
+            .receivedNever();
+
+        service.loadDatasetParts(project, manifest, failure, 1).get();
+
+        verifyThatRequest()
+                .havingMethodEqualTo("PUT")
+                .havingPath(endsWith("/part00000/upload_info.json"))
+            .receivedTimes(2);
+        verifyThatRequest()
+                .havingMethodEqualTo("PUT")
+                .havingPath(endsWith("/part00001/upload_info.json"))
+            .receivedOnce();
+        verifyThatRequest()
+                .havingMethodEqualTo("POST")
+                .havingPathEqualTo("/gdc/md/PROJECT_ID/etl/pull2")
+            .receivedTimes(3);
+    }
+
+    @Test
+    public void shouldPullJustFailedChunksOnResume() throws Exception {
+        onRequest()
+                .havingPathEqualTo("/gdc/md/PROJECT/tasks/task/ID/status")
+            .respond()
+                .withStatus(200)
+                .withBody(readFromResource("/dataset/pullTaskStatusError.json"))
+            .thenRespond()
+                .withStatus(200)
+                .withBody(readFromResource("/dataset/pullTaskStatusOk.json"));
+        final File checkpoint = File.createTempFile("dataset", ".checkpoint");
+        checkpoint.deleteOnExit();
+        assertThat(checkpoint.delete(), is(true));
+        final DatasetManifest manifest = readObjectFromResource("/dataset/datasetManifest.json", DatasetManifest.class);
+        manifest.setUploadMode(UploadMode.INCREMENTAL);
+
+        manifest.setSource(new ByteArrayInputStream("a,b\n1,2\n3,4\n".getBytes(UTF_8)));
+        try {
+            gd.getDatasetService().loadDatasetChunked(project, manifest, 8, checkpoint).get();
+            fail("DatasetPartsException expected");
+        } catch (DatasetPartsException e) {
+            assertThat(e.getParts(), contains(0));
+        }
+        manifest.setSource(new ByteArrayInputStream("a,b\n1,2\n3,4\n".getBytes(UTF_8)));
+        gd.getDatasetService().loadDatasetChunked(project, manifest, 8, checkpoint).get();
+
+        verifyThatRequest()
+                .havingMethodEqualTo("PUT")
+                .havingPath(endsWith("/dataset.person.csv"))
+            .receivedTimes(2);
+        verifyThatRequest()
+                .havingMethodEqualTo("PUT")
+                .havingPath(endsWith("/part00000/upload_info.json"))
+            .receivedTimes(2);
+        verifyThatRequest()
+                .havingMethodEqualTo("PUT")
+                .havingPath(endsWith("/part00001/upload_info.json"))
+            .receivedOnce();
+        assertThat(checkpoint.exists(), is(false));
+    }
+
+    @Test
+    public void shouldLoadCompressedDatasetByPullOfGzipFile() throws Exception {
+        onRequest()
+                .havingPathEqualTo("/gdc/md/PROJECT/tasks/task/ID/status")
+            .respond()
+                .withStatus(200)
+                .withBody(readFromResource("/dataset/pullTaskStatusOk.json"));
+
+        final DatasetManifest manifest = readObjectFromResource("/dataset/datasetManifest.json", DatasetManifest.class);
+        final byte[] csv = "a,b\n1,2\n".getBytes(UTF_8);
+        final DatasetService service = gd.getDatasetService();
+        service.setCompressUploads(true);
+
+        service.loadDataset(project, manifest, new ByteArrayInputStream(csv)).get();
+
+        verifyThatRequest()
+                .havingMethodEqualTo("PUT")
+                .havingPath(endsWith("/dataset.person.csv.gz"))
+                .that(gzipOf(csv))
+            .receivedOnce();
+        verifyThatRequest()
+                .havingMethodEqualTo("PUT")
+                .havingPath(endsWith("/upload_info.json"))
+                .havingBody(containsString("\"file\":\"dataset.person.csv.gz\""))
+            .receivedOnce();
+        verifyThatRequest()
+                .havingMethodEqualTo("PUT")
+                .havingPath(endsWith("/dataset.person.csv"))
+            .receivedNever();
+        verifyThatRequest()
+                .havingMethodEqualTo("POST")
+                .havingPathEqualTo("/gdc/md/PROJECT_ID/etl/pull2")
+            .receivedOnce();
+    }
+
     @Test(expectedExceptions = DatasetException.class, expectedExceptionsMessageRegExp = ".*dataset.person.*Unable to load.*")
     public void shouldFailPolling() throws Exception {
         onRequest()
@@ -327,4 +534,22 @@ public class DatasetServiceIT extends AbstractGoodDataIT {
         assertThat(uploadStatistics, notNullValue());
         assertThat(uploadStatistics.getUploadsCount("OK"), is(845));
     }
-}
\ No newline at end of file
+
+    private static Matcher<Request> gzipOf(final byte[] content) {
+        return new TypeSafeMatcher<Request>() {
+            @Override
+            protected boolean matchesSafely(final Request request) {
+                try (InputStream body = new GZIPInputStream(new ByteArrayInputStream(request.getBodyAsBytes()))) {
+                    return Arrays.equals(IOUtils.toByteArray(body), content);
+                } catch (IOException e) {
+                    return false;
+                }
+            }
+
+            @Override
+            public void describeTo(final Description description) {
+                description.appendText("gzip compressed body");
+            }
+        };
+    }
+}
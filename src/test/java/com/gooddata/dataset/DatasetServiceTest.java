@@ -12,7 +12,9 @@ import com.gooddata.gdc.AboutLinks.Link;
 import com.gooddata.gdc.DataStoreException;
 import com.gooddata.gdc.DataStoreService;
 import com.gooddata.project.Project;
+import org.apache.commons.io.IOUtils;
 import org.hamcrest.Matchers;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.web.client.RestClientException;
@@ -20,21 +22,38 @@ import org.springframework.web.client.RestTemplate;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.endsWith;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.testng.Assert.fail;
 
 public class DatasetServiceTest {
 
@@ -125,6 +144,223 @@ public class DatasetServiceTest {
         service.loadDatasets(project, manifest);
     }
 
+    @Test
+    public void testLoadDatasetsWhenOneOfParallelUploadsFails() throws Exception {
+        final InputStream failingStream = mock(InputStream.class);
+        final DatasetManifest failingManifest = mock(DatasetManifest.class);
+        when(manifest.getFile()).thenReturn("dataset.csv");
+        when(manifest.getSource()).thenReturn(stream);
+        when(manifest.getDataSet()).thenReturn(DATASET_ID);
+        when(failingManifest.getFile()).thenReturn("failing.csv");
+        when(failingManifest.getSource()).thenReturn(failingStream);
+        when(failingManifest.getDataSet()).thenReturn("failing");
+        doThrow(DataStoreException.class).when(dataStoreService).upload(anyString(), eq(failingStream));
+
+        try {
+            service.loadDatasets(project, asList(manifest, failingManifest), 2);
+            fail("DatasetException expected");
+        } catch (DatasetException e) {
+            assertThat(e.getDatasets(), contains("failing"));
+        }
+        verify(dataStoreService).delete(startsWith("/" + PROJECT_ID));
+        verify(dataStoreService, never()).upload(endsWith("upload_info.json"), any(InputStream.class));
+    }
+
+    @Test
+    public void testLoadDatasetsUploadsOnCallingThread() throws Exception {
+        final List<Thread> uploadThreads = new ArrayList<>();
+        doAnswer(invocation -> {
+            uploadThreads.add(Thread.currentThread());
+            return null;
+        }).when(dataStoreService).upload(endsWith("dataset.csv"), eq(stream));
+        doThrow(DataStoreException.class).when(dataStoreService).upload(endsWith("upload_info.json"), any(InputStream.class));
+        when(manifest.getFile()).thenReturn("dataset.csv");
+        when(manifest.getSource()).thenReturn(stream);
+        when(manifest.getDataSet()).thenReturn(DATASET_ID);
+
+        try {
+            service.loadDatasets(project, manifest);
+            fail("DatasetException expected");
+        } catch (DatasetException ignored) {
+            // the ETL pull is not part of this test
+        }
+        assertThat(uploadThreads, contains(Thread.currentThread()));
+    }
+
+    @Test
+    public void testLoadDatasetsCompressed() throws Exception {
+        final DatasetManifest datasetManifest = new DatasetManifest(DATASET_ID, stream);
+        datasetManifest.setFile("dataset.csv");
+        doThrow(DataStoreException.class).when(dataStoreService).upload(endsWith("upload_info.json"), any(InputStream.class));
+        service.setCompressUploads(true);
+
+        try {
+            service.loadDatasets(project, datasetManifest);
+            fail("DatasetException expected");
+        } catch (DatasetException ignored) {
+            // the ETL pull is not part of this test
+        }
+        verify(dataStoreService).uploadCompressed(endsWith("/dataset.csv.gz"), eq(stream));
+        verify(dataStoreService, never()).upload(endsWith("/dataset.csv"), any(InputStream.class));
+
+        final ArgumentCaptor<InputStream> manifestJson = ArgumentCaptor.forClass(InputStream.class);
+        verify(dataStoreService).upload(endsWith("upload_info.json"), manifestJson.capture());
+        assertThat(IOUtils.toString(manifestJson.getValue(), UTF_8), containsString("\"file\":\"dataset.csv.gz\""));
+        assertThat(datasetManifest.getFile(), is("dataset.csv"));
+    }
+
+    @Test
+    public void testLoadDatasetsFailsOnInvalidCsv() throws Exception {
+        doAnswer(invocation -> {
+            try {
+                IOUtils.toByteArray((InputStream) invocation.getArguments()[1]);
+            } catch (IOException e) {
+                throw new DataStoreException("Unable to upload", e);
+            }
+            return null;
+        }).when(dataStoreService).upload(anyString(), any(InputStream.class));
+        final DatasetManifest datasetManifest = chunkedManifest();
+        datasetManifest.setSource(new ByteArrayInputStream("id,name\n1\n2,bar\n".getBytes(UTF_8)));
+        service.setValidateUploads(true);
+
+        try {
+            service.loadDatasets(project, datasetManifest);
+            fail("DatasetException expected");
+        } catch (DatasetException e) {
+            assertThat(e.getMessage(), containsString("Invalid CSV at row 2: expected 2 values but got 1"));
+        }
+        verify(dataStoreService, never()).upload(endsWith("upload_info.json"), any(InputStream.class));
+    }
+
+    @Test
+    public void testLoadDatasetChunkedResumesFromCheckpoint() throws Exception {
+        final File checkpoint = File.createTempFile("dataset", ".checkpoint");
+        checkpoint.deleteOnExit();
+        assertThat(checkpoint.delete(), is(true));
+        doThrow(DataStoreException.class).when(dataStoreService).upload(endsWith("part00001/dataset.csv"), any(InputStream.class));
+
+        try {
+            service.loadDatasetChunked(project, chunkedManifest(), 16, checkpoint);
+            fail("DatasetException expected");
+        } catch (DatasetException ignored) {
+            // the second chunk fails to upload
+        }
+        verify(dataStoreService).upload(endsWith("part00000/dataset.csv"), any(InputStream.class));
+        verify(dataStoreService, times(3)).upload(endsWith("part00001/dataset.csv"), any(InputStream.class));
+        verify(dataStoreService, never()).delete(anyString());
+        assertThat(checkpoint.exists(), is(true));
+
+        reset(dataStoreService);
+        doThrow(DataStoreException.class).when(dataStoreService).upload(endsWith("upload_info.json"), any(InputStream.class));
+        try {
+            service.loadDatasetChunked(project, chunkedManifest(), 16, checkpoint).get();
+            fail("DatasetPartsException expected");
+        } catch (DatasetPartsException e) {
+            assertThat(e.getParts(), contains(0, 1));
+        }
+        verify(dataStoreService, never()).upload(endsWith("part00000/dataset.csv"), any(InputStream.class));
+        verify(dataStoreService).upload(endsWith("part00001/dataset.csv"), any(InputStream.class));
+        verify(dataStoreService, never()).delete(anyString());
+        assertThat(checkpoint.exists(), is(true));
+
+        final ArgumentCaptor<InputStream> manifestJson = ArgumentCaptor.forClass(InputStream.class);
+        verify(dataStoreService).upload(endsWith("part00000/upload_info.json"), manifestJson.capture());
+        final String json = IOUtils.toString(manifestJson.getValue(), UTF_8);
+        assertThat(json, containsString("\"file\":\"dataset.csv\""));
+        assertThat(json, containsString("\"mode\":\"INCREMENTAL\""));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testLoadDatasetChunkedFailsOnFullManifest() throws Exception {
+        final DatasetManifest datasetManifest = chunkedManifest();
+        datasetManifest.setUploadMode(UploadMode.FULL);
+
+        service.loadDatasetChunked(project, datasetManifest, 16, new File("dataset.checkpoint"));
+    }
+
+    @Test
+    public void testLoadDatasetChunkedFailsToResumeDifferentSource() throws Exception {
+        final File checkpoint = File.createTempFile("dataset", ".checkpoint");
+        checkpoint.deleteOnExit();
+        assertThat(checkpoint.delete(), is(true));
+        doThrow(DataStoreException.class).when(dataStoreService).upload(endsWith("part00001/dataset.csv"), any(InputStream.class));
+        try {
+            service.loadDatasetChunked(project, chunkedManifest(), 16, checkpoint);
+            fail("DatasetException expected");
+        } catch (DatasetException ignored) {
+            // the second chunk fails to upload
+        }
+
+        reset(dataStoreService);
+        final DatasetManifest changed = chunkedManifest();
+        changed.setSource(new ByteArrayInputStream("id,name\n1,baz\n2,bar\n".getBytes(UTF_8)));
+        try {
+            service.loadDatasetChunked(project, changed, 16, checkpoint);
+            fail("DatasetException expected");
+        } catch (DatasetException e) {
+            assertThat(e.getMessage(), containsString("Source differs"));
+        }
+        verify(dataStoreService, never()).upload(anyString(), any(InputStream.class));
+        assertThat(checkpoint.exists(), is(true));
+    }
+
+    @Test
+    public void testLoadDatasetInParts() throws Exception {
+        doThrow(DataStoreException.class).when(dataStoreService).upload(endsWith("upload_info.json"), any(InputStream.class));
+        final DatasetManifest datasetManifest = chunkedManifest();
+
+        try {
+            service.loadDatasetInParts(project, datasetManifest,
+                    new ByteArrayInputStream("id,name\n1,foo\n2,bar\n3,baz\n".getBytes(UTF_8)), 16, 2).get();
+            fail("DatasetPartsException expected");
+        } catch (DatasetPartsException e) {
+            assertThat(e.getDatasets(), contains(DATASET_ID));
+            assertThat(e.getParts(), contains(0, 1, 2));
+            assertThat(e.getDirPath(), startsWith("/" + PROJECT_ID));
+        }
+        verify(dataStoreService).upload(endsWith("part00000/dataset.csv"), any(InputStream.class));
+        verify(dataStoreService).upload(endsWith("part00001/dataset.csv"), any(InputStream.class));
+        verify(dataStoreService).upload(endsWith("part00002/dataset.csv"), any(InputStream.class));
+
+        // the pull of every part is attempted, the failed parts are kept in the staging area
+        verify(dataStoreService).upload(endsWith("part00000/upload_info.json"), any(InputStream.class));
+        verify(dataStoreService).upload(endsWith("part00001/upload_info.json"), any(InputStream.class));
+        verify(dataStoreService).upload(endsWith("part00002/upload_info.json"), any(InputStream.class));
+        verify(dataStoreService, never()).delete(anyString());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testLoadDatasetInPartsFailsOnFullManifest() throws Exception {
+        final DatasetManifest datasetManifest = chunkedManifest();
+        datasetManifest.setUploadMode(UploadMode.FULL);
+
+        service.loadDatasetInParts(project, datasetManifest,
+                new ByteArrayInputStream("id,name\n1,foo\n".getBytes(UTF_8)), 16, 2);
+    }
+
+    @Test
+    public void testLoadDatasetInPartsWhenPartUploadFails() throws Exception {
+        doThrow(DataStoreException.class).when(dataStoreService).upload(endsWith("part00001/dataset.csv"), any(InputStream.class));
+
+        try {
+            service.loadDatasetInParts(project, chunkedManifest(),
+                    new ByteArrayInputStream("id,name\n1,foo\n2,bar\n3,baz\n".getBytes(UTF_8)), 16, 2);
+            fail("DatasetException expected");
+        } catch (DatasetException e) {
+            assertThat(e.getDatasets(), contains(DATASET_ID));
+        }
+        verify(dataStoreService).delete(startsWith("/" + PROJECT_ID));
+        verify(dataStoreService, never()).upload(endsWith("upload_info.json"), any(InputStream.class));
+    }
+
+    private static DatasetManifest chunkedManifest() {
+        final DatasetManifest manifest = new DatasetManifest(DATASET_ID, "dataset.csv", asList(
+                new DatasetManifest.Part("INCREMENTAL", "id", singletonList("label.dataset.id"), null, null),
+                new DatasetManifest.Part("INCREMENTAL", "name", singletonList("label.dataset.name"), null, null)));
+        manifest.setSource(new ByteArrayInputStream("id,name\n1,foo\n2,bar\n".getBytes(UTF_8)));
+        return manifest;
+    }
+
     @Test(expectedExceptions = IllegalArgumentException.class)
     public void testLoadDatasetByIdWithNullProject() throws Exception {
         service.loadDataset(null, DATASET_ID, stream);
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2007-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.executeafm.result;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static java.util.Spliterators.spliteratorUnknownSize;
+import static java.util.stream.StreamSupport.stream;
+
+/**
+ * Compares deserialization of large two-dimensional result data: the former tree based {@link Data} deserializer,
+ * the token streaming {@link Data.DataDeserializer} and the primitive {@link NumericDataMatrix}.
+ * <p>
+ * Run the {@link #main(String[])} method from the test classpath, the allocation rate per operation is reported
+ * by the GC profiler ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataDeserializerBenchmark {
+
+    @Param({"100", "1000"})
+    private int rows;
+
+    @Param({"100"})
+    private int columns;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final ObjectMapper treeMapper = new ObjectMapper().addMixIn(Data.class, TreeDataMixin.class);
+
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        final Random random = new Random(42);
+        final String[][] data = new String[rows][columns];
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                data[row][column] = random.nextInt(10) == 0 ? null : String.valueOf(random.nextDouble() * 1_000_000);
+            }
+        }
+        json = mapper.writeValueAsBytes(data);
+    }
+
+    @Benchmark
+    public Data tree() throws IOException {
+        return treeMapper.readValue(json, Data.class);
+    }
+
+    @Benchmark
+    public Data streaming() throws IOException {
+        return mapper.readValue(json, Data.class);
+    }
+
+    @Benchmark
+    public NumericDataMatrix numeric() throws IOException {
+        return mapper.readValue(json, NumericDataMatrix.class);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DataDeserializerBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()
+        ).run();
+    }
+
+    @JsonDeserialize(using = TreeDataDeserializer.class)
+    private interface TreeDataMixin {
+    }
+
+    /**
+     * The former implementation of {@link Data.DataDeserializer} reading the whole JSON tree first
+     */
+    static class TreeDataDeserializer extends JsonDeserializer<Data> {
+        @Override
+        public Data deserialize(final JsonParser jp, final DeserializationContext ctxt) throws IOException {
+            final JsonNode root = jp.readValueAsTree();
+            if (root.isArray()) {
+                final List<Data> list = stream(spliteratorUnknownSize(root.elements(), Spliterator.ORDERED), false)
+                        .map(elem -> {
+                            try {
+                                return ctxt.readValue(elem.traverse(jp.getCodec()), Data.class);
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        }).collect(Collectors.toList());
+                return new DataList(list);
+            } else if (root.isTextual()) {
+                return new DataValue(root.textValue());
+            } else if (root.isNull()) {
+                return Data.NULL;
+            } else {
+                throw JsonMappingException.from(jp, "Unknown value of type: " + root.getNodeType());
+            }
+        }
+
+        @Override
+        public Data getNullValue(final DeserializationContext ctxt) throws JsonMappingException {
+            return Data.NULL;
+        }
+    }
+}
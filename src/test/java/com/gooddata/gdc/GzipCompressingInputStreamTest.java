@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2004-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.gdc;
+
+import org.apache.commons.io.IOUtils;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class GzipCompressingInputStreamTest {
+
+    @Test
+    public void shouldCompressEmptyStream() throws Exception {
+        assertThat(roundTrip(new byte[0]), is(new byte[0]));
+    }
+
+    @Test
+    public void shouldCompressText() throws Exception {
+        final byte[] csv = "id,name\n1,foo\n2,bar\n".getBytes("UTF-8");
+        assertThat(roundTrip(csv), is(csv));
+    }
+
+    @Test
+    public void shouldCompressStreamLargerThanBuffer() throws Exception {
+        final byte[] data = new byte[100_000];
+        new Random(42).nextBytes(data);
+        assertThat(roundTrip(data), is(data));
+    }
+
+    @Test
+    public void shouldCompressReadByteByByte() throws Exception {
+        final byte[] csv = "id,name\n1,foo\n2,bar\n".getBytes("UTF-8");
+        final GzipCompressingInputStream compressing = new GzipCompressingInputStream(new ByteArrayInputStream(csv));
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        int b;
+        while ((b = compressing.read()) != -1) {
+            compressed.write(b);
+        }
+        assertThat(IOUtils.toByteArray(new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray()))), is(csv));
+    }
+
+    @Test
+    public void shouldCloseSource() throws Exception {
+        final InputStream source = mock(InputStream.class);
+        new GzipCompressingInputStream(source).close();
+        verify(source).close();
+    }
+
+    private static byte[] roundTrip(final byte[] data) throws IOException {
+        try (InputStream compressed = new GzipCompressingInputStream(new ByteArrayInputStream(data))) {
+            return IOUtils.toByteArray(new GZIPInputStream(new ByteArrayInputStream(IOUtils.toByteArray(compressed))));
+        }
+    }
+}
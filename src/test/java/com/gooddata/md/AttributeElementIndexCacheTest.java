@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2004-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.md;
+
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.testng.Assert.fail;
+
+public class AttributeElementIndexCacheTest {
+
+    private static final String URI = "/gdc/md/PROJECT_ID/obj/1";
+    private static final String URI2 = "/gdc/md/PROJECT_ID/obj/2";
+    private static final String URI3 = "/gdc/md/PROJECT_ID/obj/3";
+
+    private final AtomicInteger builds = new AtomicInteger();
+
+    @Test
+    public void shouldBuildIndexOnce() throws Exception {
+        final AttributeElementIndexCache cache = new AttributeElementIndexCache(2, 1, TimeUnit.HOURS);
+        builds.set(0);
+
+        final AttributeElementIndex index = cache.get(URI, this::build);
+
+        assertThat(cache.get(URI, this::build), is(sameInstance(index)));
+        assertThat(builds.get(), is(1));
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsed() throws Exception {
+        final AttributeElementIndexCache cache = new AttributeElementIndexCache(2, 1, TimeUnit.HOURS);
+        final AttributeElementIndex index = cache.get(URI, this::build);
+        cache.get(URI2, this::build);
+        cache.get(URI, this::build);
+        cache.get(URI3, this::build);
+
+        assertThat(cache.size(), is(2));
+        assertThat(cache.get(URI, this::build), is(sameInstance(index)));
+    }
+
+    @Test
+    public void shouldRebuildInvalidatedIndex() throws Exception {
+        final AttributeElementIndexCache cache = new AttributeElementIndexCache(2, 1, TimeUnit.HOURS);
+        final AttributeElementIndex index = cache.get(URI, this::build);
+
+        cache.invalidate(URI);
+
+        assertThat(cache.size(), is(0));
+        assertThat(cache.get(URI, this::build), is(not(sameInstance(index))));
+    }
+
+    @Test
+    public void shouldNotCacheFailure() throws Exception {
+        final AttributeElementIndexCache cache = new AttributeElementIndexCache(2, 1, TimeUnit.HOURS);
+        final Supplier<AttributeElementIndex> failing = () -> {
+            throw new IllegalStateException("failed");
+        };
+        try {
+            cache.get(URI, failing);
+            fail("IllegalStateException expected");
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), is("failed"));
+        }
+
+        assertThat(cache.size(), is(0));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldFailOnZeroMaxSize() throws Exception {
+        new AttributeElementIndexCache(0, 1, TimeUnit.HOURS);
+    }
+
+    private AttributeElementIndex build() {
+        builds.incrementAndGet();
+        return AttributeElementIndex.of(Collections.<AttributeElement>emptyList().iterator());
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (C) 2004-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.md;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static com.gooddata.util.ResourceUtils.readObjectFromResource;
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AttributeElementIndexTest {
+
+    private static final String ELEMENTS_URI = "/gdc/md/PROJECT_ID/obj/1333/elements";
+
+    @Test
+    public void shouldLookupUri() throws Exception {
+        final AttributeElementIndex index = AttributeElementIndex.of(
+                readObjectFromResource("/md/attributeElements.json", AttributeElements.class).getElements().iterator());
+
+        assertThat(index.size(), is(3));
+        assertThat(index.getUri("1167"), is(ELEMENTS_URI + "?id=6963"));
+        assertThat(index.getUri("1169"), is(ELEMENTS_URI + "?id=13716"));
+        assertThat(index.getUri("1170"), is(nullValue()));
+    }
+
+    @Test
+    public void shouldLookupUris() throws Exception {
+        final AttributeElementIndex index = AttributeElementIndex.of(
+                readObjectFromResource("/md/attributeElements.json", AttributeElements.class).getElements().iterator());
+
+        final Map<String, String> uris = index.getUris(asList("1169", "unknown", "1167"));
+        assertThat(uris.keySet(), contains("1169", "1167"));
+        assertThat(uris.values(), contains(ELEMENTS_URI + "?id=13716", ELEMENTS_URI + "?id=6963"));
+    }
+
+    @Test
+    public void shouldKeepIrregularUris() throws Exception {
+        final AttributeElementIndex index = AttributeElementIndex.of(asList(
+                element(ELEMENTS_URI + "?id=1", "regular"),
+                element(ELEMENTS_URI + "?id=007", "padded"),
+                element("/gdc/md/PROJECT_ID/obj/1/elements?id=2", "other"),
+                element(ELEMENTS_URI + "?id=3", "regular")).iterator());
+
+        assertThat(index.getUri("regular"), is(ELEMENTS_URI + "?id=1"));
+        assertThat(index.getUri("padded"), is(ELEMENTS_URI + "?id=007"));
+        assertThat(index.getUri("other"), is("/gdc/md/PROJECT_ID/obj/1/elements?id=2"));
+    }
+
+    @Test
+    public void shouldIndexManyElements() throws Exception {
+        final List<AttributeElement> elements = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            elements.add(element(ELEMENTS_URI + "?id=" + i, "customer" + i));
+        }
+        final AttributeElementIndex index = AttributeElementIndex.of(elements.iterator());
+
+        assertThat(index.size(), is(10000));
+        for (int i = 0; i < 10000; i++) {
+            assertThat(index.getUri("customer" + i), is(ELEMENTS_URI + "?id=" + i));
+        }
+    }
+
+    @Test
+    public void shouldIndexNoElements() throws Exception {
+        final AttributeElementIndex index = AttributeElementIndex.of(Collections.emptyIterator());
+
+        assertThat(index.size(), is(0));
+        assertThat(index.getUri("any"), is(nullValue()));
+    }
+
+    private static AttributeElement element(final String uri, final String title) {
+        final AttributeElement element = mock(AttributeElement.class);
+        when(element.getUri()).thenReturn(uri);
+        when(element.getTitle()).thenReturn(title);
+        return element;
+    }
+}
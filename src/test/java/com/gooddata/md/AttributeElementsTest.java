@@ -26,6 +26,12 @@ public class AttributeElementsTest {
         final List<AttributeElement> elementsList = elements.getElements();
         assertThat(elementsList, is(notNullValue()));
         assertThat(elementsList, hasSize(3));
+
+        final AttributeElements.Paging paging = elements.getPaging();
+        assertThat(paging, is(notNullValue()));
+        assertThat(paging.getOffset(), is(0));
+        assertThat(paging.getCount(), is(3));
+        assertThat(paging.getTotal(), is(3));
     }
 
     @Test
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2004-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.md;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+
+public class DependencyGraphTest {
+
+    private static final String FACT = "/gdc/md/PROJECT_ID/obj/fact";
+    private static final String METRIC = "/gdc/md/PROJECT_ID/obj/metric";
+    private static final String DERIVED_METRIC = "/gdc/md/PROJECT_ID/obj/derived";
+    private static final String REPORT = "/gdc/md/PROJECT_ID/obj/report";
+    private static final String UNUSED = "/gdc/md/PROJECT_ID/obj/unused";
+
+    private DependencyGraph graph;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        final DependencyGraph.Builder builder = new DependencyGraph.Builder();
+        builder.addObject(UNUSED);
+        builder.addUsedBy(FACT, METRIC);
+        builder.addUsedBy(METRIC, DERIVED_METRIC);
+        builder.addUsedBy(METRIC, REPORT);
+        builder.addUsedBy(DERIVED_METRIC, REPORT);
+        graph = builder.build();
+    }
+
+    @Test
+    public void shouldAnswerDirectDependencies() throws Exception {
+        assertThat(graph.size(), is(5));
+        assertThat(graph.getDependencyCount(), is(4));
+        assertThat(graph.getUsedBy(METRIC), containsInAnyOrder(DERIVED_METRIC, REPORT));
+        assertThat(graph.getUsing(REPORT), containsInAnyOrder(METRIC, DERIVED_METRIC));
+        assertThat(graph.getUsedBy(REPORT), is(empty()));
+    }
+
+    @Test
+    public void shouldAnswerTransitiveDependencies() throws Exception {
+        assertThat(graph.getTransitiveUsedBy(FACT), containsInAnyOrder(METRIC, DERIVED_METRIC, REPORT));
+        assertThat(graph.getTransitiveUsing(REPORT), containsInAnyOrder(METRIC, DERIVED_METRIC, FACT));
+        assertThat(graph.getTransitiveUsedBy(UNUSED), is(empty()));
+    }
+
+    @Test
+    public void shouldFindOrphans() throws Exception {
+        assertThat(graph.getOrphans(), containsInAnyOrder(UNUSED, REPORT));
+    }
+
+    @Test
+    public void shouldSerialize() throws Exception {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(graph);
+        }
+        final DependencyGraph read;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            read = (DependencyGraph) in.readObject();
+        }
+
+        assertThat(read.size(), is(5));
+        assertThat(read.getUsedBy(FACT), contains(METRIC));
+        assertThat(read.getTransitiveUsedBy(FACT), containsInAnyOrder(METRIC, DERIVED_METRIC, REPORT));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldFailOnUnknownObject() throws Exception {
+        graph.getUsedBy("/gdc/md/PROJECT_ID/obj/missing");
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2004-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.md;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.gooddata.util.BooleanDeserializer;
+import com.gooddata.util.GDDateTimeDeserializer;
+import com.gooddata.util.TagsDeserializer;
+import org.joda.time.DateTime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares deserialization of large metadata listing: the former {@link Entry} deserialization (tags split by
+ * {@link Scanner}, every value allocated separately) and the current pooled one.
+ * <p>
+ * Run the {@link #main(String[])} method from the test classpath, the allocation rate per operation is reported
+ * by the GC profiler ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EntryDeserializerBenchmark {
+
+    @Param({"10000"})
+    private int entries;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        final Random random = new Random(42);
+        final StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < entries; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append("{\"link\":\"/gdc/md/PROJECT_ID/obj/").append(i)
+                    .append("\",\"title\":\"Metric ").append(i)
+                    .append("\",\"summary\":\"\",\"category\":\"metric\"")
+                    .append(",\"author\":\"/gdc/account/profile/USER_").append(random.nextInt(20))
+                    .append("\",\"contributor\":\"/gdc/account/profile/USER_").append(random.nextInt(20))
+                    .append("\",\"deprecated\":\"0\",\"identifier\":\"metric.").append(i)
+                    .append("\",\"tags\":\"finance sales q").append(random.nextInt(4) + 1)
+                    .append("\",\"created\":\"2017-0").append(random.nextInt(9) + 1).append("-11 13:45:54\"")
+                    .append(",\"updated\":\"2017-1").append(random.nextInt(3)).append("-11 13:45:55\"")
+                    .append(",\"locked\":0,\"unlisted\":0}");
+        }
+        json = builder.append(']').toString().getBytes("UTF-8");
+    }
+
+    @Benchmark
+    public FormerEntry[] former() throws IOException {
+        return mapper.readValue(json, FormerEntry[].class);
+    }
+
+    @Benchmark
+    public Entry[] pooled() throws IOException {
+        return mapper.readValue(json, Entry[].class);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EntryDeserializerBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()
+        ).run();
+    }
+
+    /**
+     * The former deserialization of {@link Entry}
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    static class FormerEntry {
+        private final Object[] values;
+
+        @JsonCreator
+        FormerEntry(@JsonProperty("link") String uri,
+                    @JsonProperty("title") String title,
+                    @JsonProperty("summary") String summary,
+                    @JsonProperty("category") String category,
+                    @JsonProperty("author") String author,
+                    @JsonProperty("contributor") String contributor,
+                    @JsonProperty("deprecated") @JsonDeserialize(using = BooleanDeserializer.class) Boolean deprecated,
+                    @JsonProperty("identifier") String identifier,
+                    @JsonProperty("tags") @JsonDeserialize(using = FormerTagsDeserializer.class) Set<String> tags,
+                    @JsonProperty("created") @JsonDeserialize(using = GDDateTimeDeserializer.class) DateTime created,
+                    @JsonProperty("updated") @JsonDeserialize(using = GDDateTimeDeserializer.class) DateTime updated,
+                    @JsonProperty("locked") @JsonDeserialize(using = BooleanDeserializer.class) Boolean locked,
+                    @JsonProperty("unlisted") @JsonDeserialize(using = BooleanDeserializer.class) Boolean unlisted) {
+            this.values = new Object[]{uri, title, summary, category, author, contributor, deprecated, identifier,
+                    tags, created, updated, locked, unlisted};
+        }
+    }
+
+    /**
+     * The former implementation of {@link TagsDeserializer} reading the JSON tree and splitting it by {@link Scanner}
+     */
+    static class FormerTagsDeserializer extends JsonDeserializer<Set<String>> {
+        @Override
+        public Set<String> deserialize(final JsonParser jp, final DeserializationContext ctx) throws IOException {
+            final JsonNode root = jp.readValueAsTree();
+            final Set<String> tags = new HashSet<>();
+            try (final Scanner scanner = new Scanner(root.textValue())) {
+                while (scanner.hasNext()) {
+                    tags.add(scanner.next());
+                }
+            }
+            return tags;
+        }
+    }
+}
@@ -9,14 +9,18 @@ import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
 import org.testng.annotations.Test;
 
+import java.util.HashSet;
 import java.util.Set;
 
+import static com.gooddata.util.ResourceUtils.OBJECT_MAPPER;
 import static com.gooddata.util.ResourceUtils.readObjectFromResource;
+import static java.util.Arrays.asList;
 import static java.util.Collections.singleton;
 import static net.javacrumbs.jsonunit.JsonMatchers.jsonEquals;
 import static net.javacrumbs.jsonunit.core.util.ResourceUtils.resource;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.text.MatchesPattern.matchesPattern;
 
@@ -75,4 +79,24 @@ public class EntryTest {
         assertThat(entry.toString(), matchesPattern(Entry.class.getSimpleName() + "\\[.*\\]"));
     }
 
+    @Test
+    public void shouldShareRepeatedValues() throws Exception {
+        final String entry = "{\"link\":\"" + URI + "\",\"author\":\"" + AUTHOR + "\",\"category\":\"" + CATEGORY
+                + "\",\"tags\":\"TAG  TAG2 TAG\",\"created\":\"2014-04-11 13:45:54\"}";
+        final Entry[] entries = OBJECT_MAPPER.readValue("[" + entry + "," + entry + "]", Entry[].class);
+
+        assertThat(entries[0].getAuthor(), is(sameInstance(entries[1].getAuthor())));
+        assertThat(entries[0].getCategory(), is(sameInstance(entries[1].getCategory())));
+        assertThat(entries[0].getTags(), is(sameInstance(entries[1].getTags())));
+        assertThat(entries[0].getCreated(), is(sameInstance(entries[1].getCreated())));
+        assertThat(entries[0].getTags(), is(new HashSet<>(asList("TAG", "TAG2"))));
+        assertThat(entries[0].getCreated(), is(CREATED));
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void shouldDeserializeImmutableTags() throws Exception {
+        final Entry entry = readObjectFromResource("/md/entry.json", Entry.class);
+        entry.getTags().add("TAG2");
+    }
+
 }
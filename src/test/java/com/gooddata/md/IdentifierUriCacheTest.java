@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2004-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.md;
+
+import com.gooddata.project.Project;
+import org.testng.annotations.Test;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class IdentifierUriCacheTest {
+
+    private static final String PROJECT_ID = "PROJECT_ID";
+    private static final String URI = "/gdc/md/PROJECT_ID/obj/1";
+
+    @Test
+    public void shouldResolveBothDirections() throws Exception {
+        final IdentifierUriCache cache = new IdentifierUriCache();
+        cache.put(PROJECT_ID, "metric.id", URI);
+
+        assertThat(cache.getUri(PROJECT_ID, "metric.id"), is(URI));
+        assertThat(cache.getIdentifier(PROJECT_ID, URI), is("metric.id"));
+        assertThat(cache.getUri("OTHER_ID", "metric.id"), is(nullValue()));
+        assertThat(cache.size(), is(1));
+    }
+
+    @Test
+    public void shouldRemoveUri() throws Exception {
+        final IdentifierUriCache cache = new IdentifierUriCache();
+        cache.put(PROJECT_ID, "metric.id", URI);
+
+        cache.removeUri(PROJECT_ID, URI);
+
+        assertThat(cache.getUri(PROJECT_ID, "metric.id"), is(nullValue()));
+        assertThat(cache.getIdentifier(PROJECT_ID, URI), is(nullValue()));
+    }
+
+    @Test
+    public void shouldInvalidateProject() throws Exception {
+        final IdentifierUriCache cache = new IdentifierUriCache();
+        cache.put(PROJECT_ID, "metric.id", URI);
+        cache.put("OTHER_ID", "metric.id", "/gdc/md/OTHER_ID/obj/1");
+        final Project project = mock(Project.class);
+        when(project.getId()).thenReturn(PROJECT_ID);
+
+        cache.invalidate(project);
+
+        assertThat(cache.size(), is(1));
+        assertThat(cache.getUri(PROJECT_ID, "metric.id"), is(nullValue()));
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2004-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.md;
+
+import com.gooddata.project.Project;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class LruObjCacheTest {
+
+    private static final String URI = "/gdc/md/PROJECT_ID/obj/1";
+    private static final String URI2 = "/gdc/md/PROJECT_ID/obj/2";
+    private static final String OTHER_URI = "/gdc/md/OTHER_ID/obj/1";
+
+    @Test
+    public void shouldEvictLeastRecentlyUsed() throws Exception {
+        final LruObjCache cache = new LruObjCache(2, 1, 1, TimeUnit.HOURS);
+        cache.put(cached(URI, now()));
+        cache.put(cached(URI2, now()));
+        cache.get(URI);
+        cache.put(cached(OTHER_URI, now()));
+
+        assertThat(cache.size(), is(2));
+        assertThat(cache.get(URI), is(notNullValue()));
+        assertThat(cache.get(URI2), is(nullValue()));
+    }
+
+    @Test
+    public void shouldExpireAfterTtl() throws Exception {
+        final LruObjCache cache = new LruObjCache(2, 0, 1, TimeUnit.MINUTES);
+        cache.put(cached(URI, now() - TimeUnit.MINUTES.toMillis(2)));
+
+        assertThat(cache.get(URI), is(nullValue()));
+        assertThat(cache.size(), is(0));
+    }
+
+    @Test
+    public void shouldDecideFreshness() throws Exception {
+        final LruObjCache cache = new LruObjCache(2, 1, 10, TimeUnit.MINUTES);
+
+        assertThat(cache.isFresh(cached(URI, now())), is(true));
+        assertThat(cache.isFresh(cached(URI, now() - TimeUnit.MINUTES.toMillis(2))), is(false));
+    }
+
+    @Test
+    public void shouldInvalidateProject() throws Exception {
+        final LruObjCache cache = new LruObjCache(10, 1, 1, TimeUnit.HOURS);
+        cache.put(cached(URI, now()));
+        cache.put(cached(URI2, now()));
+        cache.put(cached(OTHER_URI, now()));
+        final Project project = mock(Project.class);
+        when(project.getId()).thenReturn("PROJECT_ID");
+
+        cache.invalidate(project);
+
+        assertThat(cache.size(), is(1));
+        assertThat(cache.get(OTHER_URI), is(notNullValue()));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldFailOnTtlShorterThanFreshness() throws Exception {
+        new LruObjCache(10, 2, 1, TimeUnit.HOURS);
+    }
+
+    private static CachedObj cached(final String uri, final long validatedAt) {
+        return new CachedObj(uri, Metric.class, new byte[0], null, -1, validatedAt);
+    }
+
+    private static long now() {
+        return System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2004-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.md;
+
+import org.joda.time.DateTime;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class MetadataIndexTest {
+
+    private static final String PROJECT_ID = "PROJECT_ID";
+    private static final DateTime UPDATED = new DateTime(2017, 1, 1, 0, 0);
+
+    private final Entry first = entry("1", "id.first", "First", "tag");
+    private final Entry second = entry("2", "id.second", "Second", "tag");
+
+    private AtomicInteger loads;
+    private List<Entry> listing;
+    private Supplier<Collection<Entry>> loader;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        loads = new AtomicInteger();
+        listing = asList(first, second);
+        loader = () -> {
+            loads.incrementAndGet();
+            return listing;
+        };
+    }
+
+    @Test
+    public void shouldFindByRestrictionsWithoutReloading() throws Exception {
+        final MetadataIndex index = new MetadataIndex(1, TimeUnit.HOURS);
+
+        assertThat(index.find(PROJECT_ID, "metrics", loader, Restriction.identifier("id.second")), contains(second));
+        assertThat(index.find(PROJECT_ID, "metrics", loader, Restriction.title("First")), contains(first));
+        assertThat(index.find(PROJECT_ID, "metrics", loader, Restriction.summary("missing")), is(empty()));
+        assertThat(index.find(PROJECT_ID, "metrics", loader), contains(first, second));
+        assertThat(loads.get(), is(1));
+        assertThat(index.size(), is(2));
+    }
+
+    @Test
+    public void shouldKeepOrderOfLinearScan() throws Exception {
+        final MetadataIndex index = new MetadataIndex(1, TimeUnit.HOURS);
+
+        assertThat(index.find(PROJECT_ID, "metrics", loader,
+                Restriction.title("Second"), Restriction.identifier("id.first"), Restriction.identifier("id.second")),
+                contains(first, second, second));
+    }
+
+    @Test
+    public void shouldFindByTag() throws Exception {
+        final MetadataIndex index = new MetadataIndex(1, TimeUnit.HOURS);
+
+        assertThat(index.findByTag(PROJECT_ID, "metrics", loader, "tag"), contains(first, second));
+        assertThat(index.findByTag(PROJECT_ID, "metrics", loader, "other"), is(empty()));
+    }
+
+    @Test
+    public void shouldRefreshInvalidatedIndexIncrementally() throws Exception {
+        final MetadataIndex index = new MetadataIndex(1, TimeUnit.HOURS);
+        index.find(PROJECT_ID, "metrics", loader);
+
+        final Entry unchanged = entry("1", "id.first", "First", "tag");
+        final Entry updated = new Entry("/gdc/md/PROJECT_ID/obj/2", "Renamed", null, null, null, null, false,
+                "id.second", singleton("tag"), UPDATED, UPDATED.plusDays(1), false, false);
+        listing = asList(unchanged, updated);
+        index.invalidate(PROJECT_ID);
+
+        assertThat(index.find(PROJECT_ID, "metrics", loader, Restriction.title("Renamed")), contains(updated));
+        assertThat(index.find(PROJECT_ID, "metrics", loader, Restriction.title("Second")), is(empty()));
+        // not updated entry is kept
+        assertThat(index.find(PROJECT_ID, "metrics", loader, Restriction.title("First")).iterator().next(),
+                is(sameInstance(first)));
+        assertThat(loads.get(), is(2));
+    }
+
+    @Test
+    public void shouldRemoveMissingEntriesOnRefresh() throws Exception {
+        final MetadataIndex index = new MetadataIndex(0, TimeUnit.MILLISECONDS);
+        index.find(PROJECT_ID, "metrics", loader);
+        listing = asList(first);
+        Thread.sleep(5);
+
+        assertThat(index.find(PROJECT_ID, "metrics", loader, Restriction.identifier("id.second")), is(empty()));
+        assertThat(index.findByTag(PROJECT_ID, "metrics", loader, "tag"), contains(first));
+    }
+
+    private static Entry entry(final String id, final String identifier, final String title, final String tag) {
+        return new Entry("/gdc/md/PROJECT_ID/obj/" + id, title, null, null, null, null, false, identifier,
+                singleton(tag), UPDATED, UPDATED, false, false);
+    }
+}
@@ -15,6 +15,7 @@ import org.testng.annotations.Test;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 import static com.gooddata.util.ResourceUtils.OBJECT_MAPPER;
 import static com.gooddata.util.ResourceUtils.readFromResource;
@@ -23,10 +24,13 @@ import static com.gooddata.util.ResourceUtils.readStringFromResource;
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static net.jadler.Jadler.onRequest;
+import static net.jadler.Jadler.verifyThatRequest;
 import static net.javacrumbs.jsonunit.JsonMatchers.jsonEquals;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.allOf;
 import static org.hamcrest.Matchers.contains;
@@ -79,6 +83,27 @@ public class MetadataServiceIT extends AbstractGoodDataIT {
         assertThat(result.iterator().next().getTitle(), is(TITLE));
     }
 
+    @Test
+    public void shouldBuildDependencyGraph() throws Exception {
+        final Entry usingEntry = new Entry(OBJ_URI2, TITLE, null, null, null, null, false, null, null, null, null, false, false);
+        final UseMany useMany = new UseMany(asList(
+                new UseManyEntries(OBJ_URI, asList(usingEntry)),
+                new UseManyEntries(OBJ_URI2, Collections.emptyList())));
+
+        onRequest()
+                .havingMethodEqualTo("POST")
+                .havingPathEqualTo(USEDBY_URI)
+                .respond()
+                .withStatus(200)
+                .withBody(OBJECT_MAPPER.writeValueAsString(useMany));
+
+        final DependencyGraph graph = gd.getMetadataService().buildDependencyGraph(project, asList(OBJ_URI, OBJ_URI2), 10, 2);
+
+        assertThat(graph.size(), is(2));
+        assertThat(graph.getUsedBy(OBJ_URI), contains(OBJ_URI2));
+        assertThat(graph.getOrphans(), contains(OBJ_URI2));
+    }
+
     @Test
     public void testGetObjsByUris() throws Exception {
         onRequest()
@@ -183,6 +208,43 @@ public class MetadataServiceIT extends AbstractGoodDataIT {
         assertThat(uris.get(ID), is(OBJ_URI));
     }
 
+    @Test
+    public void shouldResolveCachedIdentifiersToUris() throws IOException {
+        onRequest()
+                .havingMethodEqualTo("POST")
+                .havingPathEqualTo(IDENTIFIERS_URI)
+                .havingBody(jsonEquals(readStringFromResource("/md/identifierToUri.json")))
+                .respond()
+                .withStatus(200)
+                .withBody(readFromResource("/md/identifiersAndUris.json"));
+
+        final MetadataService service = gd.getMetadataService();
+        service.setIdentifierUriCache(new IdentifierUriCache());
+        assertThat(service.identifiersToUris(project, singletonList(ID)).get(ID), is(OBJ_URI));
+        assertThat(service.findUris(project, Restriction.identifier(ID)), contains(OBJ_URI));
+        assertThat(service.urisToIdentifiers(project, singletonList(OBJ_URI)).get(OBJ_URI), is(ID));
+
+        verifyThatRequest()
+                .havingMethodEqualTo("POST")
+                .havingPathEqualTo(IDENTIFIERS_URI)
+            .receivedOnce();
+    }
+
+    @Test
+    public void testUrisToIdentifiers() throws IOException {
+        onRequest()
+                .havingMethodEqualTo("POST")
+                .havingPathEqualTo(IDENTIFIERS_URI)
+                .havingBody(jsonEquals(readStringFromResource("/md/uriToIdentifier.json")))
+                .respond()
+                .withStatus(200)
+                .withBody(readFromResource("/md/identifiersAndUris.json"));
+
+        final Map<String, String> identifiers = gd.getMetadataService().urisToIdentifiers(project, singletonList(OBJ_URI));
+        assertThat(identifiers.keySet(), hasSize(1));
+        assertThat(identifiers.get(OBJ_URI), is(ID));
+    }
+
     @Test
     public void shouldCreateObj() throws Exception {
         onRequest()
@@ -372,6 +434,60 @@ public class MetadataServiceIT extends AbstractGoodDataIT {
         assertThat(result, contains("/gdc/md/PROJ_ID/obj/127", "/gdc/md/PROJ_ID/obj/118"));
     }
 
+    @Test
+    public void shouldGetCachedObjByUri() throws Exception {
+        onRequest()
+                .havingMethodEqualTo("GET")
+                .havingPathEqualTo(SPECIFIC_OBJ_URI)
+            .respond()
+                .withStatus(200)
+                .withBody(readFromResource("/md/metric.json"));
+
+        final MetadataService service = gd.getMetadataService();
+        service.setObjCache(new LruObjCache(10, 1, 1, TimeUnit.HOURS));
+        final Metric first = service.getObjByUri(SPECIFIC_OBJ_URI, Metric.class);
+        final String title = first.getTitle();
+        first.setTitle("modified by caller");
+        final Metric second = service.getObjByUri(SPECIFIC_OBJ_URI, Metric.class);
+
+        assertThat(second, is(not(sameInstance(first))));
+        assertThat(second.getTitle(), is(title));
+        verifyThatRequest()
+                .havingMethodEqualTo("GET")
+                .havingPathEqualTo(SPECIFIC_OBJ_URI)
+            .receivedOnce();
+    }
+
+    @Test
+    public void shouldRevalidateCachedObjByETag() throws Exception {
+        onRequest()
+                .havingMethodEqualTo("GET")
+                .havingPathEqualTo(SPECIFIC_OBJ_URI)
+            .respond()
+                .withStatus(200)
+                .withHeader("ETag", "\"v1\"")
+                .withBody(readFromResource("/md/metric.json"));
+        onRequest()
+                .havingMethodEqualTo("GET")
+                .havingPathEqualTo(SPECIFIC_OBJ_URI)
+                .havingHeaderEqualTo("If-None-Match", "\"v1\"")
+            .respond()
+                .withStatus(304);
+
+        final MetadataService service = gd.getMetadataService();
+        service.setObjCache(new LruObjCache(10, 0, 1, TimeUnit.HOURS));
+        final Metric first = service.getObjByUri(SPECIFIC_OBJ_URI, Metric.class);
+        final Metric second = service.getObjByUri(SPECIFIC_OBJ_URI, Metric.class);
+
+        assertThat(second, is(not(sameInstance(first))));
+        assertThat(second.getExpression(), is(first.getExpression()));
+        verifyThatRequest()
+                .havingMethodEqualTo("GET")
+                .havingPathEqualTo(SPECIFIC_OBJ_URI)
+                .havingHeaderEqualTo("If-None-Match", "\"v1\"")
+            .receivedOnce();
+    }
+
     @Test
     public void shouldGetAttributeElements() throws Exception {
         onRequest()
@@ -389,4 +505,160 @@ public class MetadataServiceIT extends AbstractGoodDataIT {
         assertThat(attributeElements, hasSize(3));
         assertThat(attributeElements.get(0).getTitle(), is("1167"));
     }
+
+    @Test
+    public void shouldIterateAttributeElements() throws Exception {
+        onRequest()
+                .havingMethodEqualTo("GET")
+                .havingPathEqualTo("/gdc/md/PROJECT_ID/obj/DF_ID/elements")
+                .havingParameterEqualTo("offset", "0")
+                .havingParameterEqualTo("limit", "2")
+                .havingParameterEqualTo("filter", "11")
+            .respond()
+                .withStatus(200)
+                .withBody("{\"attributeElements\":{\"elements\":["
+                        + "{\"uri\":\"/gdc/md/PROJECT_ID/obj/DF_ID/elements?id=1\",\"title\":\"1167\"},"
+                        + "{\"uri\":\"/gdc/md/PROJECT_ID/obj/DF_ID/elements?id=2\",\"title\":\"1168\"}],"
+                        + "\"elementsMeta\":{\"count\":2,\"records\":\"3\",\"offset\":\"0\"}}}");
+        onRequest()
+                .havingMethodEqualTo("GET")
+                .havingPathEqualTo("/gdc/md/PROJECT_ID/obj/DF_ID/elements")
+                .havingParameterEqualTo("offset", "2")
+                .havingParameterEqualTo("limit", "2")
+                .havingParameterEqualTo("filter", "11")
+            .respond()
+                .withStatus(200)
+                .withBody("{\"attributeElements\":{\"elements\":["
+                        + "{\"uri\":\"/gdc/md/PROJECT_ID/obj/DF_ID/elements?id=3\",\"title\":\"1169\"}],"
+                        + "\"elementsMeta\":{\"count\":1,\"records\":\"3\",\"offset\":\"2\"}}}");
+
+        final DisplayForm displayForm = readObjectFromResource("/md/attribute.json", Attribute.class)
+                .getDefaultDisplayForm();
+        final List<String> titles = new ArrayList<>();
+        try (AttributeElementIterator elements = gd.getMetadataService()
+                .iterateAttributeElements(displayForm, "11", 2)) {
+            elements.forEachRemaining(element -> titles.add(element.getTitle()));
+        }
+
+        assertThat(titles, contains("1167", "1168", "1169"));
+        verifyThatRequest()
+                .havingPathEqualTo("/gdc/md/PROJECT_ID/obj/DF_ID/elements")
+            .receivedTimes(2);
+    }
+
+    @Test
+    public void shouldIterateAttributeElementsOfPagesShorterThanRequested() throws Exception {
+        onRequest()
+                .havingMethodEqualTo("GET")
+                .havingPathEqualTo("/gdc/md/PROJECT_ID/obj/DF_ID/elements")
+                .havingParameterEqualTo("offset", "0")
+                .havingParameterEqualTo("limit", "2")
+            .respond()
+                .withStatus(200)
+                .withBody("{\"attributeElements\":{\"elements\":["
+                        + "{\"uri\":\"/gdc/md/PROJECT_ID/obj/DF_ID/elements?id=1\",\"title\":\"1167\"}],"
+                        + "\"elementsMeta\":{\"count\":1,\"records\":\"3\",\"offset\":\"0\"}}}");
+        onRequest()
+                .havingMethodEqualTo("GET")
+                .havingPathEqualTo("/gdc/md/PROJECT_ID/obj/DF_ID/elements")
+                .havingParameterEqualTo("offset", "1")
+                .havingParameterEqualTo("limit", "2")
+            .respond()
+                .withStatus(200)
+                .withBody("{\"attributeElements\":{\"elements\":["
+                        + "{\"uri\":\"/gdc/md/PROJECT_ID/obj/DF_ID/elements?id=2\",\"title\":\"1168\"}],"
+                        + "\"elementsMeta\":{\"count\":1,\"records\":\"3\",\"offset\":\"1\"}}}");
+        onRequest()
+                .havingMethodEqualTo("GET")
+                .havingPathEqualTo("/gdc/md/PROJECT_ID/obj/DF_ID/elements")
+                .havingParameterEqualTo("offset", "2")
+                .havingParameterEqualTo("limit", "2")
+            .respond()
+                .withStatus(200)
+                .withBody("{\"attributeElements\":{\"elements\":["
+                        + "{\"uri\":\"/gdc/md/PROJECT_ID/obj/DF_ID/elements?id=3\",\"title\":\"1169\"}],"
+                        + "\"elementsMeta\":{\"count\":1,\"records\":\"3\",\"offset\":\"2\"}}}");
+
+        final DisplayForm displayForm = readObjectFromResource("/md/attribute.json", Attribute.class)
+                .getDefaultDisplayForm();
+        final List<String> titles = new ArrayList<>();
+        try (AttributeElementIterator elements = gd.getMetadataService()
+                .iterateAttributeElements(displayForm, null, 2)) {
+            elements.forEachRemaining(element -> titles.add(element.getTitle()));
+        }
+
+        assertThat(titles, contains("1167", "1168", "1169"));
+        verifyThatRequest()
+                .havingPathEqualTo("/gdc/md/PROJECT_ID/obj/DF_ID/elements")
+            .receivedTimes(3);
+    }
+
+    @Test
+    public void shouldIndexAllAttributeElementsWhenServerReturnsFewerThanLimit() throws Exception {
+        onRequest()
+                .havingMethodEqualTo("GET")
+                .havingPathEqualTo("/gdc/md/PROJECT_ID/obj/DF_ID/elements")
+                .havingParameterEqualTo("offset", "0")
+                .havingParameterEqualTo("limit", "10000")
+            .respond()
+                .withStatus(200)
+                .withBody("{\"attributeElements\":{\"elements\":["
+                        + "{\"uri\":\"/gdc/md/PROJECT_ID/obj/DF_ID/elements?id=1\",\"title\":\"1167\"},"
+                        + "{\"uri\":\"/gdc/md/PROJECT_ID/obj/DF_ID/elements?id=2\",\"title\":\"1168\"}],"
+                        + "\"elementsMeta\":{\"count\":2,\"records\":\"3\",\"offset\":\"0\"}}}");
+        onRequest()
+                .havingMethodEqualTo("GET")
+                .havingPathEqualTo("/gdc/md/PROJECT_ID/obj/DF_ID/elements")
+                .havingParameterEqualTo("offset", "2")
+                .havingParameterEqualTo("limit", "10000")
+            .respond()
+                .withStatus(200)
+                .withBody("{\"attributeElements\":{\"elements\":["
+                        + "{\"uri\":\"/gdc/md/PROJECT_ID/obj/DF_ID/elements?id=3\",\"title\":\"1169\"}],"
+                        + "\"elementsMeta\":{\"count\":1,\"records\":\"3\",\"offset\":\"2\"}}}");
+
+        final DisplayForm displayForm = readObjectFromResource("/md/attribute.json", Attribute.class)
+                .getDefaultDisplayForm();
+        final AttributeElementIndex index = gd.getMetadataService().getAttributeElementIndex(displayForm);
+
+        assertThat(index.size(), is(3));
+        assertThat(index.getUri("1167"), is("/gdc/md/PROJECT_ID/obj/DF_ID/elements?id=1"));
+        assertThat(index.getUri("1168"), is("/gdc/md/PROJECT_ID/obj/DF_ID/elements?id=2"));
+        assertThat(index.getUri("1169"), is("/gdc/md/PROJECT_ID/obj/DF_ID/elements?id=3"));
+        verifyThatRequest()
+                .havingPathEqualTo("/gdc/md/PROJECT_ID/obj/DF_ID/elements")
+            .receivedTimes(2);
+    }
+
+    @Test
+    public void shouldIterateAttributeElementsUntilEmptyPageWithoutPaging() throws Exception {
+        onRequest()
+                .havingMethodEqualTo("GET")
+                .havingPathEqualTo("/gdc/md/PROJECT_ID/obj/DF_ID/elements")
+                .havingParameterEqualTo("offset", "0")
+            .respond()
+                .withStatus(200)
+                .withBody("{\"attributeElements\":{\"elements\":["
+                        + "{\"uri\":\"/gdc/md/PROJECT_ID/obj/DF_ID/elements?id=1\",\"title\":\"1167\"}]}}");
+        onRequest()
+                .havingMethodEqualTo("GET")
+                .havingPathEqualTo("/gdc/md/PROJECT_ID/obj/DF_ID/elements")
+                .havingParameterEqualTo("offset", "1")
+            .respond()
+                .withStatus(200)
+                .withBody("{\"attributeElements\":{\"elements\":[]}}");
+
+        final DisplayForm displayForm = readObjectFromResource("/md/attribute.json", Attribute.class)
+                .getDefaultDisplayForm();
+        final List<String> titles = new ArrayList<>();
+        try (AttributeElementIterator elements = gd.getMetadataService()
+                .iterateAttributeElements(displayForm, null, 2)) {
+            elements.forEachRemaining(element -> titles.add(element.getTitle()));
+        }
+
+        assertThat(titles, contains("1167"));
+        verifyThatRequest()
+                .havingPathEqualTo("/gdc/md/PROJECT_ID/obj/DF_ID/elements")
+            .receivedTimes(2);
+    }
 }
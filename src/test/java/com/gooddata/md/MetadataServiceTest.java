@@ -12,6 +12,7 @@ import com.gooddata.gdc.UriResponse;
 import com.gooddata.md.report.ReportDefinition;
 import com.gooddata.md.visualization.VisualizationClass;
 import com.gooddata.project.Project;
+import org.joda.time.DateTime;
 import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -19,25 +20,35 @@ import org.springframework.http.HttpStatus;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.net.URI;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import static java.lang.String.format;
 import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
 import static org.hamcrest.CoreMatchers.allOf;
 import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -134,6 +145,71 @@ public class MetadataServiceTest {
         service.updateObj(obj);
     }
 
+    @Test
+    public void testCreateObjs() throws Exception {
+        final Obj obj1 = mock(Obj.class);
+        final Obj obj2 = mock(Obj.class);
+        final Obj resultObj = mock(Obj.class);
+
+        when(restTemplate.postForObject(eq(Obj.CREATE_WITH_ID_URI), eq(obj1), Matchers.<Class<Obj>>any(), eq(PROJECT_ID)))
+                .thenReturn(resultObj);
+        when(restTemplate.postForObject(eq(Obj.CREATE_WITH_ID_URI), eq(obj2), Matchers.<Class<Obj>>any(), eq(PROJECT_ID)))
+                .thenThrow(new RestClientException(""));
+
+        final BulkObjResult<Obj> result = service.createObjs(project, asList(obj1, obj2), 2);
+
+        assertThat(result.isSuccess(), is(false));
+        assertThat(result.getResults(), contains(resultObj));
+        assertThat(result.getFailures(), hasSize(1));
+        assertThat(result.getFailures().get(0).getIndex(), is(1));
+        assertThat(result.getFailures().get(0).getException(), is(instanceOf(ObjCreateException.class)));
+    }
+
+    @Test
+    public void testRemoveObjsByUriReportsDuplicatesSeparately() throws Exception {
+        final GoodDataRestException restException = mock(GoodDataRestException.class);
+        when(restException.getStatusCode()).thenReturn(HttpStatus.NOT_FOUND.value());
+        doNothing().doThrow(restException).when(restTemplate).delete(URI);
+
+        final BulkObjResult<String> result = service.removeObjsByUri(asList(URI, URI), 1);
+
+        assertThat(result.getOutcomes(), hasSize(2));
+        assertThat(result.getOutcomes().get(0).isSuccess(), is(true));
+        assertThat(result.getOutcomes().get(1).getObj(), is(URI));
+        assertThat(result.getOutcomes().get(1).getException(), is(instanceOf(ObjNotFoundException.class)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testUpdateObjsWithoutReread() throws Exception {
+        final Updatable obj1 = mock(Updatable.class);
+        final Updatable obj2 = mock(Updatable.class);
+        when(obj1.getUri()).thenReturn(URI);
+        when(obj2.getUri()).thenReturn(URI + "2");
+
+        final BulkObjResult<Updatable> result = service.updateObjs(asList(obj1, obj2), false, 2);
+
+        assertThat(result.isSuccess(), is(true));
+        assertThat(result.getResults(), contains(obj1, obj2));
+        verify(restTemplate).put(URI, obj1);
+        verify(restTemplate).put(URI + "2", obj2);
+        verify(restTemplate, never()).getForObject(anyString(), any(Class.class));
+    }
+
+    @Test
+    public void testRemoveObjsByUri() throws Exception {
+        final GoodDataRestException restException = mock(GoodDataRestException.class);
+        when(restException.getStatusCode()).thenReturn(HttpStatus.NOT_FOUND.value());
+        doThrow(restException).when(restTemplate).delete(URI + "2");
+
+        final BulkObjResult<String> result = service.removeObjsByUri(asList(URI, URI + "2"), 1);
+
+        assertThat(result.getResults(), contains(URI));
+        assertThat(result.getFailures().get(0).getObj(), is(URI + "2"));
+        assertThat(result.getFailures().get(0).getException(), is(instanceOf(ObjNotFoundException.class)));
+        verify(restTemplate).delete(URI);
+    }
+
     @Test(expectedExceptions = IllegalArgumentException.class)
     public void testGetObjsByUrisNullProject() throws Exception {
         service.getObjsByUris(null, Collections.emptyList());
@@ -273,6 +349,116 @@ public class MetadataServiceTest {
         service.getObjUri(project, Queryable.class);
     }
 
+    @DataProvider
+    public Object[][] identifierUriCaches() {
+        return new Object[][]{{null}, {new IdentifierUriCache()}};
+    }
+
+    @Test(dataProvider = "identifierUriCaches")
+    public void testIdentifiersToUrisOrderedByIdentifiers(final IdentifierUriCache cache) throws Exception {
+        service.setIdentifierUriCache(cache);
+        when(restTemplate.postForObject(eq(IdentifiersAndUris.URI), any(IdentifierToUri.class),
+                eq(IdentifiersAndUris.class), eq(PROJECT_ID)))
+                .thenReturn(new IdentifiersAndUris(asList(new IdentifierAndUri("id2", "uri2"),
+                        new IdentifierAndUri("id1", "uri1"))));
+
+        final Map<String, String> uris = service.identifiersToUris(project, asList("id1", "id2"));
+
+        assertThat(uris.keySet(), contains("id1", "id2"));
+        assertThat(uris.values(), contains("uri1", "uri2"));
+    }
+
+    @Test
+    public void testSync() throws Exception {
+        final Map<String, Long> previousEntries = new LinkedHashMap<>();
+        previousEntries.put("uri1", 1000L);
+        previousEntries.put("uri2", 1000L);
+        previousEntries.put("uri3", 1000L);
+        final MetadataSnapshot previous = new MetadataSnapshot(PROJECT_ID,
+                Collections.singletonMap("queryables", previousEntries));
+
+        final Query queryResult = mock(Query.class);
+        when(restTemplate.getForObject(Query.URI, Query.class, project.getId(), "queryables")).thenReturn(queryResult);
+        when(queryResult.getEntries()).thenReturn(asList(entry("uri1", 1000L), entry("uri2", 2000L), entry("uri4", 1000L)));
+
+        final Obj obj2 = mock(Obj.class);
+        when(obj2.getUri()).thenReturn("uri2");
+        final Obj obj4 = mock(Obj.class);
+        when(obj4.getUri()).thenReturn("uri4");
+        when(restTemplate.postForObject(BulkGet.URI, new BulkGetUris(asList("uri4", "uri2")), BulkGet.class, PROJECT_ID))
+                .thenReturn(new BulkGet(asList(obj4, obj2)));
+
+        final MetadataDelta delta = service.sync(project, previous, Queryable.class);
+
+        assertThat(delta.getAdded(), contains(obj4));
+        assertThat(delta.getUpdated(), contains(obj2));
+        assertThat(delta.getRemoved(), contains("uri3"));
+        assertThat(delta.getSnapshot().getEntries().get("queryables").keySet(), contains("uri1", "uri2", "uri4"));
+        assertThat(delta.getSnapshot().getEntries().get("queryables").get("uri2"), is(2000L));
+    }
+
+    @Test
+    public void testSyncUnchanged() throws Exception {
+        final MetadataSnapshot previous = new MetadataSnapshot(PROJECT_ID,
+                Collections.singletonMap("queryables", Collections.singletonMap("uri1", 1000L)));
+
+        final Query queryResult = mock(Query.class);
+        when(restTemplate.getForObject(Query.URI, Query.class, project.getId(), "queryables")).thenReturn(queryResult);
+        when(queryResult.getEntries()).thenReturn(singletonList(entry("uri1", 1000L)));
+
+        final MetadataDelta delta = service.sync(project, previous, Queryable.class);
+
+        assertThat(delta.isEmpty(), is(true));
+        verify(restTemplate, never()).postForObject(eq(BulkGet.URI), any(), eq(BulkGet.class), anyString());
+    }
+
+    @Test
+    public void testSyncEntriesWithoutUpdated() throws Exception {
+        final Map<String, Long> previousEntries = new LinkedHashMap<>();
+        previousEntries.put("uri1", 1000L);
+        previousEntries.put("uri2", null);
+        final MetadataSnapshot previous = new MetadataSnapshot(PROJECT_ID,
+                Collections.singletonMap("queryables", previousEntries));
+
+        final Query queryResult = mock(Query.class);
+        when(restTemplate.getForObject(Query.URI, Query.class, project.getId(), "queryables")).thenReturn(queryResult);
+        when(queryResult.getEntries()).thenReturn(asList(
+                new Entry("uri1", null, null, null, null, null, false, null, null, new DateTime(1000L), null, false, false),
+                new Entry("uri2", null, null, null, null, null, false, null, null, null, null, false, false)));
+
+        final MetadataDelta delta = service.sync(project, previous, Queryable.class);
+
+        assertThat(delta.isEmpty(), is(true));
+        assertThat(delta.getSnapshot().getEntries().get("queryables").get("uri1"), is(1000L));
+        verify(restTemplate, never()).postForObject(eq(BulkGet.URI), any(), eq(BulkGet.class), anyString());
+    }
+
+    @Test
+    public void testSyncBypassesMetadataIndex() throws Exception {
+        final MetadataSnapshot previous = new MetadataSnapshot(PROJECT_ID,
+                Collections.singletonMap("queryables", Collections.singletonMap("uri1", 1000L)));
+        service.setMetadataIndex(new MetadataIndex(1, TimeUnit.HOURS));
+
+        final Query queryResult = mock(Query.class);
+        when(restTemplate.getForObject(Query.URI, Query.class, project.getId(), "queryables")).thenReturn(queryResult);
+        when(queryResult.getEntries()).thenReturn(singletonList(entry("uri1", 1000L)));
+        service.find(project, Queryable.class);
+
+        when(queryResult.getEntries()).thenReturn(singletonList(entry("uri1", 2000L)));
+        final Obj obj1 = mock(Obj.class);
+        when(obj1.getUri()).thenReturn("uri1");
+        when(restTemplate.postForObject(BulkGet.URI, new BulkGetUris(singletonList("uri1")), BulkGet.class, PROJECT_ID))
+                .thenReturn(new BulkGet(singletonList(obj1)));
+
+        final MetadataDelta delta = service.sync(project, previous, Queryable.class);
+
+        assertThat(delta.getUpdated(), contains(obj1));
+    }
+
+    private static Entry entry(final String uri, final long updated) {
+        return new Entry(uri, null, null, null, null, null, false, null, null, null, new DateTime(updated), false, false);
+    }
+
     @Test
     public void testGetObjUriToFindOneObjByTitle() throws Exception {
         final Query queryResult = mock(Query.class);
@@ -404,7 +590,7 @@ public class MetadataServiceTest {
         final Attribute attr = mock(Attribute.class);
         when(attr.getDefaultDisplayForm()).thenReturn(attrDisplayForm);
 
-        when(restTemplate.getForObject("elementsUri", AttributeElements.class))
+        when(restTemplate.getForObject(URI.create("elementsUri"), AttributeElements.class))
                 .thenReturn(new AttributeElements(Collections.emptyList()));
         final List<AttributeElement> elements = service.getAttributeElements(attr);
         assertThat(elements, hasSize(0));
@@ -420,7 +606,7 @@ public class MetadataServiceTest {
         final AttributeElement result1 = mock(AttributeElement.class);
         final AttributeElement result2 = mock(AttributeElement.class);
 
-        when(restTemplate.getForObject("elementsUri", AttributeElements.class))
+        when(restTemplate.getForObject(URI.create("elementsUri"), AttributeElements.class))
                 .thenReturn(new AttributeElements(asList(result1, result2)));
         final List<AttributeElement> elements = service.getAttributeElements(attr);
         assertThat(elements, allOf(hasItem(result1), hasItem(result2)));
@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2004-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.md;
+
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.gooddata.util.ResourceUtils.readObjectFromResource;
+import static net.javacrumbs.jsonunit.JsonMatchers.jsonEquals;
+import static net.javacrumbs.jsonunit.core.util.ResourceUtils.resource;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class MetadataSnapshotTest {
+
+    @Test
+    public void testSerialization() throws Exception {
+        final Map<String, Long> metrics = new LinkedHashMap<>();
+        metrics.put("/gdc/md/PROJECT_ID/obj/1", 1514764800000L);
+        metrics.put("/gdc/md/PROJECT_ID/obj/2", null);
+        final MetadataSnapshot snapshot = new MetadataSnapshot("PROJECT_ID", Collections.singletonMap("metrics", metrics));
+
+        assertThat(snapshot, jsonEquals(resource("md/metadataSnapshot.json")));
+    }
+
+    @Test
+    public void testDeserialization() throws Exception {
+        final MetadataSnapshot snapshot = readObjectFromResource("/md/metadataSnapshot.json", MetadataSnapshot.class);
+
+        assertThat(snapshot.getProjectId(), is("PROJECT_ID"));
+        assertThat(snapshot.size(), is(2));
+        assertThat(snapshot.getEntries("metrics").get("/gdc/md/PROJECT_ID/obj/1"), is(1514764800000L));
+        assertThat(snapshot.getEntries("metrics").get("/gdc/md/PROJECT_ID/obj/2"), is(nullValue()));
+        assertThat(snapshot.getEntries("facts").isEmpty(), is(true));
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (C) 2004-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.md;
+
+import com.gooddata.GoodDataException;
+import org.apache.commons.io.IOUtils;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.gooddata.util.ResourceUtils.OBJECT_MAPPER;
+import static com.gooddata.util.ResourceUtils.readFromResource;
+import static com.gooddata.util.ResourceUtils.readObjectFromResource;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ObjBatchLoaderTest {
+
+    private static final String URI1 = "/gdc/md/PROJECT_ID/obj/1";
+    private static final String URI2 = "/gdc/md/PROJECT_ID/obj/2";
+    private static final String OTHER_URI = "/gdc/md/OTHER_ID/obj/1";
+
+    private MetadataService service;
+    private List<Collection<String>> requests;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        service = mock(MetadataService.class);
+        requests = new ArrayList<>();
+        when(service.getObjsByUris(any(String.class), anyCollectionOf(String.class))).thenAnswer(invocation -> {
+            @SuppressWarnings("unchecked")
+            final Collection<String> uris = new ArrayList<>((Collection<String>) invocation.getArguments()[1]);
+            synchronized (requests) {
+                requests.add(uris);
+            }
+            final List<Obj> result = new ArrayList<>();
+            for (String uri : uris) {
+                if (!uri.endsWith("/404")) {
+                    result.add(metric(uri));
+                }
+            }
+            return result;
+        });
+    }
+
+    @Test
+    public void shouldBatchLookupsOfProject() throws Exception {
+        try (ObjBatchLoader loader = new ObjBatchLoader(service, 100, 100, TimeUnit.MILLISECONDS)) {
+            final CompletableFuture<Metric> first = loader.load(URI1, Metric.class);
+            final CompletableFuture<Metric> second = loader.load(URI2, Metric.class);
+            final CompletableFuture<Metric> again = loader.load(URI1, Metric.class);
+            final CompletableFuture<Metric> other = loader.load(OTHER_URI, Metric.class);
+
+            assertThat(first.get(5, TimeUnit.SECONDS).getUri(), is(URI1));
+            assertThat(second.get(5, TimeUnit.SECONDS).getUri(), is(URI2));
+            assertThat(again.get(5, TimeUnit.SECONDS).getUri(), is(URI1));
+            assertThat(other.get(5, TimeUnit.SECONDS).getUri(), is(OTHER_URI));
+        }
+        assertThat(requests, hasSize(2));
+        assertThat(requests, containsInAnyOrder(asList(URI1, URI2), asList(OTHER_URI)));
+    }
+
+    @Test
+    public void shouldReturnOwnInstanceToEachLookup() throws Exception {
+        try (ObjBatchLoader loader = new ObjBatchLoader(service, 100, 10, TimeUnit.MILLISECONDS)) {
+            final CompletableFuture<Metric> first = loader.load(URI1, Metric.class);
+            final CompletableFuture<Metric> again = loader.load(URI1, Metric.class);
+
+            final Metric metric = first.get(5, TimeUnit.SECONDS);
+            metric.setTitle("changed");
+
+            assertThat(again.get(5, TimeUnit.SECONDS), is(not(sameInstance(metric))));
+            assertThat(again.get(5, TimeUnit.SECONDS).getTitle(), is(not("changed")));
+        }
+        assertThat(requests, hasSize(1));
+    }
+
+    @Test
+    public void shouldDispatchFullBatch() throws Exception {
+        try (ObjBatchLoader loader = new ObjBatchLoader(service, 2, 1, TimeUnit.HOURS)) {
+            final CompletableFuture<Metric> first = loader.load(URI1, Metric.class);
+            final CompletableFuture<Metric> second = loader.load(URI2, Metric.class);
+
+            assertThat(first.get(5, TimeUnit.SECONDS).getUri(), is(URI1));
+            assertThat(second.get(5, TimeUnit.SECONDS).getUri(), is(URI2));
+        }
+    }
+
+    @Test
+    public void shouldFailMissingObject() throws Exception {
+        try (ObjBatchLoader loader = new ObjBatchLoader(service, 100, 10, TimeUnit.MILLISECONDS)) {
+            loader.load("/gdc/md/PROJECT_ID/obj/404", Metric.class).get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), is(instanceOf(ObjNotFoundException.class)));
+            return;
+        }
+        throw new AssertionError("ObjNotFoundException expected");
+    }
+
+    @Test
+    public void shouldFailObjectOfDifferentType() throws Exception {
+        try (ObjBatchLoader loader = new ObjBatchLoader(service, 100, 10, TimeUnit.MILLISECONDS)) {
+            loader.load(URI1, Fact.class).get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), is(instanceOf(GoodDataException.class)));
+            return;
+        }
+        throw new AssertionError("GoodDataException expected");
+    }
+
+    @Test
+    public void shouldReturnFreshCachedObject() throws Exception {
+        final LruObjCache cache = new LruObjCache(10, 1, 1, TimeUnit.HOURS);
+        final Metric cached = readObjectFromResource("/md/metric.json", Metric.class);
+        cache.put(new CachedObj(URI1, cached, null, -1, System.currentTimeMillis()));
+        when(service.getObjCache()).thenReturn(cache);
+
+        try (ObjBatchLoader loader = new ObjBatchLoader(service, 100, 10, TimeUnit.MILLISECONDS)) {
+            assertThat(loader.load(URI1, Metric.class).get().getTitle(), is(cached.getTitle()));
+        }
+        assertThat(requests, hasSize(0));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldFailOnInvalidUri() throws Exception {
+        try (ObjBatchLoader loader = new ObjBatchLoader(service, 100, 10, TimeUnit.MILLISECONDS)) {
+            loader.load("/gdc/account/profile/1", Metric.class);
+        }
+    }
+
+    private static Metric metric(final String uri) throws IOException {
+        final String json = IOUtils.toString(readFromResource("/md/metric.json"), UTF_8);
+        return OBJECT_MAPPER.readValue(json.replace("/gdc/md/PROJECT_ID/obj/DF_ID", uri), Metric.class);
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright (C) 2004-2017, GoodData(R) Corporation. All rights reserved.
+ * This source code is licensed under the BSD-style license found in the
+ * LICENSE.txt file in the root directory of this source tree.
+ */
+package com.gooddata.md;
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+import org.testng.annotations.Test;
+
+import static java.util.Collections.singletonList;
+import static net.javacrumbs.jsonunit.JsonMatchers.jsonEquals;
+import static net.javacrumbs.jsonunit.core.util.ResourceUtils.resource;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+public class UriToIdentifierTest {
+
+    @Test
+    public void testSerialization() throws Exception {
+        assertThat(new UriToIdentifier(singletonList("/gdc/md/PROJECT_ID/obj")), jsonEquals(resource("md/uriToIdentifier.json")));
+    }
+
+    @Test
+    public void shouldVerifyEquals() throws Exception {
+        EqualsVerifier.forClass(UriToIdentifier.class)
+                .usingGetClass()
+                .withNonnullFields("uris")
+                .verify();
+    }
+}